@@ -0,0 +1,111 @@
+package analizer;
+
+import models.Board;
+import models.Card;
+import models.Hand;
+
+import java.util.Objects;
+
+/**
+ * Representative of the class of boards and hands, that differ only by the names of the suits,
+ * together with the permutation of suits, that maps the original cards to the canonical ones.
+ * Canonical forms are equal if their boards and hands are equal, the permutation is not compared,
+ * so the forms could be used as keys of caches.
+ */
+public class CanonicalForm {
+    private final Board board;
+    private final Hand hand;
+    private final int permutation;
+
+    /**
+     * @param board       canonical board or null
+     * @param hand        canonical hand or null
+     * @param permutation packed permutation of suits (see {@link SuitIsomorphism})
+     */
+    CanonicalForm(Board board, Hand hand, int permutation) {
+        this.board = board;
+        this.hand = hand;
+        this.permutation = permutation;
+    }
+
+    /**
+     * @return canonical board, or null if only hand was canonicalized
+     */
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * @return canonical hand, or null if only board was canonicalized
+     */
+    public Hand getHand() {
+        return hand;
+    }
+
+    /**
+     * @return key of the canonical board (see {@link Board#getKey()}), 0 if there is no board
+     */
+    public long getBoardKey() {
+        return board == null ? 0 : board.getKey();
+    }
+
+    /**
+     * @return mask of the canonical hand, 0 if there is no hand
+     */
+    public long getHandMask() {
+        return hand == null ? 0 : hand.getCardsMask();
+    }
+
+    /**
+     * @return packed permutation of suits, that maps the original cards to the canonical ones
+     */
+    public int getPermutation() {
+        return permutation;
+    }
+
+    /**
+     * @return suit, that the given original suit is mapped to
+     */
+    public Card.Suit mapSuit(Card.Suit suit) {
+        return Card.Suit.values()[SuitIsomorphism.mappedSuit(permutation, suit.ordinal())];
+    }
+
+    /**
+     * @return card of the canonical form, that corresponds to the given original card
+     */
+    public Card toCanonical(Card card) {
+        return SuitIsomorphism.permute(card, permutation);
+    }
+
+    /**
+     * @return original card, that corresponds to the given card of the canonical form
+     */
+    public Card fromCanonical(Card card) {
+        return SuitIsomorphism.permute(card, SuitIsomorphism.invert(permutation));
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || obj.getClass() != CanonicalForm.class) {
+            return false;
+        }
+        CanonicalForm other = (CanonicalForm) obj;
+        return getBoardKey() == other.getBoardKey() && getHandMask() == other.getHandMask();
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getBoardKey(), getHandMask());
+    }
+
+    /**
+     * @return string representation like: (CanonicalForm| Board: b, Hand: h)
+     */
+    @Override
+    public String toString() {
+        return "(CanonicalForm| Board: " + board + ", Hand: " + hand + ")";
+    }
+}
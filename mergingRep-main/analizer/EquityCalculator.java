@@ -0,0 +1,404 @@
+package analizer;
+
+import exceptions.IncorrectBoardException;
+import models.Board;
+import models.Card;
+import models.CardSet;
+import models.Hand;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Class that calculates all-in equities of several known hands.
+ */
+public class EquityCalculator {
+    public static final int MIN_HANDS = 2;
+    public static final int MAX_HANDS = 6;
+
+    private static final int BOARD_SIZE = 5;
+
+    /**
+     * Amount of samples every Monte Carlo worker takes before merging them into the common counters.
+     */
+    private static final int SAMPLES_BATCH = 4096;
+
+    /**
+     * Tolerance is not checked until at least that many samples are taken
+     * (first samples could give wrong estimation of the error).
+     */
+    private static final long MIN_SAMPLES = 10_000;
+
+    /**
+     * Calculates equities of the given hands by enumerating every possible runout of the board.
+     * Runouts are split between the threads of the common fork-join pool. Heads-up preflop matchups
+     * without dead cards are looked up in the {@link PreflopEquityTable}, and enumerated only if there is no table.
+     *
+     * @param hands     hands of the players (from 2 to 6)
+     * @param board     cards that are already on the board, or {@code null} on preflop
+     * @param deadCards cards that can not come on the board (folded, burned or exposed), could be {@code null}
+     * @return equities of the hands (in the same order as the hands are given)
+     * @throws IncorrectBoardException  if any card is repeated in hands, board and dead cards
+     * @throws IllegalArgumentException if amount of hands is not in [2; 6]
+     */
+    public static EquityResult calculateExhaustive(List<Hand> hands, Board board, Collection<Card> deadCards)
+            throws IncorrectBoardException {
+        long[] handMasks = toHandMasks(hands);
+        long boardMask = board == null ? 0 : board.getCardsMask();
+        int[] deck = remainingDeck(handMasks, boardMask, deadCards);
+        EquityResult preflopResult = lookupPreflop(handMasks, deck);
+        if (preflopResult != null) {
+            return preflopResult;
+        }
+
+        int cardsToDeal = BOARD_SIZE - Long.bitCount(boardMask);
+        EnumerationTask task = new EnumerationTask(handMasks, boardMask, deck, cardsToDeal, 0, deck.length - cardsToDeal + 1);
+        Counters counters = cardsToDeal == 0 ? task.enumerateRunouts() : task.invoke();
+        return counters.toResult(true);
+    }
+
+    /**
+     * Estimates equities of the given hands by random runouts of the board (Monte Carlo method).
+     * Runouts are sampled by several workers in parallel, every one of them shuffles its own
+     * copy of the deck with its own random generator. Sampling stops as soon as the standard error
+     * of every equity is less than the tolerance, or the time budget runs out. Heads-up preflop matchups
+     * without dead cards are looked up in the {@link PreflopEquityTable} (if there is one), so their result is exact.
+     *
+     * @param hands            hands of the players (from 2 to 6)
+     * @param board            cards that are already on the board, or {@code null} on preflop
+     * @param deadCards        cards that can not come on the board (folded, burned or exposed), could be {@code null}
+     * @param tolerance        max standard error of the equities (for example, 0.001 for 0.1%),
+     *                         0 to sample until the time budget runs out
+     * @param timeBudgetMillis max time of sampling in milliseconds, 0 for no time limit
+     * @return estimated equities of the hands (in the same order as the hands are given)
+     * @throws IncorrectBoardException  if any card is repeated in hands, board and dead cards
+     * @throws IllegalArgumentException if amount of hands is not in [2; 6],
+     *                                  or neither tolerance nor time budget are positive
+     */
+    public static EquityResult calculateMonteCarlo(List<Hand> hands, Board board, Collection<Card> deadCards,
+                                                   double tolerance, long timeBudgetMillis)
+            throws IncorrectBoardException {
+        if (tolerance <= 0 && timeBudgetMillis <= 0) {
+            throw new IllegalArgumentException("Either tolerance or time budget must be positive");
+        }
+        long[] handMasks = toHandMasks(hands);
+        long boardMask = board == null ? 0 : board.getCardsMask();
+        int[] deck = remainingDeck(handMasks, boardMask, deadCards);
+        EquityResult preflopResult = lookupPreflop(handMasks, deck);
+        if (preflopResult != null) {
+            return preflopResult;
+        }
+        int cardsToDeal = BOARD_SIZE - Long.bitCount(boardMask);
+        if (cardsToDeal == 0) {
+            return calculateExhaustive(hands, board, deadCards);
+        }
+
+        long deadline = timeBudgetMillis <= 0 ? Long.MAX_VALUE : System.nanoTime() + timeBudgetMillis * 1_000_000;
+        SamplingState state = new SamplingState(handMasks.length, tolerance, deadline);
+        SplittableRandom random = new SplittableRandom();
+        ArrayList<SamplingWorker> workers = new ArrayList<>();
+        for (int i = 0; i < Runtime.getRuntime().availableProcessors(); ++i) {
+            workers.add(new SamplingWorker(handMasks, boardMask, deck, cardsToDeal, random.split(), state));
+        }
+        ForkJoinTask.invokeAll(workers);
+        return state.total.toResult(false);
+    }
+
+    /**
+     * @param handMasks masks of the hands
+     * @param deck      cards that still can come on the board
+     * @return exact result from the {@link PreflopEquityTable#getDefault() default table} if there are 2 hands,
+     * the board is empty and there are no dead cards, or {@code null} if the runouts must be dealt
+     */
+    private static EquityResult lookupPreflop(long[] handMasks, int[] deck) {
+        if (handMasks.length != MIN_HANDS || deck.length != Card.CARDS_AMOUNT - 2 * MIN_HANDS) {
+            return null;
+        }
+        PreflopEquityTable table = PreflopEquityTable.getDefault();
+        return table == null ? null : table.getResult(handMasks[0], handMasks[1]);
+    }
+
+    /**
+     * @return masks of the given hands
+     * @throws IllegalArgumentException if amount of hands is not in [2; 6]
+     */
+    static long[] toHandMasks(List<Hand> hands) {
+        if (hands.size() < MIN_HANDS || hands.size() > MAX_HANDS) {
+            throw new IllegalArgumentException("Equity can be calculated only for 2 to 6 hands, but " + hands.size() + " were given");
+        }
+        long[] masks = new long[hands.size()];
+        for (int i = 0; i < masks.length; ++i) {
+            masks[i] = hands.get(i).getCardsMask();
+        }
+        return masks;
+    }
+
+    /**
+     * Finds all the cards that still can come on the board.
+     *
+     * @return indexes of the cards, that are not in hands, on the board or dead
+     * @throws IncorrectBoardException if any card is repeated in hands, board and dead cards
+     */
+    static int[] remainingDeck(long[] handMasks, long boardMask, Collection<Card> deadCards) throws IncorrectBoardException {
+        long known = boardMask;
+        int knownAmount = Long.bitCount(boardMask);
+        for (long hand : handMasks) {
+            known |= hand;
+            knownAmount += Long.bitCount(hand);
+        }
+        if (deadCards != null) {
+            for (Card card : deadCards) {
+                known |= CardSet.maskOf(card);
+                ++knownAmount;
+            }
+        }
+        if (Long.bitCount(known) != knownAmount) {
+            throw new IncorrectBoardException("Hands, board and dead cards must only contain unique cards");
+        }
+
+        long left = CardSet.FULL_MASK & ~known;
+        int[] deck = new int[Long.bitCount(left)];
+        for (int i = 0; i < deck.length; ++i) {
+            deck[i] = Long.numberOfTrailingZeros(left);
+            left &= left - 1;
+        }
+        return deck;
+    }
+
+    /**
+     * Counters of wins, ties and pot shares, gathered by one worker.
+     */
+    static final class Counters {
+        final long[] wins;
+        final long[] ties;
+        final double[] potShares;
+        final double[] potSharesSquared;
+        long runouts;
+
+        Counters(int handsAmount) {
+            wins = new long[handsAmount];
+            ties = new long[handsAmount];
+            potShares = new double[handsAmount];
+            potSharesSquared = new double[handsAmount];
+        }
+
+        /**
+         * Evaluates all the hands on the given full board and updates the counters.
+         *
+         * @param handMasks masks of the hands
+         * @param board     mask of 5 board cards
+         * @param strengths array to write strengths into (at least as long as handMasks)
+         */
+        void addRunout(long[] handMasks, long board, int[] strengths) {
+            int best = -1;
+            int winners = 0;
+            for (int i = 0; i < handMasks.length; ++i) {
+                int strength = HandEvaluator.evaluate(board | handMasks[i]);
+                strengths[i] = strength;
+                if (strength > best) {
+                    best = strength;
+                    winners = 1;
+                } else if (strength == best) {
+                    ++winners;
+                }
+            }
+
+            double share = 1.0 / winners;
+            for (int i = 0; i < handMasks.length; ++i) {
+                if (strengths[i] == best) {
+                    if (winners == 1) {
+                        ++wins[i];
+                    } else {
+                        ++ties[i];
+                    }
+                    potShares[i] += share;
+                    potSharesSquared[i] += share * share;
+                }
+            }
+            ++runouts;
+        }
+
+        void add(Counters other) {
+            for (int i = 0; i < wins.length; ++i) {
+                wins[i] += other.wins[i];
+                ties[i] += other.ties[i];
+                potShares[i] += other.potShares[i];
+                potSharesSquared[i] += other.potSharesSquared[i];
+            }
+            runouts += other.runouts;
+        }
+
+        void clear() {
+            for (int i = 0; i < wins.length; ++i) {
+                wins[i] = 0;
+                ties[i] = 0;
+                potShares[i] = 0;
+                potSharesSquared[i] = 0;
+            }
+            runouts = 0;
+        }
+
+        /**
+         * @return max standard error of the equities of all the hands
+         */
+        double maxStandardError() {
+            double maxError = 0;
+            for (int i = 0; i < wins.length; ++i) {
+                maxError = Math.max(maxError, EquityResult.standardError(potShares[i], potSharesSquared[i], runouts));
+            }
+            return maxError;
+        }
+
+        EquityResult toResult(boolean exact) {
+            return new EquityResult(wins, ties, potShares, potSharesSquared, runouts, exact);
+        }
+    }
+
+    /**
+     * Enumerates all the runouts, which first dealt card is taken from the given range of the deck.
+     * Range is split in halves until a single first card is left.
+     */
+    private static final class EnumerationTask extends RecursiveTask<Counters> {
+        private final long[] handMasks;
+        private final long boardMask;
+        private final int[] deck;
+        private final int cardsToDeal;
+        private final int from;
+        private final int to;
+
+        private Counters counters;
+        private int[] strengths;
+
+        EnumerationTask(long[] handMasks, long boardMask, int[] deck, int cardsToDeal, int from, int to) {
+            this.handMasks = handMasks;
+            this.boardMask = boardMask;
+            this.deck = deck;
+            this.cardsToDeal = cardsToDeal;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Counters compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                EnumerationTask left = new EnumerationTask(handMasks, boardMask, deck, cardsToDeal, from, middle);
+                EnumerationTask right = new EnumerationTask(handMasks, boardMask, deck, cardsToDeal, middle, to);
+                left.fork();
+                Counters result = right.compute();
+                result.add(left.join());
+                return result;
+            }
+
+            counters = new Counters(handMasks.length);
+            strengths = new int[handMasks.length];
+            if (from < to) {
+                deal(boardMask | 1L << deck[from], from + 1, cardsToDeal - 1);
+            }
+            return counters;
+        }
+
+        /**
+         * Evaluates the board, that is already full (used when there is nothing to deal).
+         */
+        Counters enumerateRunouts() {
+            counters = new Counters(handMasks.length);
+            strengths = new int[handMasks.length];
+            deal(boardMask, 0, 0);
+            return counters;
+        }
+
+        /**
+         * Recursively deals the rest of the cards, taking only cards after the given position in deck.
+         */
+        private void deal(long board, int start, int left) {
+            if (left == 0) {
+                counters.addRunout(handMasks, board, strengths);
+                return;
+            }
+            for (int i = start; i <= deck.length - left; ++i) {
+                deal(board | 1L << deck[i], i + 1, left - 1);
+            }
+        }
+    }
+
+    /**
+     * Counters shared by all the Monte Carlo workers and the condition of stopping.
+     */
+    private static final class SamplingState {
+        private final Counters total;
+        private final double tolerance;
+        private final long deadline;
+        private volatile boolean finished = false;
+
+        SamplingState(int handsAmount, double tolerance, long deadline) {
+            this.total = new Counters(handsAmount);
+            this.tolerance = tolerance;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Adds the batch of samples to the total counters and checks if sampling should be stopped.
+         */
+        synchronized void addBatch(Counters batch) {
+            if (finished) {
+                return;
+            }
+            total.add(batch);
+            if (System.nanoTime() >= deadline ||
+                    (tolerance > 0 && total.runouts >= MIN_SAMPLES && total.maxStandardError() < tolerance)) {
+                finished = true;
+            }
+        }
+    }
+
+    /**
+     * Takes random runouts in batches until the sampling state is finished.
+     */
+    private static final class SamplingWorker extends RecursiveAction {
+        private final long[] handMasks;
+        private final long boardMask;
+        private final int[] deck;
+        private final int cardsToDeal;
+        private final SplittableRandom random;
+        private final SamplingState state;
+
+        SamplingWorker(long[] handMasks, long boardMask, int[] deck, int cardsToDeal,
+                       SplittableRandom random, SamplingState state) {
+            this.handMasks = handMasks;
+            this.boardMask = boardMask;
+            // Every worker shuffles its own copy of the deck.
+            this.deck = deck.clone();
+            this.cardsToDeal = cardsToDeal;
+            this.random = random;
+            this.state = state;
+        }
+
+        @Override
+        protected void compute() {
+            Counters batch = new Counters(handMasks.length);
+            int[] strengths = new int[handMasks.length];
+            while (!state.finished) {
+                for (int sample = 0; sample < SAMPLES_BATCH; ++sample) {
+                    long board = boardMask;
+                    // Partial Fisher-Yates shuffle: only the cards being dealt are shuffled.
+                    for (int i = 0; i < cardsToDeal; ++i) {
+                        int j = i + random.nextInt(deck.length - i);
+                        int card = deck[j];
+                        deck[j] = deck[i];
+                        deck[i] = card;
+                        board |= 1L << card;
+                    }
+                    batch.addRunout(handMasks, board, strengths);
+                }
+                state.addBatch(batch);
+                batch.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package analizer;
+
+import java.text.DecimalFormat;
+import java.util.Arrays;
+
+/**
+ * Result of the equity calculation for several hands: how often every hand
+ * wins the whole pot, how often it splits the pot and what share of the pot it gets on average.
+ * Result can be either exact (all the runouts were enumerated) or estimated by random samples of runouts.
+ */
+public class EquityResult {
+    /**
+     * z-value of the 95% confidence interval.
+     */
+    private static final double CONFIDENCE_Z = 1.96;
+
+    private final long[] wins;
+    private final long[] ties;
+    private final double[] potShares;
+    private final double[] potSharesSquared;
+    private final long runouts;
+    private final boolean exact;
+
+    /**
+     * Constructs the result with given counters.
+     *
+     * @param wins      amount of runouts where every hand won the whole pot
+     * @param ties      amount of runouts where every hand split the pot
+     * @param potShares sum of the pot shares of every hand over all the runouts
+     * @param potSharesSquared sum of the squares of the pot shares of every hand over all the runouts
+     * @param runouts   amount of runouts checked
+     * @param exact     true if all the possible runouts were checked, false if they were sampled
+     */
+    EquityResult(long[] wins, long[] ties, double[] potShares, double[] potSharesSquared, long runouts, boolean exact) {
+        this.wins = wins.clone();
+        this.ties = ties.clone();
+        this.potShares = potShares.clone();
+        this.potSharesSquared = potSharesSquared.clone();
+        this.runouts = runouts;
+        this.exact = exact;
+    }
+
+    /**
+     * @return amount of hands in the result (hands keep the order they were given in)
+     */
+    public int getHandsAmount() {
+        return wins.length;
+    }
+
+    /**
+     * @return amount of runouts checked (amount of samples taken, if the result is not exact)
+     */
+    public long getRunouts() {
+        return runouts;
+    }
+
+    /**
+     * @return true if all the possible runouts were checked, false if equities are estimated by samples
+     */
+    public boolean isExact() {
+        return exact;
+    }
+
+    /**
+     * @return amount of runouts where the hand with given index won the whole pot
+     */
+    public long getWins(int hand) {
+        return wins[hand];
+    }
+
+    /**
+     * @return amount of runouts where the hand with given index split the pot
+     */
+    public long getTies(int hand) {
+        return ties[hand];
+    }
+
+    /**
+     * @return probability of the hand with given index to win the whole pot
+     */
+    public double getWinProbability(int hand) {
+        return runouts == 0 ? 0 : (double) wins[hand] / runouts;
+    }
+
+    /**
+     * @return probability of the hand with given index to split the pot
+     */
+    public double getTieProbability(int hand) {
+        return runouts == 0 ? 0 : (double) ties[hand] / runouts;
+    }
+
+    /**
+     * @return equity of the hand with given index - average share of the pot it gets (from 0 to 1)
+     */
+    public double getEquity(int hand) {
+        return runouts == 0 ? 0 : potShares[hand] / runouts;
+    }
+
+    /**
+     * @return standard error of the equity of the hand with given index (0 for the exact result)
+     */
+    public double getStandardError(int hand) {
+        if (exact || runouts < 2) {
+            return 0;
+        }
+        return standardError(potShares[hand], potSharesSquared[hand], runouts);
+    }
+
+    /**
+     * Equity of the hand lies in [equity - radius; equity + radius] with 95% confidence.
+     * @return radius of the 95% confidence interval of the equity of the hand with given index
+     */
+    public double getConfidenceRadius(int hand) {
+        return CONFIDENCE_Z * getStandardError(hand);
+    }
+
+    /**
+     * Counts standard error of the mean by the sums of the values and their squares.
+     */
+    static double standardError(double sum, double sumOfSquares, long amount) {
+        double mean = sum / amount;
+        double variance = Math.max(0, (sumOfSquares / amount - mean * mean) * amount / (amount - 1));
+        return Math.sqrt(variance / amount);
+    }
+
+    /**
+     * @return string representation like: (EquityResult| Runouts: r, Equities: [e1, e2]),
+     * where every estimated equity is followed by the radius of its confidence interval
+     */
+    @Override
+    public String toString() {
+        DecimalFormat dcf = new DecimalFormat("##0.00");
+        String[] equities = new String[getHandsAmount()];
+        for (int i = 0; i < equities.length; ++i) {
+            equities[i] = dcf.format(getEquity(i) * 100).replace(',', '.') + "%";
+            if (!exact) {
+                equities[i] += " ± " + dcf.format(getConfidenceRadius(i) * 100).replace(',', '.') + "%";
+            }
+        }
+        return "(EquityResult| Runouts: " + runouts + ", Equities: " + Arrays.toString(equities) + ")";
+    }
+}
@@ -0,0 +1,221 @@
+package analizer;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded thread-safe cache of evaluation results, keyed by 64-bit keys of sets of cards
+ * (like masks of cards, see {@link models.CardSet}).
+ * <p>
+ * Keys are spread between several segments, every one of them has its own lock, so threads
+ * rarely wait for each other. Every segment uses segmented LRU eviction: new entries get into the
+ * probation part, entries that are requested again are moved to the protected part. When the
+ * segment is full, the least recently used probation entry is evicted, so a long run of keys,
+ * that are requested only once, does not wash out the frequently requested ones.
+ *
+ * @param <V> type of the cached values (should be immutable, because they are shared between threads)
+ */
+public class EvaluationCache<V> {
+    private static final int SEGMENTS_AMOUNT = 16;
+    /**
+     * Part of the capacity of every segment, taken by the protected entries (in percents).
+     */
+    private static final int PROTECTED_PERCENT = 80;
+
+    private final Segment<V>[] segments;
+    private final int capacity;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructs empty cache.
+     *
+     * @param capacity max amount of entries in cache
+     * @throws IllegalArgumentException if capacity is less than the amount of segments (16)
+     */
+    public EvaluationCache(int capacity) {
+        if (capacity < SEGMENTS_AMOUNT) {
+            throw new IllegalArgumentException("Capacity must be at least " + SEGMENTS_AMOUNT + ", but was " + capacity);
+        }
+        this.capacity = capacity;
+        @SuppressWarnings("unchecked")
+        Segment<V>[] segments = (Segment<V>[]) new Segment<?>[SEGMENTS_AMOUNT];
+        this.segments = segments;
+        int segmentCapacity = capacity / SEGMENTS_AMOUNT;
+        for (int i = 0; i < SEGMENTS_AMOUNT; ++i) {
+            // Remainder of the capacity is given to the first segments.
+            segments[i] = new Segment<>(segmentCapacity + (i < capacity % SEGMENTS_AMOUNT ? 1 : 0));
+        }
+    }
+
+    /**
+     * @param key key of the set of cards
+     * @return cached value, or null if there is no value for the key
+     */
+    public V get(long key) {
+        V value = segmentFor(key).get(key);
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Puts the value into cache (replaces the old value, if there was one).
+     *
+     * @param key   key of the set of cards
+     * @param value value to cache
+     * @throws IllegalArgumentException if value is null
+     */
+    public void put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values could not be cached");
+        }
+        if (segmentFor(key).put(key, value)) {
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Removes all the entries (counters are not reset).
+     */
+    public void clear() {
+        for (Segment<V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * @return amount of entries in cache
+     */
+    public int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return max amount of entries in cache
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return amount of requests, for which value was found
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return amount of requests, for which value was not found
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return amount of entries, that were evicted to free place for new ones
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return part of the requests, for which value was found (0 if there were no requests)
+     */
+    public double getHitRate() {
+        long hitsAmount = getHits();
+        long requests = hitsAmount + getMisses();
+        return requests == 0 ? 0 : (double) hitsAmount / requests;
+    }
+
+    private Segment<V> segmentFor(long key) {
+        // Masks of cards differ mostly in lower bits, so the key is mixed before choosing the segment.
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return segments[(int) (mixed >>> 60)];
+    }
+
+    /**
+     * @return string representation like: (EvaluationCache| Size: s, Hits: h, Misses: m, Evictions: e)
+     */
+    @Override
+    public String toString() {
+        return "(EvaluationCache| Size: " + size() + ", Hits: " + getHits() +
+                ", Misses: " + getMisses() + ", Evictions: " + getEvictions() + ")";
+    }
+
+    /**
+     * Part of the cache with its own lock. Both maps are ordered by access, so their first entries are the least recently used.
+     */
+    private static final class Segment<V> {
+        private final int capacity;
+        private final int protectedCapacity;
+        private final LinkedHashMap<Long, V> probation = new LinkedHashMap<>(16, 0.75f, true);
+        private final LinkedHashMap<Long, V> protectedPart = new LinkedHashMap<>(16, 0.75f, true);
+
+        Segment(int capacity) {
+            this.capacity = capacity;
+            this.protectedCapacity = capacity * PROTECTED_PERCENT / 100;
+        }
+
+        synchronized V get(long key) {
+            V value = protectedPart.get(key);
+            if (value != null) {
+                return value;
+            }
+            value = probation.remove(key);
+            if (value != null) {
+                protectedPart.put(key, value);
+                if (protectedPart.size() > protectedCapacity) {
+                    // The least recently used protected entry gets another chance in probation.
+                    Map.Entry<Long, V> demoted = removeEldest(protectedPart);
+                    probation.put(demoted.getKey(), demoted.getValue());
+                }
+            }
+            return value;
+        }
+
+        /**
+         * @return true if an entry was evicted
+         */
+        synchronized boolean put(long key, V value) {
+            if (protectedPart.containsKey(key)) {
+                protectedPart.put(key, value);
+                return false;
+            }
+            probation.put(key, value);
+            if (probation.size() + protectedPart.size() > capacity) {
+                removeEldest(probation);
+                return true;
+            }
+            return false;
+        }
+
+        synchronized void clear() {
+            probation.clear();
+            protectedPart.clear();
+        }
+
+        synchronized int size() {
+            return probation.size() + protectedPart.size();
+        }
+
+        private static <V> Map.Entry<Long, V> removeEldest(LinkedHashMap<Long, V> map) {
+            Iterator<Map.Entry<Long, V>> iterator = map.entrySet().iterator();
+            Map.Entry<Long, V> eldest = iterator.next();
+            Map.Entry<Long, V> result = Map.entry(eldest.getKey(), eldest.getValue());
+            iterator.remove();
+            return result;
+        }
+    }
+}
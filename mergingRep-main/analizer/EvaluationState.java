@@ -0,0 +1,189 @@
+package analizer;
+
+import models.Board;
+import models.Card;
+import models.Hand;
+
+import java.util.Arrays;
+
+/**
+ * Incremental state of the evaluation of up to 7 cards: counts of every rank and every suit
+ * and masks of ranks of every suit. Cards are added one by one (for example, street by street),
+ * and the state could be snapshotted before adding cards, so the common part (like the board)
+ * is counted only once for all the players and all the streets.
+ */
+public class EvaluationState {
+    public static final int MAX_CARDS = 7;
+
+    private static final int SUITS_AMOUNT = Card.CARDS_AMOUNT / Card.RANKS_AMOUNT;
+
+    private final int[] suitRanks;
+    private final byte[] rankCounts;
+    private final byte[] suitCounts;
+    private long cardsMask;
+
+    /**
+     * Constructs empty state.
+     */
+    public EvaluationState() {
+        this.suitRanks = new int[SUITS_AMOUNT];
+        this.rankCounts = new byte[Card.RANKS_AMOUNT];
+        this.suitCounts = new byte[SUITS_AMOUNT];
+        this.cardsMask = 0;
+    }
+
+    private EvaluationState(EvaluationState copyState) {
+        this.suitRanks = copyState.suitRanks.clone();
+        this.rankCounts = copyState.rankCounts.clone();
+        this.suitCounts = copyState.suitCounts.clone();
+        this.cardsMask = copyState.cardsMask;
+    }
+
+    /**
+     * @return state with all the cards of the board
+     */
+    public static EvaluationState of(Board board) {
+        EvaluationState state = new EvaluationState();
+        for (int i = 0; i < board.size(); ++i) {
+            state.addCard(board.get(i));
+        }
+        return state;
+    }
+
+    /**
+     * @return independent copy of this state, that could be advanced without changing this one
+     */
+    public EvaluationState snapshot() {
+        return new EvaluationState(this);
+    }
+
+    /**
+     * Adds the card to the state.
+     *
+     * @param card card to add
+     * @return this state
+     * @throws IllegalArgumentException if the card is already in the state or there are already 7 cards
+     */
+    public EvaluationState addCard(Card card) {
+        return addCard(card.getIndex());
+    }
+
+    /**
+     * Adds the card with given index to the state.
+     *
+     * @param card index of the card to add (see {@link Card#getIndex()})
+     * @return this state
+     * @throws IllegalArgumentException if the card is already in the state or there are already 7 cards
+     */
+    public EvaluationState addCard(int card) {
+        if ((cardsMask & 1L << card) != 0) {
+            throw new IllegalArgumentException("Card " + Card.of(card) + " is already in the state");
+        }
+        if (size() == MAX_CARDS) {
+            throw new IllegalArgumentException("State could contain no more than " + MAX_CARDS + " cards");
+        }
+        int suit = card / Card.RANKS_AMOUNT;
+        int rank = card % Card.RANKS_AMOUNT;
+        suitRanks[suit] |= 1 << rank;
+        ++rankCounts[rank];
+        ++suitCounts[suit];
+        cardsMask |= 1L << card;
+        return this;
+    }
+
+    /**
+     * Adds both cards of the hand to the state.
+     *
+     * @return this state
+     * @throws IllegalArgumentException if any card is already in the state or there are too many cards
+     */
+    public EvaluationState addHand(Hand hand) {
+        addCard(hand.getCard1());
+        return addCard(hand.getCard2());
+    }
+
+    /**
+     * @return amount of cards in the state
+     */
+    public int size() {
+        return Long.bitCount(cardsMask);
+    }
+
+    /**
+     * @return mask of all the cards in the state (see {@link models.CardSet})
+     */
+    public long getCardsMask() {
+        return cardsMask;
+    }
+
+    /**
+     * @return amount of cards of the rank with given index (0 for TWO, 12 for ACE)
+     */
+    public int getRankCount(int rank) {
+        return rankCounts[rank];
+    }
+
+    /**
+     * @return amount of cards of the given suit
+     */
+    public int getSuitCount(Card.Suit suit) {
+        return suitCounts[suit.ordinal()];
+    }
+
+    /**
+     * @return mask of ranks of the cards of the given suit
+     */
+    public int getSuitRanks(Card.Suit suit) {
+        return suitRanks[suit.ordinal()];
+    }
+
+    /**
+     * @return mask of ranks of all the cards
+     */
+    public int getRanks() {
+        return suitRanks[0] | suitRanks[1] | suitRanks[2] | suitRanks[3];
+    }
+
+    /**
+     * @return strength of the best combination of the cards (see {@link HandEvaluator})
+     * @throws IllegalStateException if there are less than 5 cards in the state
+     */
+    public int getStrength() {
+        if (size() < 5) {
+            throw new IllegalStateException("At least 5 cards are needed to make a combination, but there are " + size());
+        }
+        return HandEvaluator.evaluate(suitRanks[0], suitRanks[1], suitRanks[2], suitRanks[3]);
+    }
+
+    /**
+     * @return the best combination of the cards
+     * @throws IllegalStateException if there are less than 5 cards in the state
+     */
+    public Combination getCombination() {
+        return HandEvaluator.getCombination(getStrength());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || obj.getClass() != EvaluationState.class) {
+            return false;
+        }
+        return cardsMask == ((EvaluationState) obj).cardsMask;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cardsMask);
+    }
+
+    /**
+     * @return string representation like: (EvaluationState| Cards: n, Rank counts: [c2, ..., cA])
+     */
+    @Override
+    public String toString() {
+        return "(EvaluationState| Cards: " + size() + ", Rank counts: " + Arrays.toString(rankCounts) + ")";
+    }
+}
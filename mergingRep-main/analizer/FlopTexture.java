@@ -0,0 +1,355 @@
+package analizer;
+
+import models.Card;
+
+/**
+ * Texture of the flop: suits, pairs, connectedness and how easily straights and flushes are made on it.
+ * <p>
+ * Textures of all the 22100 flops are counted once, when the class is loaded, and are kept
+ * in the table of packed int entries, indexed by the flop index (see {@link #flopIndex(long)}).
+ * So getting the texture of any board takes constant time. Turn and river do not change the
+ * texture of the flop, so boards with the same flop share the same entry.
+ */
+public final class FlopTexture {
+    public static final int FLOPS_AMOUNT = Card.CARDS_AMOUNT * (Card.CARDS_AMOUNT - 1) * (Card.CARDS_AMOUNT - 2) / 6;
+
+    /**
+     * All 3 cards are of the same suit.
+     */
+    public static final int MONOTONE = 1;
+    /**
+     * 2 cards are of the same suit, the third one is of the other suit.
+     */
+    public static final int TWO_TONE = 1 << 1;
+    /**
+     * All 3 cards are of different suits.
+     */
+    public static final int RAINBOW = 1 << 2;
+    /**
+     * Exactly 2 cards are of the same rank.
+     */
+    public static final int PAIRED = 1 << 3;
+    /**
+     * All 3 cards are of the same rank.
+     */
+    public static final int TRIPS = 1 << 4;
+    /**
+     * 3 different ranks, that lie within 4 consecutive ranks (like 789, 689 or A34).
+     */
+    public static final int CONNECTED = 1 << 5;
+    /**
+     * Straight could be made with 2 hole cards.
+     */
+    public static final int STRAIGHT_POSSIBLE = 1 << 6;
+    /**
+     * At least 2 cards are ten or higher.
+     */
+    public static final int HIGH = 1 << 7;
+    /**
+     * All the cards are eight or lower.
+     */
+    public static final int LOW = 1 << 8;
+
+    private static final int FLAGS_MASK = (1 << 9) - 1;
+    private static final int STRAIGHT_COMBOS_SHIFT = 9;
+    private static final int HIGH_RANK_SHIFT = 16;
+    private static final int CLASS_SHIFT = 20;
+    private static final int FLUSH_CARDS_SHIFT = 24;
+
+    private static final int TEN = 8;
+    private static final int EIGHT = 6;
+    private static final int ACE = 12;
+
+    private static final TextureClass[] CLASSES = TextureClass.values();
+
+    /**
+     * Texture entry of every flop: bits 0 - 8 are flags, bits 9 - 15 are the amount of straight rank pairs,
+     * bits 16 - 19 are the highest rank, bits 20 - 22 are the texture class, bits 24 - 26 are
+     * the amount of cards needed to make a flush.
+     */
+    private static final int[] ENTRIES = new int[FLOPS_AMOUNT];
+
+    static {
+        for (int c2 = 2; c2 < Card.CARDS_AMOUNT; ++c2) {
+            for (int c1 = 1; c1 < c2; ++c1) {
+                for (int c0 = 0; c0 < c1; ++c0) {
+                    ENTRIES[flopIndex(c0, c1, c2)] = countEntry(c0, c1, c2);
+                }
+            }
+        }
+    }
+
+    /**
+     * Class of the flop texture, from the most dangerous for made hands to the safest one.
+     */
+    public enum TextureClass {
+        /**
+         * Flop is monotone.
+         */
+        MONOTONE,
+        /**
+         * Flop is paired or trips.
+         */
+        PAIRED,
+        /**
+         * Flop is two-tone and connected.
+         */
+        WET,
+        /**
+         * Flop is either two-tone, or straight is possible on it.
+         */
+        SEMI_WET,
+        /**
+         * Rainbow flop, where no straight is possible.
+         */
+        DRY
+    }
+
+    private final int flopIndex;
+    private final int entry;
+
+    private FlopTexture(int flopIndex) {
+        this.flopIndex = flopIndex;
+        this.entry = ENTRIES[flopIndex];
+    }
+
+    /**
+     * @param flopIndex index of the flop (see {@link #flopIndex(long)})
+     * @return texture of the flop
+     * @throws IllegalArgumentException if index is not in [0; 22100)
+     */
+    public static FlopTexture of(int flopIndex) {
+        if (flopIndex < 0 || flopIndex >= FLOPS_AMOUNT) {
+            throw new IllegalArgumentException("Flop index must be in [0; " + FLOPS_AMOUNT + "), but was " + flopIndex);
+        }
+        return new FlopTexture(flopIndex);
+    }
+
+    /**
+     * Counts the index of the flop in the combinatorial number system, so all the flops
+     * get indexes from 0 to 22099 and order of cards does not matter.
+     *
+     * @param flopMask mask of the flop cards (see {@link models.CardSet})
+     * @return index of the flop
+     * @throws IllegalArgumentException if not exactly 3 cards are in the mask
+     */
+    public static int flopIndex(long flopMask) {
+        if (Long.bitCount(flopMask) != 3 || (flopMask >>> Card.CARDS_AMOUNT) != 0) {
+            throw new IllegalArgumentException("Flop must consist of exactly 3 cards");
+        }
+        int c0 = Long.numberOfTrailingZeros(flopMask);
+        flopMask &= flopMask - 1;
+        int c1 = Long.numberOfTrailingZeros(flopMask);
+        flopMask &= flopMask - 1;
+        int c2 = Long.numberOfTrailingZeros(flopMask);
+        return flopIndex(c0, c1, c2);
+    }
+
+    /**
+     * @param c0 the lowest card index
+     * @param c1 the middle card index
+     * @param c2 the highest card index
+     * @return index of the flop
+     */
+    private static int flopIndex(int c0, int c1, int c2) {
+        return c0 + c1 * (c1 - 1) / 2 + c2 * (c2 - 1) * (c2 - 2) / 6;
+    }
+
+    /**
+     * Returns the packed entry of the flop, so several flags could be checked without creating objects.
+     *
+     * @param flopIndex index of the flop
+     * @return packed texture entry of the flop, flags could be checked like {@code (entry & MONOTONE) != 0}
+     */
+    public static int getEntry(int flopIndex) {
+        return ENTRIES[flopIndex];
+    }
+
+    private static int countEntry(int c0, int c1, int c2) {
+        int[] cards = {c0, c1, c2};
+        int[] suitCounts = new int[4];
+        int ranks = 0;
+        int highCards = 0;
+        int highRank = 0;
+        for (int card : cards) {
+            int rank = card % Card.RANKS_AMOUNT;
+            ++suitCounts[card / Card.RANKS_AMOUNT];
+            ranks |= 1 << rank;
+            highCards += rank >= TEN ? 1 : 0;
+            highRank = Math.max(highRank, rank);
+        }
+        int maxSuitCount = Math.max(Math.max(suitCounts[0], suitCounts[1]), Math.max(suitCounts[2], suitCounts[3]));
+        int distinctRanks = Integer.bitCount(ranks);
+
+        int flags = 0;
+        flags |= maxSuitCount == 3 ? MONOTONE : maxSuitCount == 2 ? TWO_TONE : RAINBOW;
+        flags |= distinctRanks == 2 ? PAIRED : distinctRanks == 1 ? TRIPS : 0;
+        flags |= distinctRanks == 3 && isConnected(ranks) ? CONNECTED : 0;
+        flags |= highCards >= 2 ? HIGH : 0;
+        flags |= highRank <= EIGHT ? LOW : 0;
+
+        int straightCombos = 0;
+        for (int r1 = 1; r1 < Card.RANKS_AMOUNT; ++r1) {
+            for (int r0 = 0; r0 < r1; ++r0) {
+                if (HandEvaluator.straightHigh(ranks | 1 << r0 | 1 << r1) >= 0) {
+                    ++straightCombos;
+                }
+            }
+        }
+        flags |= straightCombos > 0 ? STRAIGHT_POSSIBLE : 0;
+
+        TextureClass textureClass;
+        if ((flags & MONOTONE) != 0) {
+            textureClass = TextureClass.MONOTONE;
+        } else if ((flags & (PAIRED | TRIPS)) != 0) {
+            textureClass = TextureClass.PAIRED;
+        } else if ((flags & TWO_TONE) != 0 && (flags & CONNECTED) != 0) {
+            textureClass = TextureClass.WET;
+        } else if ((flags & (TWO_TONE | STRAIGHT_POSSIBLE)) != 0) {
+            textureClass = TextureClass.SEMI_WET;
+        } else {
+            textureClass = TextureClass.DRY;
+        }
+
+        return flags | straightCombos << STRAIGHT_COMBOS_SHIFT | highRank << HIGH_RANK_SHIFT |
+                textureClass.ordinal() << CLASS_SHIFT | (5 - maxSuitCount) << FLUSH_CARDS_SHIFT;
+    }
+
+    /**
+     * @return true if the ranks lie within 4 consecutive ranks (ace could be the lowest rank)
+     */
+    private static boolean isConnected(int ranks) {
+        int wheelRanks = (ranks & 1 << ACE) != 0 ? (ranks & ~(1 << ACE)) << 1 | 1 : ranks << 1;
+        return spread(ranks) <= 3 || spread(wheelRanks) <= 3;
+    }
+
+    private static int spread(int ranks) {
+        return (31 - Integer.numberOfLeadingZeros(ranks)) - Integer.numberOfTrailingZeros(ranks);
+    }
+
+    /**
+     * @return index of the flop (from 0 to 22099)
+     */
+    public int getFlopIndex() {
+        return flopIndex;
+    }
+
+    /**
+     * @return packed entry of the flop texture
+     */
+    public int getEntry() {
+        return entry;
+    }
+
+    /**
+     * @param flags one or several flags, like {@code MONOTONE | CONNECTED}
+     * @return true if the flop has all the given flags
+     */
+    public boolean hasFlags(int flags) {
+        return (entry & flags) == flags;
+    }
+
+    /**
+     * @return all the flags of the flop
+     */
+    public int getFlags() {
+        return entry & FLAGS_MASK;
+    }
+
+    public boolean isMonotone() {
+        return hasFlags(MONOTONE);
+    }
+
+    public boolean isTwoTone() {
+        return hasFlags(TWO_TONE);
+    }
+
+    public boolean isRainbow() {
+        return hasFlags(RAINBOW);
+    }
+
+    /**
+     * @return true if the flop is paired or trips
+     */
+    public boolean isPaired() {
+        return (entry & (PAIRED | TRIPS)) != 0;
+    }
+
+    public boolean isTrips() {
+        return hasFlags(TRIPS);
+    }
+
+    public boolean isConnected() {
+        return hasFlags(CONNECTED);
+    }
+
+    public boolean isStraightPossible() {
+        return hasFlags(STRAIGHT_POSSIBLE);
+    }
+
+    public boolean isHigh() {
+        return hasFlags(HIGH);
+    }
+
+    public boolean isLow() {
+        return hasFlags(LOW);
+    }
+
+    /**
+     * @return amount of pairs of different hole card ranks, that make a straight on this flop (from 0 to 78)
+     */
+    public int getStraightCombos() {
+        return (entry >>> STRAIGHT_COMBOS_SHIFT) & 0x7F;
+    }
+
+    /**
+     * @return amount of cards of one suit, that are needed to make a flush with this flop
+     * (2 for monotone flop, 3 for two-tone and 4 for rainbow)
+     */
+    public int getFlushCardsNeeded() {
+        return (entry >>> FLUSH_CARDS_SHIFT) & 0x7;
+    }
+
+    /**
+     * @return rank index of the highest card of the flop (0 for TWO, 12 for ACE)
+     */
+    public int getHighRank() {
+        return (entry >>> HIGH_RANK_SHIFT) & 0xF;
+    }
+
+    public TextureClass getTextureClass() {
+        return CLASSES[(entry >>> CLASS_SHIFT) & 0x7];
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || obj.getClass() != FlopTexture.class) {
+            return false;
+        }
+        return flopIndex == ((FlopTexture) obj).flopIndex;
+    }
+
+    @Override
+    public int hashCode() {
+        return flopIndex;
+    }
+
+    /**
+     * @return string representation like: (FlopTexture| Class: c, Flags: [f1, f2], Straight combos: s)
+     */
+    @Override
+    public String toString() {
+        StringBuilder flags = new StringBuilder();
+        String[] names = {"MONOTONE", "TWO_TONE", "RAINBOW", "PAIRED", "TRIPS", "CONNECTED", "STRAIGHT_POSSIBLE", "HIGH", "LOW"};
+        for (int i = 0; i < names.length; ++i) {
+            if ((entry & 1 << i) != 0) {
+                flags.append(flags.length() == 0 ? "" : ", ").append(names[i]);
+            }
+        }
+        return "(FlopTexture| Class: " + getTextureClass() + ", Flags: [" + flags +
+                "], Straight combos: " + getStraightCombos() + ")";
+    }
+}
@@ -0,0 +1,369 @@
+package analizer;
+
+import models.Card;
+
+/**
+ * Table-driven evaluator of Texas Holdem combinations, made of 5 to 7 cards.
+ * Works only with primitive values, so it does not allocate anything while evaluating.
+ * <p>
+ * Card is represented by its int index (see {@link Card#getIndex()}). Set of cards is represented
+ * by a long mask, where the bit with the index of every card in set is raised - so 13 lowest bits
+ * of every suit slice of the mask are exactly the ranks of that suit.
+ * <p>
+ * The strength returned is a single int: the bigger the strength, the better the combination.
+ * Bits 20 - 23 contain the ordinal of {@link Combination}, bits 0 - 19 contain up to 5 ranks
+ * (4 bits each, the most significant first), that define the combination and its kickers.
+ */
+public final class HandEvaluator {
+    public static final int RANKS_AMOUNT = Card.RANKS_AMOUNT;
+    public static final int CARDS_AMOUNT = Card.CARDS_AMOUNT;
+
+    private static final int RANKS_MASK = (1 << RANKS_AMOUNT) - 1;
+    private static final int CATEGORY_SHIFT = 20;
+    private static final int ACE = 12;
+    private static final int FIVE = 3;
+    // Ace, 2, 3, 4, 5
+    private static final int WHEEL = 0x100F;
+
+    private static final Combination[] COMBINATIONS = Combination.values();
+
+    /**
+     * For every mask of ranks contains the rank of the highest card of the best
+     * straight these ranks make, or -1 if there is no straight.
+     */
+    private static final byte[] STRAIGHT_HIGH = new byte[1 << RANKS_AMOUNT];
+
+    /**
+     * For every mask of ranks contains 5 highest ranks of it, packed in nibbles
+     * (the highest rank is the most significant one).
+     */
+    private static final int[] TOP_FIVE = new int[1 << RANKS_AMOUNT];
+
+    static {
+        for (int mask = 0; mask <= RANKS_MASK; ++mask) {
+            STRAIGHT_HIGH[mask] = (byte) findStraightHigh(mask);
+            TOP_FIVE[mask] = packTopRanks(mask, Math.min(5, Integer.bitCount(mask))) << (4 * Math.max(0, 5 - Integer.bitCount(mask)));
+        }
+    }
+
+    /**
+     * Batches are evaluated by {@link VectorBatchEvaluator}, when the app is run with
+     * {@code --add-modules jdk.incubator.vector} and the vectors of the CPU are wide enough.
+     * Otherwise the vector classes are never loaded, and the hands are evaluated one by one.
+     */
+    private static final boolean VECTOR_BATCH = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+            && VectorBatchEvaluator.isSupported();
+
+    private HandEvaluator() {
+    }
+
+    /**
+     * Evaluates the best combination that could be made with given cards.
+     *
+     * @param cards mask of cards (from 5 to 7 cards must be raised)
+     * @return strength of the best combination
+     */
+    public static int evaluate(long cards) {
+        int s0 = (int) cards & RANKS_MASK;
+        int s1 = (int) (cards >>> RANKS_AMOUNT) & RANKS_MASK;
+        int s2 = (int) (cards >>> (2 * RANKS_AMOUNT)) & RANKS_MASK;
+        int s3 = (int) (cards >>> (3 * RANKS_AMOUNT)) & RANKS_MASK;
+        return evaluate(s0, s1, s2, s3);
+    }
+
+    /**
+     * Evaluates the best combination that could be made with given cards.
+     *
+     * @param s0 ranks of the cards of the first suit
+     * @param s1 ranks of the cards of the second suit
+     * @param s2 ranks of the cards of the third suit
+     * @param s3 ranks of the cards of the fourth suit
+     * @return strength of the best combination
+     */
+    static int evaluate(int s0, int s1, int s2, int s3) {
+        // With at most 7 cards only one suit can have 5 cards.
+        int flush = 0;
+        if (Integer.bitCount(s0) >= 5) {
+            flush = s0;
+        } else if (Integer.bitCount(s1) >= 5) {
+            flush = s1;
+        } else if (Integer.bitCount(s2) >= 5) {
+            flush = s2;
+        } else if (Integer.bitCount(s3) >= 5) {
+            flush = s3;
+        }
+        return evaluateWithFlush(s0, s1, s2, s3, flush);
+    }
+
+    /**
+     * Evaluates the best combination, when it is already known if there is a flush.
+     *
+     * @param flush ranks of the suit with 5 or more cards, 0 if there is no such suit
+     * @return strength of the best combination
+     */
+    static int evaluateWithFlush(int s0, int s1, int s2, int s3, int flush) {
+        int ranks = s0 | s1 | s2 | s3;
+        if (flush != 0) {
+            int high = STRAIGHT_HIGH[flush];
+            if (high == ACE) {
+                return strength(Combination.FLUSH_ROYAL, high << 16);
+            }
+            if (high >= 0) {
+                return strength(Combination.STRAIGHT_FLUSH, high << 16);
+            }
+        }
+
+        int quads = s0 & s1 & s2 & s3;
+        if (quads != 0) {
+            int quadsRank = highestRank(quads);
+            return strength(Combination.QUADS, quadsRank << 16 | highestRank(ranks & ~(1 << quadsRank)) << 12);
+        }
+
+        int threeOrMore = (s0 & s1 & (s2 | s3)) | (s2 & s3 & (s0 | s1));
+        int twoOrMore = (s0 & (s1 | s2 | s3)) | (s1 & (s2 | s3)) | (s2 & s3);
+        if (threeOrMore != 0) {
+            int setRank = highestRank(threeOrMore);
+            // Second set could also serve as a pair of the full house.
+            int pairs = twoOrMore & ~(1 << setRank);
+            if (pairs != 0) {
+                return strength(Combination.FULL_HOUSE, setRank << 16 | highestRank(pairs) << 12);
+            }
+        }
+
+        if (flush != 0) {
+            return strength(Combination.FLUSH, TOP_FIVE[flush]);
+        }
+
+        int straightHigh = STRAIGHT_HIGH[ranks];
+        if (straightHigh >= 0) {
+            return strength(Combination.STRAIGHT, straightHigh << 16);
+        }
+
+        if (threeOrMore != 0) {
+            int setRank = highestRank(threeOrMore);
+            return strength(Combination.SET, setRank << 16 | packTopRanks(ranks & ~(1 << setRank), 2) << 8);
+        }
+
+        if (twoOrMore != 0) {
+            int highPair = highestRank(twoOrMore);
+            int otherPairs = twoOrMore & ~(1 << highPair);
+            if (otherPairs != 0) {
+                int lowPair = highestRank(otherPairs);
+                int kicker = highestRank(ranks & ~(1 << highPair) & ~(1 << lowPair));
+                return strength(Combination.TWO_PAIRS, highPair << 16 | lowPair << 12 | kicker << 8);
+            }
+            return strength(Combination.PAIR, highPair << 16 | packTopRanks(ranks & ~(1 << highPair), 3) << 4);
+        }
+
+        return strength(Combination.HIGH_CARD, TOP_FIVE[ranks]);
+    }
+
+    /**
+     * Evaluates the best combination that could be made with given cards.
+     *
+     * @param cards indexes of cards (from 5 to 7 unique cards)
+     * @return strength of the best combination
+     * @throws IllegalArgumentException if amount of cards is not in [5; 7] or cards are not unique
+     */
+    public static int evaluate(int[] cards) {
+        if (cards.length < 5 || cards.length > 7) {
+            throw new IllegalArgumentException("Combination can be made only of 5 to 7 cards, but " + cards.length + " were given");
+        }
+        long mask = 0;
+        for (int card : cards) {
+            mask |= 1L << card;
+        }
+        if (Long.bitCount(mask) != cards.length) {
+            throw new IllegalArgumentException("Cards must be unique");
+        }
+        return evaluate(mask);
+    }
+
+    /**
+     * Evaluates combination of 5 given cards (cards must be unique).
+     *
+     * @return strength of the combination
+     */
+    public static int evaluate(int c1, int c2, int c3, int c4, int c5) {
+        return evaluate(1L << c1 | 1L << c2 | 1L << c3 | 1L << c4 | 1L << c5);
+    }
+
+    /**
+     * Evaluates the best combination of 6 given cards (cards must be unique).
+     *
+     * @return strength of the best combination
+     */
+    public static int evaluate(int c1, int c2, int c3, int c4, int c5, int c6) {
+        return evaluate(1L << c1 | 1L << c2 | 1L << c3 | 1L << c4 | 1L << c5 | 1L << c6);
+    }
+
+    /**
+     * Evaluates the best combination of 7 given cards (cards must be unique).
+     *
+     * @return strength of the best combination
+     */
+    public static int evaluate(int c1, int c2, int c3, int c4, int c5, int c6, int c7) {
+        return evaluate(1L << c1 | 1L << c2 | 1L << c3 | 1L << c4 | 1L << c5 | 1L << c6 | 1L << c7);
+    }
+
+    /**
+     * Evaluates many hands on the same board.
+     *
+     * @param board     mask of the board cards (from 3 to 5 cards)
+     * @param holeCards indexes of the hole cards: cards of the i-th hand are
+     *                  {@code holeCards[2 * i]} and {@code holeCards[2 * i + 1]}
+     * @return strengths of the hands (-1 for the hands, that share cards with the board)
+     * @throws IllegalArgumentException if amount of hole cards is odd
+     */
+    public static int[] evaluateBatch(long board, int[] holeCards) {
+        int[] strengths = new int[holeCards.length / 2];
+        evaluateBatch(board, holeCards, strengths);
+        return strengths;
+    }
+
+    /**
+     * Evaluates many hands on the same board. Board is checked for the flush suit only once,
+     * and conflicts with the board are checked by a single mask operation. When the vector path is available,
+     * several hands are evaluated at once by the lanes of a vector (see {@link VectorBatchEvaluator}).
+     *
+     * @param board     mask of the board cards (from 3 to 5 cards)
+     * @param holeCards indexes of the hole cards: cards of the i-th hand are
+     *                  {@code holeCards[2 * i]} and {@code holeCards[2 * i + 1]}
+     * @param strengths array, where strengths of the hands are written
+     *                  (-1 for the hands, that share cards with the board)
+     * @throws IllegalArgumentException if amount of hole cards is odd, or there is not enough place for strengths
+     */
+    public static void evaluateBatch(long board, int[] holeCards, int[] strengths) {
+        if (holeCards.length % 2 != 0) {
+            throw new IllegalArgumentException("Every hand must consist of 2 hole cards");
+        }
+        if (strengths.length < holeCards.length / 2) {
+            throw new IllegalArgumentException("Array for " + holeCards.length / 2 + " strengths is too short");
+        }
+        int flushShift = flushShift(board);
+        int evaluated = VECTOR_BATCH ? VectorBatchEvaluator.evaluateBatch(board, flushShift, holeCards, strengths) : 0;
+        evaluateBatchScalar(board, flushShift, holeCards, strengths, evaluated);
+    }
+
+    /**
+     * @return true if {@link #evaluateBatch(long, int[], int[])} evaluates the hands by vectors
+     */
+    static boolean isVectorBatch() {
+        return VECTOR_BATCH;
+    }
+
+    /**
+     * Only the suit with at least 3 cards on the board could make a flush with 2 hole cards
+     * (and there could be only one such suit), so other suits are not checked for every hand.
+     *
+     * @return shift of that suit in the mask of cards, or -1 if there is no such suit
+     */
+    static int flushShift(long board) {
+        int flushShift = -1;
+        for (int suit = 0; suit < 4; ++suit) {
+            if (Long.bitCount(board & (long) RANKS_MASK << (suit * RANKS_AMOUNT)) >= 3) {
+                flushShift = suit * RANKS_AMOUNT;
+            }
+        }
+        return flushShift;
+    }
+
+    /**
+     * Scalar path of {@link #evaluateBatch(long, int[], int[])}: evaluates the hands one by one.
+     *
+     * @param fromHand index of the first hand to evaluate
+     */
+    static void evaluateBatchScalar(long board, int flushShift, int[] holeCards, int[] strengths, int fromHand) {
+        for (int i = 2 * fromHand, hand = fromHand; i < holeCards.length; i += 2, ++hand) {
+            long holeMask = 1L << holeCards[i] | 1L << holeCards[i + 1];
+            if ((board & holeMask) != 0) {
+                strengths[hand] = -1;
+                continue;
+            }
+            long cards = board | holeMask;
+            int flush = 0;
+            if (flushShift >= 0) {
+                int suitRanks = (int) (cards >>> flushShift) & RANKS_MASK;
+                flush = Integer.bitCount(suitRanks) >= 5 ? suitRanks : 0;
+            }
+            strengths[hand] = evaluateWithFlush((int) cards & RANKS_MASK,
+                    (int) (cards >>> RANKS_AMOUNT) & RANKS_MASK,
+                    (int) (cards >>> (2 * RANKS_AMOUNT)) & RANKS_MASK,
+                    (int) (cards >>> (3 * RANKS_AMOUNT)) & RANKS_MASK,
+                    flush);
+        }
+    }
+
+    /**
+     * @param strength strength, returned by one of the evaluate methods
+     * @return combination that the strength represents
+     */
+    public static Combination getCombination(int strength) {
+        return COMBINATIONS[strength >>> CATEGORY_SHIFT];
+    }
+
+    /**
+     * Returns one of the ranks that define the combination and its kickers.
+     * For example, for the TWO_PAIRS position 0 is the rank of the higher pair,
+     * 1 - of the lower one and 2 - rank of the kicker. For straights, position 0 is
+     * the rank of the highest card of the straight.
+     *
+     * @param strength strength, returned by one of the evaluate methods
+     * @param position position of the rank (from 0 to 4)
+     * @return rank index (0 for TWO, 12 for ACE)
+     */
+    public static int getRank(int strength, int position) {
+        return (strength >>> (16 - 4 * position)) & 0xF;
+    }
+
+    /**
+     * @param ranks mask of ranks (13 lowest bits)
+     * @return rank of the highest card of the best straight these ranks make, or -1 if there is no straight
+     */
+    static int straightHigh(int ranks) {
+        return STRAIGHT_HIGH[ranks & RANKS_MASK];
+    }
+
+    /**
+     * @param ranks mask of ranks (13 lowest bits)
+     * @return 5 highest ranks of the mask, packed in nibbles (the highest rank is the most significant one)
+     */
+    static int topFive(int ranks) {
+        return TOP_FIVE[ranks & RANKS_MASK];
+    }
+
+    static int strength(Combination combination, int ranks) {
+        return combination.ordinal() << CATEGORY_SHIFT | ranks;
+    }
+
+    private static int highestRank(int ranks) {
+        return 31 - Integer.numberOfLeadingZeros(ranks);
+    }
+
+    /**
+     * Packs given amount of the highest ranks of the mask into nibbles
+     * (the highest rank becomes the most significant).
+     */
+    private static int packTopRanks(int ranks, int amount) {
+        int packed = 0;
+        for (int i = 0; i < amount; ++i) {
+            int rank = highestRank(ranks);
+            packed = packed << 4 | rank;
+            ranks &= ~(1 << rank);
+        }
+        return packed;
+    }
+
+    private static int findStraightHigh(int ranks) {
+        for (int high = ACE; high >= FIVE + 1; --high) {
+            int straight = 0x1F << (high - 4);
+            if ((ranks & straight) == straight) {
+                return high;
+            }
+        }
+        if ((ranks & WHEEL) == WHEEL) {
+            return FIVE;
+        }
+        return -1;
+    }
+}
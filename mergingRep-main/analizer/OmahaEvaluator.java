@@ -0,0 +1,328 @@
+package analizer;
+
+import exceptions.IncorrectBoardException;
+import models.Board;
+import models.Card;
+import models.CardSet;
+import models.OmahaHand;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Evaluator of Pot-Limit Omaha combinations: the combination must be made of exactly
+ * 2 cards of the hand and exactly 3 cards of the board (60 combinations on the river).
+ * <p>
+ * Partial results are counted once: every triple of the board is prepared with its suit,
+ * if all its cards are of the same suit, and every pair of the hand is prepared with its suit,
+ * if it is suited. So a flush is checked by a single comparison of suits, and
+ * the prepared board is shared between all the hands, that are evaluated on it.
+ */
+public final class OmahaEvaluator {
+    public static final int MIN_HANDS = 2;
+    public static final int MAX_HANDS = 6;
+
+    private static final int SUITS_AMOUNT = Card.CARDS_AMOUNT / Card.RANKS_AMOUNT;
+    private static final int RANKS_MASK = (1 << Card.RANKS_AMOUNT) - 1;
+    private static final int BOARD_SIZE = 5;
+    private static final int MIN_BOARD_SIZE = 3;
+    // C(4, 2)
+    private static final int PAIRS_AMOUNT = 6;
+    // C(5, 3)
+    private static final int MAX_TRIPLES_AMOUNT = 10;
+
+    private OmahaEvaluator() {
+    }
+
+    /**
+     * Board with all its triples of cards prepared for the evaluation.
+     */
+    public static final class PreparedBoard {
+        private final long boardMask;
+        private final long[] triples = new long[MAX_TRIPLES_AMOUNT];
+        private final int[] tripleSuits = new int[MAX_TRIPLES_AMOUNT];
+        private int triplesAmount;
+
+        private PreparedBoard(long boardMask) {
+            this.boardMask = boardMask;
+            fill(boardMask);
+        }
+
+        /**
+         * @return mask of the cards of the board (see {@link CardSet})
+         */
+        public long getBoardMask() {
+            return boardMask;
+        }
+
+        /**
+         * @return amount of triples of cards of the board (1 on the flop, 4 on the turn, 10 on the river)
+         */
+        public int getTriplesAmount() {
+            return triplesAmount;
+        }
+
+        private void fill(long boardMask) {
+            triplesAmount = 0;
+            for (long first = boardMask; first != 0; first &= first - 1) {
+                for (long second = first & (first - 1); second != 0; second &= second - 1) {
+                    for (long third = second & (second - 1); third != 0; third &= third - 1) {
+                        long triple = Long.lowestOneBit(first) | Long.lowestOneBit(second) | Long.lowestOneBit(third);
+                        triples[triplesAmount] = triple;
+                        tripleSuits[triplesAmount] = singleSuit(triple);
+                        ++triplesAmount;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Prepares the board to evaluate many hands on it.
+     *
+     * @param boardMask mask of the cards of the board (from 3 to 5 cards must be raised)
+     * @return prepared board
+     * @throws IllegalArgumentException if amount of cards of the board is not in [3; 5]
+     */
+    public static PreparedBoard prepare(long boardMask) {
+        checkBoardSize(boardMask);
+        return new PreparedBoard(boardMask);
+    }
+
+    /**
+     * Evaluates the best Omaha combination of the hand on the board.
+     *
+     * @param board board with 3 to 5 cards
+     * @param hand  hand of 4 cards
+     * @return strength of the best combination (see {@link HandEvaluator})
+     * @throws IncorrectBoardException if the board has less than 3 cards, or cards of the hand are on the board
+     */
+    public static int evaluate(Board board, OmahaHand hand) throws IncorrectBoardException {
+        if (board == null || board.size() < MIN_BOARD_SIZE) {
+            throw new IncorrectBoardException("Omaha combination could be made only on the flop, turn or river");
+        }
+        if ((board.getCardsMask() & hand.getCardsMask()) != 0) {
+            throw new IncorrectBoardException("Cards of the hand must not be on the board");
+        }
+        return evaluate(new PreparedBoard(board.getCardsMask()), hand.getCardsMask());
+    }
+
+    /**
+     * Evaluates the best Omaha combination of the hand on the board.
+     *
+     * @param boardMask mask of the cards of the board (from 3 to 5 cards must be raised)
+     * @param handMask  mask of the cards of the hand (4 cards must be raised)
+     * @return strength of the best combination (see {@link HandEvaluator})
+     * @throws IllegalArgumentException if amounts of cards are wrong, or cards of the hand are on the board
+     */
+    public static int evaluate(long boardMask, long handMask) {
+        return evaluate(prepare(boardMask), handMask);
+    }
+
+    /**
+     * Evaluates the best Omaha combination of the hand on the prepared board.
+     *
+     * @param board    prepared board
+     * @param handMask mask of the cards of the hand (4 cards must be raised)
+     * @return strength of the best combination (see {@link HandEvaluator})
+     * @throws IllegalArgumentException if amount of cards of the hand is not 4, or cards of the hand are on the board
+     */
+    public static int evaluate(PreparedBoard board, long handMask) {
+        checkHand(board.boardMask, handMask);
+        long[] pairs = new long[PAIRS_AMOUNT];
+        int[] pairSuits = new int[PAIRS_AMOUNT];
+        preparePairs(handMask, pairs, pairSuits);
+        return evaluatePrepared(board, pairs, pairSuits);
+    }
+
+    /**
+     * Evaluates many hands on the same board (board is prepared only once).
+     *
+     * @param boardMask mask of the cards of the board (from 3 to 5 cards must be raised)
+     * @param handMasks masks of the cards of the hands (4 cards must be raised in every one of them)
+     * @return strengths of the best combinations (in the same order as the hands are given),
+     * -1 for the hands, which cards are on the board
+     * @throws IllegalArgumentException if amounts of cards are wrong
+     */
+    public static int[] evaluateBatch(long boardMask, long[] handMasks) {
+        PreparedBoard board = prepare(boardMask);
+        long[] pairs = new long[PAIRS_AMOUNT];
+        int[] pairSuits = new int[PAIRS_AMOUNT];
+        int[] strengths = new int[handMasks.length];
+        for (int i = 0; i < handMasks.length; ++i) {
+            if (Long.bitCount(handMasks[i]) != OmahaHand.CARDS_AMOUNT) {
+                throw new IllegalArgumentException("Omaha hand must consist of " + OmahaHand.CARDS_AMOUNT + " cards");
+            }
+            if ((handMasks[i] & boardMask) != 0) {
+                strengths[i] = -1;
+                continue;
+            }
+            preparePairs(handMasks[i], pairs, pairSuits);
+            strengths[i] = evaluatePrepared(board, pairs, pairSuits);
+        }
+        return strengths;
+    }
+
+    /**
+     * Calculates Omaha equities of the given hands by enumerating every possible runout of the board.
+     * Pairs of every hand are prepared once, triples of every runout are prepared once for all the hands.
+     *
+     * @param hands     hands of the players (from 2 to 6)
+     * @param board     cards that are already on the board, or {@code null} on preflop
+     * @param deadCards cards that can not come on the board, could be {@code null}
+     * @return equities of the hands (in the same order as the hands are given)
+     * @throws IncorrectBoardException  if any card is repeated in hands, board and dead cards
+     * @throws IllegalArgumentException if amount of hands is not in [2; 6]
+     */
+    public static EquityResult calculateEquity(List<OmahaHand> hands, Board board, Collection<Card> deadCards)
+            throws IncorrectBoardException {
+        if (hands == null || hands.size() < MIN_HANDS || hands.size() > MAX_HANDS) {
+            throw new IllegalArgumentException("Amount of hands must be from " + MIN_HANDS + " to " + MAX_HANDS);
+        }
+        long boardMask = board == null ? 0 : board.getCardsMask();
+        long used = boardMask;
+        long[][] pairs = new long[hands.size()][PAIRS_AMOUNT];
+        int[][] pairSuits = new int[hands.size()][PAIRS_AMOUNT];
+        for (int i = 0; i < hands.size(); ++i) {
+            long handMask = hands.get(i).getCardsMask();
+            if ((used & handMask) != 0) {
+                throw new IncorrectBoardException("Cards must not be repeated in board and hands");
+            }
+            used |= handMask;
+            preparePairs(handMask, pairs[i], pairSuits[i]);
+        }
+        if (deadCards != null) {
+            long deadMask = CardSet.of(deadCards).getMask();
+            if ((used & deadMask) != 0) {
+                throw new IncorrectBoardException("Dead cards must not be in board and hands");
+            }
+            used |= deadMask;
+        }
+
+        long deck = CardSet.FULL_MASK & ~used;
+        long[] wins = new long[hands.size()];
+        long[] ties = new long[hands.size()];
+        double[] potShares = new double[hands.size()];
+        double[] potSharesSquared = new double[hands.size()];
+        int[] strengths = new int[hands.size()];
+        PreparedBoard prepared = new PreparedBoard(boardMask);
+        long runouts = enumerate(boardMask, deck, BOARD_SIZE - Long.bitCount(boardMask), prepared,
+                pairs, pairSuits, strengths, wins, ties, potShares, potSharesSquared);
+        return new EquityResult(wins, ties, potShares, potSharesSquared, runouts, true);
+    }
+
+    /**
+     * Deals the remaining cards in increasing order of their indexes (so every runout is dealt once)
+     * and counts the results of every full board.
+     *
+     * @return amount of runouts dealt
+     */
+    private static long enumerate(long boardMask, long deck, int cardsToDeal, PreparedBoard prepared,
+                                  long[][] pairs, int[][] pairSuits, int[] strengths,
+                                  long[] wins, long[] ties, double[] potShares, double[] potSharesSquared) {
+        if (cardsToDeal == 0) {
+            prepared.fill(boardMask);
+            int best = -1;
+            int winners = 0;
+            for (int i = 0; i < strengths.length; ++i) {
+                strengths[i] = evaluatePrepared(prepared, pairs[i], pairSuits[i]);
+                if (strengths[i] > best) {
+                    best = strengths[i];
+                    winners = 1;
+                } else if (strengths[i] == best) {
+                    ++winners;
+                }
+            }
+            double share = 1.0 / winners;
+            for (int i = 0; i < strengths.length; ++i) {
+                if (strengths[i] == best) {
+                    if (winners == 1) {
+                        ++wins[i];
+                    } else {
+                        ++ties[i];
+                    }
+                    potShares[i] += share;
+                    potSharesSquared[i] += share * share;
+                }
+            }
+            return 1;
+        }
+        long runouts = 0;
+        for (long left = deck; left != 0; left &= left - 1) {
+            long card = Long.lowestOneBit(left);
+            runouts += enumerate(boardMask | card, left & (left - 1), cardsToDeal - 1, prepared,
+                    pairs, pairSuits, strengths, wins, ties, potShares, potSharesSquared);
+        }
+        return runouts;
+    }
+
+    /**
+     * Fills all 6 pairs of cards of the hand and their suits (-1 if the pair is not suited).
+     */
+    private static void preparePairs(long handMask, long[] pairs, int[] pairSuits) {
+        int amount = 0;
+        for (long first = handMask; first != 0; first &= first - 1) {
+            for (long second = first & (first - 1); second != 0; second &= second - 1) {
+                long pair = Long.lowestOneBit(first) | Long.lowestOneBit(second);
+                pairs[amount] = pair;
+                pairSuits[amount] = singleSuit(pair);
+                ++amount;
+            }
+        }
+    }
+
+    private static int evaluatePrepared(PreparedBoard board, long[] pairs, int[] pairSuits) {
+        int best = 0;
+        for (int t = 0; t < board.triplesAmount; ++t) {
+            long triple = board.triples[t];
+            int tripleSuit = board.tripleSuits[t];
+            for (int p = 0; p < PAIRS_AMOUNT; ++p) {
+                long cards = triple | pairs[p];
+                int s0 = (int) cards & RANKS_MASK;
+                int s1 = (int) (cards >>> Card.RANKS_AMOUNT) & RANKS_MASK;
+                int s2 = (int) (cards >>> (2 * Card.RANKS_AMOUNT)) & RANKS_MASK;
+                int s3 = (int) (cards >>> (3 * Card.RANKS_AMOUNT)) & RANKS_MASK;
+                // 5 cards make a flush only if both the triple and the pair are of the same single suit.
+                int flush = 0;
+                if (tripleSuit >= 0 && tripleSuit == pairSuits[p]) {
+                    flush = (int) (cards >>> (tripleSuit * Card.RANKS_AMOUNT)) & RANKS_MASK;
+                }
+                int strength = HandEvaluator.evaluateWithFlush(s0, s1, s2, s3, flush);
+                if (strength > best) {
+                    best = strength;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return suit of all the cards, or -1 if the cards are of different suits
+     */
+    private static int singleSuit(long cards) {
+        for (int suit = 0; suit < SUITS_AMOUNT; ++suit) {
+            long suitSlice = (long) RANKS_MASK << (suit * Card.RANKS_AMOUNT);
+            if ((cards & ~suitSlice) == 0) {
+                return suit;
+            }
+        }
+        return -1;
+    }
+
+    private static void checkBoardSize(long boardMask) {
+        int size = Long.bitCount(boardMask);
+        if (size < MIN_BOARD_SIZE || size > BOARD_SIZE) {
+            throw new IllegalArgumentException("Board must consist of " + MIN_BOARD_SIZE + " to " + BOARD_SIZE +
+                    " cards, but there are " + size);
+        }
+    }
+
+    private static void checkHand(long boardMask, long handMask) {
+        if (Long.bitCount(handMask) != OmahaHand.CARDS_AMOUNT) {
+            throw new IllegalArgumentException("Omaha hand must consist of " + OmahaHand.CARDS_AMOUNT + " cards");
+        }
+        if ((boardMask & handMask) != 0) {
+            throw new IllegalArgumentException("Cards of the hand must not be on the board");
+        }
+    }
+}
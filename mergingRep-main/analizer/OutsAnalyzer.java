@@ -0,0 +1,166 @@
+package analizer;
+
+import exceptions.IncorrectBoardException;
+import models.Board;
+import models.Card;
+import models.CardSet;
+import models.Hand;
+
+import java.util.Collection;
+
+/**
+ * Class that counts outs of the hand and distribution of its combinations over the runouts of the board.
+ * <p>
+ * Ranks of every suit of the board and the hand are counted once, then every remaining card
+ * is added to them by a single OR of its suit slice, so the board is not evaluated from scratch for every runout.
+ */
+public class OutsAnalyzer {
+    private static final int SUITS_AMOUNT = Card.CARDS_AMOUNT / Card.RANKS_AMOUNT;
+    private static final int RANKS_MASK = (1 << Card.RANKS_AMOUNT) - 1;
+    private static final int TURN_BOARD_SIZE = 4;
+
+    /**
+     * Counts the distribution over every possible next card: turn if the board is flop, river if the board is turn.
+     *
+     * @param board     flop or turn
+     * @param hero      hand, which outs are counted
+     * @param villain   hand of the opponent, could be {@code null} if it is unknown
+     * @param deadCards cards that can not come on the board, could be {@code null}
+     * @return distribution of the combinations of hero over the next cards
+     * @throws IncorrectBoardException if the board is river, or cards are repeated
+     */
+    public static RunoutDistribution analyzeNextCard(Board board, Hand hero, Hand villain, Collection<Card> deadCards)
+            throws IncorrectBoardException {
+        int[] heroState = new int[SUITS_AMOUNT];
+        int[] villainState = new int[SUITS_AMOUNT];
+        long deck = prepare(board, hero, villain, deadCards, heroState, villainState);
+
+        int current = HandEvaluator.evaluate(board.getCardsMask() | hero.getCardsMask());
+        Combination currentCombination = HandEvaluator.getCombination(current);
+
+        long[] counts = new long[Combination.values().length];
+        long runouts = 0;
+        long wins = 0;
+        long ties = 0;
+        long improving = 0;
+        long winning = 0;
+        for (long left = deck; left != 0; left &= left - 1) {
+            int card = Long.numberOfTrailingZeros(left);
+            int strength = evaluateWith(heroState, card);
+            ++counts[HandEvaluator.getCombination(strength).ordinal()];
+            ++runouts;
+            if (HandEvaluator.getCombination(strength).compareTo(currentCombination) > 0) {
+                improving |= 1L << card;
+            }
+            if (villain != null) {
+                int villainStrength = evaluateWith(villainState, card);
+                if (strength > villainStrength) {
+                    ++wins;
+                    winning |= 1L << card;
+                } else if (strength == villainStrength) {
+                    ++ties;
+                }
+            }
+        }
+        return new RunoutDistribution(currentCombination, counts, runouts, wins, ties, villain != null,
+                CardSet.of(improving), CardSet.of(winning));
+    }
+
+    /**
+     * Counts the distribution over every possible pair of turn and river cards.
+     *
+     * @param flop      board with exactly 3 cards
+     * @param hero      hand, which combinations are counted
+     * @param villain   hand of the opponent, could be {@code null} if it is unknown
+     * @param deadCards cards that can not come on the board, could be {@code null}
+     * @return distribution of the combinations of hero over the runouts
+     * @throws IncorrectBoardException if the board is not flop, or cards are repeated
+     */
+    public static RunoutDistribution analyzeRunouts(Board flop, Hand hero, Hand villain, Collection<Card> deadCards)
+            throws IncorrectBoardException {
+        if (flop == null || flop.size() != 3) {
+            throw new IncorrectBoardException("Runouts of turn and river could be counted only on the flop");
+        }
+        int[] heroState = new int[SUITS_AMOUNT];
+        int[] villainState = new int[SUITS_AMOUNT];
+        long deck = prepare(flop, hero, villain, deadCards, heroState, villainState);
+
+        int current = HandEvaluator.evaluate(flop.getCardsMask() | hero.getCardsMask());
+        int[] heroTurnState = new int[SUITS_AMOUNT];
+        int[] villainTurnState = new int[SUITS_AMOUNT];
+        long[] counts = new long[Combination.values().length];
+        long runouts = 0;
+        long wins = 0;
+        long ties = 0;
+        for (long turns = deck; turns != 0; turns &= turns - 1) {
+            int turn = Long.numberOfTrailingZeros(turns);
+            // State after the turn is reused for every river.
+            addCard(heroState, turn, heroTurnState);
+            addCard(villainState, turn, villainTurnState);
+            for (long rivers = turns & (turns - 1); rivers != 0; rivers &= rivers - 1) {
+                int river = Long.numberOfTrailingZeros(rivers);
+                int strength = evaluateWith(heroTurnState, river);
+                ++counts[HandEvaluator.getCombination(strength).ordinal()];
+                ++runouts;
+                if (villain != null) {
+                    int villainStrength = evaluateWith(villainTurnState, river);
+                    if (strength > villainStrength) {
+                        ++wins;
+                    } else if (strength == villainStrength) {
+                        ++ties;
+                    }
+                }
+            }
+        }
+        return new RunoutDistribution(HandEvaluator.getCombination(current), counts, runouts, wins, ties,
+                villain != null, CardSet.EMPTY, CardSet.EMPTY);
+    }
+
+    /**
+     * Checks the cards, fills ranks of every suit of the board with the hands and
+     * returns the mask of the cards, that could come on the board.
+     */
+    private static long prepare(Board board, Hand hero, Hand villain, Collection<Card> deadCards,
+                                int[] heroState, int[] villainState) throws IncorrectBoardException {
+        if (board == null || hero == null) {
+            throw new IllegalArgumentException("Board and hero hand must not be null");
+        }
+        if (board.size() > TURN_BOARD_SIZE) {
+            throw new IncorrectBoardException("There are no more cards to come after the river");
+        }
+        long used = board.getCardsMask();
+        long[] parts = {hero.getCardsMask(), villain == null ? 0 : villain.getCardsMask(),
+                deadCards == null ? 0 : CardSet.of(deadCards).getMask()};
+        for (long part : parts) {
+            if ((used & part) != 0) {
+                throw new IncorrectBoardException("Cards must not be repeated in board, hands and dead cards");
+            }
+            used |= part;
+        }
+
+        fillState(board.getCardsMask() | parts[0], heroState);
+        fillState(board.getCardsMask() | parts[1], villainState);
+        return CardSet.FULL_MASK & ~used;
+    }
+
+    private static void fillState(long cards, int[] state) {
+        for (int suit = 0; suit < SUITS_AMOUNT; ++suit) {
+            state[suit] = (int) (cards >>> (suit * Card.RANKS_AMOUNT)) & RANKS_MASK;
+        }
+    }
+
+    private static void addCard(int[] state, int card, int[] result) {
+        System.arraycopy(state, 0, result, 0, SUITS_AMOUNT);
+        result[card / Card.RANKS_AMOUNT] |= 1 << (card % Card.RANKS_AMOUNT);
+    }
+
+    private static int evaluateWith(int[] state, int card) {
+        int bit = 1 << (card % Card.RANKS_AMOUNT);
+        return switch (card / Card.RANKS_AMOUNT) {
+            case 0 -> HandEvaluator.evaluate(state[0] | bit, state[1], state[2], state[3]);
+            case 1 -> HandEvaluator.evaluate(state[0], state[1] | bit, state[2], state[3]);
+            case 2 -> HandEvaluator.evaluate(state[0], state[1], state[2] | bit, state[3]);
+            default -> HandEvaluator.evaluate(state[0], state[1], state[2], state[3] | bit);
+        };
+    }
+}
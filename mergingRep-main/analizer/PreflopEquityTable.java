@@ -0,0 +1,229 @@
+package analizer;
+
+import models.Card;
+import models.Hand;
+import models.HandRange;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Precomputed heads-up all-in equities of all the preflop matchups.
+ * <p>
+ * The table is read from the binary file, generated by {@link PreflopEquityTableGenerator}
+ * (the file is shipped at {@link #DEFAULT_PATH}). File is mapped into memory read-only,
+ * so the table does not take any heap and every lookup is a couple of reads from the mapped buffer.
+ * <p>
+ * Matchups, that differ only by the names of the suits, have equal equities, so only one matchup
+ * of every such class is stored: the hero hand is renamed to the representative of its hand class,
+ * and the villain hand is renamed by the same permutation of suits (see {@link SuitIsomorphism}).
+ * File contains the header (magic number and version), then equities of 169 x 169 hand classes
+ * as unsigned 16-bit fixed-point numbers, then wins and ties of the hero for every hand class
+ * against every canonical villain combo, so the exact result of the enumeration could be restored.
+ */
+public final class PreflopEquityTable {
+    public static final String DEFAULT_PATH = "src/main/resources/serializedFiles/preflopEquities.bin";
+
+    /**
+     * Amount of hand classes: 13 pairs, 78 suited and 78 offsuit hands.
+     */
+    public static final int CLASSES_AMOUNT = Card.RANKS_AMOUNT * Card.RANKS_AMOUNT;
+
+    /**
+     * Amount of runouts of 5 cards from the 48 cards, that are left after two hands are dealt.
+     */
+    static final int RUNOUTS = 48 * 47 * 46 * 45 * 44 / (5 * 4 * 3 * 2);
+
+    static final int MAGIC = 0x50464551;
+    static final int VERSION = 2;
+    static final int CLASS_TABLE_OFFSET = 2 * Integer.BYTES;
+    static final int MATCHUP_TABLE_OFFSET = CLASS_TABLE_OFFSET + Character.BYTES * CLASSES_AMOUNT * CLASSES_AMOUNT;
+    /**
+     * Every matchup takes two ints: wins and ties of the hero.
+     */
+    static final int MATCHUP_BYTES = 2 * Integer.BYTES;
+    static final int MATCHUPS_AMOUNT = CLASSES_AMOUNT * HandRange.COMBOS_AMOUNT;
+    static final int FILE_SIZE = MATCHUP_TABLE_OFFSET + MATCHUP_BYTES * MATCHUPS_AMOUNT;
+
+    /**
+     * Equity 1 is written as this value.
+     */
+    static final int EQUITY_SCALE = 0xFFFE;
+
+    private final MappedByteBuffer buffer;
+
+    private PreflopEquityTable(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Maps the file with equities into memory.
+     *
+     * @param file file, generated by {@link PreflopEquityTableGenerator}
+     * @return table of equities
+     * @throws IOException if the file can not be read or it is not a file of preflop equities
+     */
+    public static PreflopEquityTable load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() != FILE_SIZE) {
+                throw new IOException("File " + file + " is not a file of preflop equities: size is " + channel.size());
+            }
+            // Mapping stays valid after the channel is closed.
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, FILE_SIZE);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION) {
+                throw new IOException("File " + file + " is not a file of preflop equities of version " + VERSION);
+            }
+            return new PreflopEquityTable(buffer);
+        }
+    }
+
+    /**
+     * Table is mapped on the first call, and the same table is returned afterwards.
+     *
+     * @return table of the file at {@link #DEFAULT_PATH}, or {@code null} if there is no such file,
+     * or it could not be read (then equities should be enumerated)
+     */
+    public static PreflopEquityTable getDefault() {
+        return DefaultTable.TABLE;
+    }
+
+    /**
+     * @return equity of the hero hand against the villain hand
+     * @throws IllegalArgumentException if hands share cards
+     */
+    public double getEquity(Hand hero, Hand villain) {
+        return getEquity(hero.getCardsMask(), villain.getCardsMask());
+    }
+
+    /**
+     * @param heroCombo    index of the hero combo (see {@link HandRange#comboIndex(int, int)})
+     * @param villainCombo index of the villain combo
+     * @return equity of the hero combo against the villain combo
+     * @throws IllegalArgumentException if combos share cards
+     */
+    public double getEquity(int heroCombo, int villainCombo) {
+        return getEquity(HandRange.comboMask(heroCombo), HandRange.comboMask(villainCombo));
+    }
+
+    /**
+     * @return exact result of the enumeration of all the runouts, the same as
+     * {@link EquityCalculator#calculateExhaustive} gives for the hands on preflop without dead cards
+     * @throws IllegalArgumentException if hands share cards
+     */
+    EquityResult getResult(long heroMask, long villainMask) {
+        int offset = matchupOffset(heroMask, villainMask);
+        long heroWins = buffer.getInt(offset);
+        long ties = buffer.getInt(offset + Integer.BYTES);
+        long villainWins = RUNOUTS - heroWins - ties;
+        return new EquityResult(new long[]{heroWins, villainWins}, new long[]{ties, ties},
+                new double[]{heroWins + ties / 2.0, villainWins + ties / 2.0},
+                new double[]{heroWins + ties / 4.0, villainWins + ties / 4.0}, RUNOUTS, true);
+    }
+
+    /**
+     * @return average equity of the class of the hero hand against the class of the villain hand
+     * (all the pairs of combos, that do not share cards, are counted equally)
+     */
+    public double getClassEquity(Hand hero, Hand villain) {
+        return getClassEquity(classIndex(hero), classIndex(villain));
+    }
+
+    /**
+     * @param heroClass    index of the hero hand class (see {@link #classIndex(Hand)})
+     * @param villainClass index of the villain hand class
+     * @return average equity of the hero class against the villain class
+     */
+    public double getClassEquity(int heroClass, int villainClass) {
+        return fromFixed(buffer.getChar(CLASS_TABLE_OFFSET + Character.BYTES * (heroClass * CLASSES_AMOUNT + villainClass)));
+    }
+
+    /**
+     * Classes form the 13 x 13 grid: pairs are on the diagonal, suited hands are
+     * {@code high * 13 + low} and offsuit hands are {@code low * 13 + high}.
+     *
+     * @return index of the class of the hand (from 0 to 168)
+     */
+    public static int classIndex(Hand hand) {
+        return classIndex(hand.getCardsMask());
+    }
+
+    /**
+     * @param high    the highest rank of the hand (0 for TWO, 12 for ACE)
+     * @param low     the lowest rank of the hand
+     * @param suited  true if cards are of the same suit
+     * @return index of the class of the hand (from 0 to 168)
+     */
+    public static int classIndex(int high, int low, boolean suited) {
+        return suited ? high * Card.RANKS_AMOUNT + low : low * Card.RANKS_AMOUNT + high;
+    }
+
+    /**
+     * @param handMask mask of 2 cards of the hand
+     * @return index of the class of the hand (from 0 to 168)
+     */
+    static int classIndex(long handMask) {
+        int card1 = Long.numberOfTrailingZeros(handMask);
+        int card2 = 63 - Long.numberOfLeadingZeros(handMask);
+        int rank1 = card1 % Card.RANKS_AMOUNT;
+        int rank2 = card2 % Card.RANKS_AMOUNT;
+        return classIndex(Math.max(rank1, rank2), Math.min(rank1, rank2),
+                card1 / Card.RANKS_AMOUNT == card2 / Card.RANKS_AMOUNT);
+    }
+
+    /**
+     * Matchups, that differ only by the names of the suits, have the same index.
+     *
+     * @return index of the matchup of the hands in the matchup table (from 0 to {@link #MATCHUPS_AMOUNT})
+     * @throws IllegalArgumentException if hands share cards
+     */
+    static int matchupIndex(long heroMask, long villainMask) {
+        if ((heroMask & villainMask) != 0) {
+            throw new IllegalArgumentException("Hands of the matchup must not share cards");
+        }
+        int permutation = SuitIsomorphism.permutationOf(heroMask, villainMask);
+        long canonicalVillain = SuitIsomorphism.permute(villainMask, permutation);
+        return classIndex(heroMask) * HandRange.COMBOS_AMOUNT + HandRange.comboIndex(
+                Long.numberOfTrailingZeros(canonicalVillain), 63 - Long.numberOfLeadingZeros(canonicalVillain));
+    }
+
+    static char toFixed(double equity) {
+        return (char) Math.round(equity * EQUITY_SCALE);
+    }
+
+    static double fromFixed(char value) {
+        return (double) value / EQUITY_SCALE;
+    }
+
+    private double getEquity(long heroMask, long villainMask) {
+        int offset = matchupOffset(heroMask, villainMask);
+        return (buffer.getInt(offset) + buffer.getInt(offset + Integer.BYTES) / 2.0) / RUNOUTS;
+    }
+
+    private static int matchupOffset(long heroMask, long villainMask) {
+        return MATCHUP_TABLE_OFFSET + MATCHUP_BYTES * matchupIndex(heroMask, villainMask);
+    }
+
+    /**
+     * Holder of the default table, so the file is mapped only when the table is needed for the first time.
+     */
+    private static final class DefaultTable {
+        static final PreflopEquityTable TABLE = loadDefault();
+
+        private static PreflopEquityTable loadDefault() {
+            Path file = Paths.get(DEFAULT_PATH);
+            if (!Files.isRegularFile(file)) {
+                return null;
+            }
+            try {
+                return load(file);
+            } catch (IOException ex) {
+                return null;
+            }
+        }
+    }
+}
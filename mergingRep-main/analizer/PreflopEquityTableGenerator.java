@@ -0,0 +1,217 @@
+package analizer;
+
+import models.HandRange;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Generates the file of preflop equities, read by {@link PreflopEquityTable}.
+ * <p>
+ * Equities are counted exhaustively (every runout of 5 cards), but board by board instead of
+ * matchup by matchup: on every one of 2598960 boards all 1326 combos are evaluated once by
+ * {@link HandEvaluator#evaluateBatch(long, int[], int[])}, and then the strengths are compared
+ * for one matchup of every class of matchups, that differ only by the names of the suits.
+ * So every hand is evaluated once per board instead of once per matchup, and generation takes minutes.
+ * The file is shipped with the app, so it has to be generated again only when its format changes:
+ * <pre>
+ *     java analizer.PreflopEquityTableGenerator [path to the file]
+ * </pre>
+ */
+public class PreflopEquityTableGenerator {
+    private static final int COMBOS = HandRange.COMBOS_AMOUNT;
+    private static final int CARDS = HandEvaluator.CARDS_AMOUNT;
+
+    public static void main(String[] args) throws IOException {
+        Path file = Paths.get(args.length > 0 ? args[0] : PreflopEquityTable.DEFAULT_PATH);
+        generate(file);
+    }
+
+    /**
+     * Counts equities of all the matchups and writes them into the file.
+     *
+     * @param file file to write to (it is replaced only when all the equities are counted)
+     * @throws IOException if the file can not be written
+     */
+    public static void generate(Path file) throws IOException {
+        Matchups matchups = new Matchups();
+        long[] counters = countRunouts(matchups);
+
+        ByteBuffer buffer = ByteBuffer.allocate(PreflopEquityTable.FILE_SIZE);
+        buffer.putInt(PreflopEquityTable.MAGIC);
+        buffer.putInt(PreflopEquityTable.VERSION);
+        for (int i = 0; i < matchups.amount; ++i) {
+            int wins = (int) counters[i];
+            int ties = (int) counters[matchups.amount + i];
+            int runouts = (int) counters[2 * matchups.amount + i];
+            if (runouts != PreflopEquityTable.RUNOUTS) {
+                throw new IllegalStateException("Matchup " + i + " was counted on " + runouts + " runouts");
+            }
+            putMatchup(buffer, matchups.indexes[i], wins, ties);
+            putMatchup(buffer, matchups.reversedIndexes[i], PreflopEquityTable.RUNOUTS - wins - ties, ties);
+        }
+
+        // Every pair of combos (not only the representatives) is counted in the average of its classes.
+        double[] classSums = new double[PreflopEquityTable.CLASSES_AMOUNT * PreflopEquityTable.CLASSES_AMOUNT];
+        int[] classCounts = new int[classSums.length];
+        for (int hero = 0; hero < COMBOS; ++hero) {
+            long heroMask = HandRange.comboMask(hero);
+            for (int villain = 0; villain < COMBOS; ++villain) {
+                long villainMask = HandRange.comboMask(villain);
+                if ((heroMask & villainMask) != 0) {
+                    continue;
+                }
+                int offset = PreflopEquityTable.MATCHUP_TABLE_OFFSET +
+                        PreflopEquityTable.MATCHUP_BYTES * PreflopEquityTable.matchupIndex(heroMask, villainMask);
+                double equity = (buffer.getInt(offset) + buffer.getInt(offset + Integer.BYTES) / 2.0) /
+                        PreflopEquityTable.RUNOUTS;
+                int matchup = PreflopEquityTable.classIndex(heroMask) * PreflopEquityTable.CLASSES_AMOUNT +
+                        PreflopEquityTable.classIndex(villainMask);
+                classSums[matchup] += equity;
+                ++classCounts[matchup];
+            }
+        }
+        buffer.position(PreflopEquityTable.CLASS_TABLE_OFFSET);
+        for (int matchup = 0; matchup < classSums.length; ++matchup) {
+            // Any two classes (even a pair against itself) have combos, that do not share cards.
+            buffer.putChar(PreflopEquityTable.toFixed(classSums[matchup] / classCounts[matchup]));
+        }
+        buffer.rewind();
+
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, "preflopEquities", ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void putMatchup(ByteBuffer buffer, int index, int wins, int ties) {
+        int offset = PreflopEquityTable.MATCHUP_TABLE_OFFSET + PreflopEquityTable.MATCHUP_BYTES * index;
+        buffer.putInt(offset, wins);
+        buffer.putInt(offset + Integer.BYTES, ties);
+    }
+
+    /**
+     * Boards are split between the threads of the common fork-join pool by their lowest card.
+     *
+     * @return wins of the hero of every representative matchup, then ties of every matchup,
+     * then amount of runouts of every matchup
+     */
+    private static long[] countRunouts(Matchups matchups) {
+        int[] holeCards = new int[2 * COMBOS];
+        for (int combo = 0; combo < COMBOS; ++combo) {
+            long mask = HandRange.comboMask(combo);
+            holeCards[2 * combo] = Long.numberOfTrailingZeros(mask);
+            holeCards[2 * combo + 1] = 63 - Long.numberOfLeadingZeros(mask);
+        }
+        return IntStream.range(0, CARDS - 4).parallel()
+                .mapToObj(lowestCard -> countRunouts(matchups, holeCards, lowestCard))
+                .reduce((left, right) -> {
+                    Arrays.setAll(left, i -> left[i] + right[i]);
+                    return left;
+                })
+                .orElseThrow();
+    }
+
+    /**
+     * Counts all the boards with the given lowest card.
+     */
+    private static long[] countRunouts(Matchups matchups, int[] holeCards, int lowestCard) {
+        int[] strengths = new int[COMBOS];
+        int[] wins = new int[matchups.amount];
+        int[] ties = new int[matchups.amount];
+        int[] runouts = new int[matchups.amount];
+        int[] heroes = matchups.heroes;
+        int[] villains = matchups.villains;
+        for (int c2 = lowestCard + 1; c2 < CARDS; ++c2) {
+            for (int c3 = c2 + 1; c3 < CARDS; ++c3) {
+                for (int c4 = c3 + 1; c4 < CARDS; ++c4) {
+                    for (int c5 = c4 + 1; c5 < CARDS; ++c5) {
+                        long board = 1L << lowestCard | 1L << c2 | 1L << c3 | 1L << c4 | 1L << c5;
+                        HandEvaluator.evaluateBatch(board, holeCards, strengths);
+                        for (int i = 0; i < wins.length; ++i) {
+                            int hero = strengths[heroes[i]];
+                            int villain = strengths[villains[i]];
+                            // Hands, that share cards with the board, have negative strength.
+                            if ((hero | villain) >= 0) {
+                                wins[i] += hero > villain ? 1 : 0;
+                                ties[i] += hero == villain ? 1 : 0;
+                                ++runouts[i];
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        long[] counters = new long[3 * matchups.amount];
+        for (int i = 0; i < matchups.amount; ++i) {
+            counters[i] = wins[i];
+            counters[matchups.amount + i] = ties[i];
+            counters[2 * matchups.amount + i] = runouts[i];
+        }
+        return counters;
+    }
+
+    /**
+     * One matchup of every class of matchups, that differ only by the names of the suits
+     * or by the order of the hands (the result of the reversed matchup is the result of the villain).
+     */
+    private static final class Matchups {
+        final int[] heroes;
+        final int[] villains;
+        /**
+         * Indexes in the matchup table of the file (see {@link PreflopEquityTable#matchupIndex(long, long)}).
+         */
+        final int[] indexes;
+        final int[] reversedIndexes;
+        final int amount;
+
+        Matchups() {
+            int[] heroes = new int[PreflopEquityTable.MATCHUPS_AMOUNT];
+            int[] villains = new int[heroes.length];
+            int[] indexes = new int[heroes.length];
+            int[] reversedIndexes = new int[heroes.length];
+            boolean[] isCounted = new boolean[PreflopEquityTable.MATCHUPS_AMOUNT];
+            int amount = 0;
+            for (int hero = 0; hero < COMBOS; ++hero) {
+                long heroMask = HandRange.comboMask(hero);
+                for (int villain = hero + 1; villain < COMBOS; ++villain) {
+                    long villainMask = HandRange.comboMask(villain);
+                    if ((heroMask & villainMask) != 0) {
+                        continue;
+                    }
+                    int index = PreflopEquityTable.matchupIndex(heroMask, villainMask);
+                    if (isCounted[index]) {
+                        continue;
+                    }
+                    int reversedIndex = PreflopEquityTable.matchupIndex(villainMask, heroMask);
+                    isCounted[index] = true;
+                    isCounted[reversedIndex] = true;
+                    heroes[amount] = hero;
+                    villains[amount] = villain;
+                    indexes[amount] = index;
+                    reversedIndexes[amount] = reversedIndex;
+                    ++amount;
+                }
+            }
+            this.heroes = Arrays.copyOf(heroes, amount);
+            this.villains = Arrays.copyOf(villains, amount);
+            this.indexes = Arrays.copyOf(indexes, amount);
+            this.reversedIndexes = Arrays.copyOf(reversedIndexes, amount);
+            this.amount = amount;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package analizer;
+
+import exceptions.IncorrectBoardException;
+import models.Board;
+import models.Card;
+import models.CardSet;
+import models.HandRange;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Class that calculates equity of one range of hands against another one.
+ * <p>
+ * For every runout of the board combos of both ranges are sorted by strength, and then
+ * every hero combo is compared with the whole villain range at once, using sums of villain weights
+ * by strength. Villain combos, that share cards with the hero combo, are excluded by
+ * subtracting the sums of weights of villain combos that contain each of hero`s cards.
+ */
+public class RangeEquityCalculator {
+    private static final int BOARD_SIZE = 5;
+
+    /**
+     * Every thread keeps its own workspace, so the buffers are reused between runouts and calls.
+     */
+    private static final ThreadLocal<Workspace> WORKSPACES = ThreadLocal.withInitial(Workspace::new);
+
+    /**
+     * Calculates equity of the hero range against the villain range by enumerating every runout of the board.
+     * Combos, that conflict with the board or dead cards, are removed from ranges.
+     * Runouts are split between the threads of the common fork-join pool.
+     *
+     * @param heroRange    range of hero
+     * @param villainRange range of villain
+     * @param board        cards that are already on the board, or {@code null} on preflop
+     *                     (preflop calculation enumerates millions of runouts, so it is much slower)
+     * @param deadCards    cards that can not come on the board and can not be in hands, could be {@code null}
+     * @return equities of the ranges
+     * @throws IncorrectBoardException if any card is repeated on the board and in dead cards
+     */
+    public static RangeEquityResult calculate(HandRange heroRange, HandRange villainRange,
+                                              Board board, Collection<Card> deadCards)
+            throws IncorrectBoardException {
+        long boardMask = board == null ? 0 : board.getCardsMask();
+        long deadMask = 0;
+        if (deadCards != null) {
+            deadMask = CardSet.of(deadCards).getMask();
+            if (Long.bitCount(deadMask) != deadCards.size() || (deadMask & boardMask) != 0) {
+                throw new IncorrectBoardException("Board and dead cards must only contain unique cards");
+            }
+        }
+
+        LiveCombos hero = new LiveCombos(heroRange, boardMask | deadMask);
+        LiveCombos villain = new LiveCombos(villainRange, boardMask | deadMask);
+
+        long left = CardSet.FULL_MASK & ~(boardMask | deadMask);
+        int[] deck = new int[Long.bitCount(left)];
+        for (int i = 0; i < deck.length; ++i) {
+            deck[i] = Long.numberOfTrailingZeros(left);
+            left &= left - 1;
+        }
+
+        int cardsToDeal = BOARD_SIZE - Long.bitCount(boardMask);
+        RunoutTask task = new RunoutTask(hero, villain, villainRange, boardMask, deck, cardsToDeal, 0,
+                cardsToDeal == 0 ? 1 : deck.length - cardsToDeal + 1);
+        double[] sums = task.invoke();
+        return new RangeEquityResult(sums[0], sums[1], sums[2], (long) sums[3]);
+    }
+
+    /**
+     * Combos of the range, that do not conflict with known cards.
+     */
+    private static final class LiveCombos {
+        final int[] combos;
+        final long[] masks;
+        final int[] card1;
+        final int[] card2;
+        // Cards of the i-th combo are holeCards[2 * i] and holeCards[2 * i + 1].
+        final int[] holeCards;
+        final double[] weights;
+
+        LiveCombos(HandRange range, long knownCards) {
+            int amount = 0;
+            int[] all = new int[range.size()];
+            for (int c = range.nextCombo(0); c >= 0; c = range.nextCombo(c + 1)) {
+                if ((HandRange.comboMask(c) & knownCards) == 0) {
+                    all[amount++] = c;
+                }
+            }
+            combos = Arrays.copyOf(all, amount);
+            masks = new long[amount];
+            card1 = new int[amount];
+            card2 = new int[amount];
+            holeCards = new int[2 * amount];
+            weights = new double[amount];
+            for (int i = 0; i < amount; ++i) {
+                masks[i] = HandRange.comboMask(combos[i]);
+                card1[i] = Long.numberOfTrailingZeros(masks[i]);
+                card2[i] = 63 - Long.numberOfLeadingZeros(masks[i]);
+                holeCards[2 * i] = card1[i];
+                holeCards[2 * i + 1] = card2[i];
+                weights[i] = range.getWeight(combos[i]);
+            }
+        }
+    }
+
+    /**
+     * Buffers, used to process a single runout.
+     */
+    private static final class Workspace {
+        // Strength in high 32 bits, position of the combo in low 32 bits.
+        final long[] heroKeys = new long[HandRange.COMBOS_AMOUNT];
+        final long[] villainKeys = new long[HandRange.COMBOS_AMOUNT];
+        final int[] strengths = new int[HandRange.COMBOS_AMOUNT];
+        final double[] allByCard = new double[Card.CARDS_AMOUNT];
+        final double[] lessByCard = new double[Card.CARDS_AMOUNT];
+        final double[] equalByCard = new double[Card.CARDS_AMOUNT];
+    }
+
+    /**
+     * Enumerates all the runouts, which first dealt card is taken from the given range of the deck.
+     * Result is an array of sums: win weight, tie weight, total weight and amount of runouts.
+     */
+    private static final class RunoutTask extends RecursiveTask<double[]> {
+        private final LiveCombos hero;
+        private final LiveCombos villain;
+        private final HandRange villainRange;
+        private final long boardMask;
+        private final int[] deck;
+        private final int cardsToDeal;
+        private final int from;
+        private final int to;
+
+        private final double[] sums = new double[4];
+        private Workspace workspace;
+
+        RunoutTask(LiveCombos hero, LiveCombos villain, HandRange villainRange, long boardMask,
+                   int[] deck, int cardsToDeal, int from, int to) {
+            this.hero = hero;
+            this.villain = villain;
+            this.villainRange = villainRange;
+            this.boardMask = boardMask;
+            this.deck = deck;
+            this.cardsToDeal = cardsToDeal;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                RunoutTask left = new RunoutTask(hero, villain, villainRange, boardMask, deck, cardsToDeal, from, middle);
+                RunoutTask right = new RunoutTask(hero, villain, villainRange, boardMask, deck, cardsToDeal, middle, to);
+                left.fork();
+                double[] result = right.compute();
+                double[] leftResult = left.join();
+                for (int i = 0; i < result.length; ++i) {
+                    result[i] += leftResult[i];
+                }
+                return result;
+            }
+
+            workspace = WORKSPACES.get();
+            if (cardsToDeal == 0) {
+                processRunout(boardMask);
+            } else if (from < to) {
+                deal(boardMask | 1L << deck[from], from + 1, cardsToDeal - 1);
+            }
+            return sums;
+        }
+
+        private void deal(long board, int start, int left) {
+            if (left == 0) {
+                processRunout(board);
+                return;
+            }
+            for (int i = start; i <= deck.length - left; ++i) {
+                deal(board | 1L << deck[i], i + 1, left - 1);
+            }
+        }
+
+        /**
+         * Compares all the hero combos with all the villain combos on the given full board.
+         */
+        private void processRunout(long board) {
+            Workspace ws = workspace;
+            int heroAmount = sortByStrength(hero, board, ws.heroKeys, ws.strengths);
+            int villainAmount = sortByStrength(villain, board, ws.villainKeys, ws.strengths);
+            if (heroAmount == 0 || villainAmount == 0) {
+                return;
+            }
+
+            double allTotal = 0;
+            Arrays.fill(ws.allByCard, 0);
+            Arrays.fill(ws.lessByCard, 0);
+            for (int i = 0; i < villainAmount; ++i) {
+                int v = (int) ws.villainKeys[i];
+                double weight = villain.weights[v];
+                allTotal += weight;
+                ws.allByCard[villain.card1[v]] += weight;
+                ws.allByCard[villain.card2[v]] += weight;
+            }
+
+            double lessTotal = 0;
+            int lessEnd = 0;
+            int h = 0;
+            while (h < heroAmount) {
+                int strength = (int) (ws.heroKeys[h] >>> 32);
+
+                // Villain combos with lower strength.
+                while (lessEnd < villainAmount && (int) (ws.villainKeys[lessEnd] >>> 32) < strength) {
+                    int v = (int) ws.villainKeys[lessEnd];
+                    double weight = villain.weights[v];
+                    lessTotal += weight;
+                    ws.lessByCard[villain.card1[v]] += weight;
+                    ws.lessByCard[villain.card2[v]] += weight;
+                    ++lessEnd;
+                }
+                // Villain combos with the same strength.
+                double equalTotal = 0;
+                int equalEnd = lessEnd;
+                while (equalEnd < villainAmount && (int) (ws.villainKeys[equalEnd] >>> 32) == strength) {
+                    int v = (int) ws.villainKeys[equalEnd];
+                    double weight = villain.weights[v];
+                    equalTotal += weight;
+                    ws.equalByCard[villain.card1[v]] += weight;
+                    ws.equalByCard[villain.card2[v]] += weight;
+                    ++equalEnd;
+                }
+
+                while (h < heroAmount && (int) (ws.heroKeys[h] >>> 32) == strength) {
+                    int c = (int) ws.heroKeys[h];
+                    int a = hero.card1[c];
+                    int b = hero.card2[c];
+                    // Villain combo made of the same cards is subtracted twice, so it is added back.
+                    double same = villainRange.getWeight(hero.combos[c]);
+                    double total = allTotal - ws.allByCard[a] - ws.allByCard[b] + same;
+                    double win = lessTotal - ws.lessByCard[a] - ws.lessByCard[b];
+                    double tie = equalTotal - ws.equalByCard[a] - ws.equalByCard[b] + same;
+
+                    double heroWeight = hero.weights[c];
+                    sums[0] += heroWeight * win;
+                    sums[1] += heroWeight * tie;
+                    sums[2] += heroWeight * total;
+                    ++h;
+                }
+
+                for (int i = lessEnd; i < equalEnd; ++i) {
+                    int v = (int) ws.villainKeys[i];
+                    ws.equalByCard[villain.card1[v]] = 0;
+                    ws.equalByCard[villain.card2[v]] = 0;
+                }
+            }
+            ++sums[3];
+        }
+
+        /**
+         * Evaluates all the combos, that do not conflict with the board, and sorts them by strength.
+         *
+         * @return amount of combos evaluated
+         */
+        private static int sortByStrength(LiveCombos live, long board, long[] keys, int[] strengths) {
+            HandEvaluator.evaluateBatch(board, live.holeCards, strengths);
+            int amount = 0;
+            for (int i = 0; i < live.masks.length; ++i) {
+                if (strengths[i] >= 0) {
+                    keys[amount++] = (long) strengths[i] << 32 | i;
+                }
+            }
+            Arrays.sort(keys, 0, amount);
+            return amount;
+        }
+    }
+}
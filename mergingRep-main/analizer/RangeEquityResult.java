@@ -0,0 +1,82 @@
+package analizer;
+
+import java.text.DecimalFormat;
+
+/**
+ * Result of the range versus range equity calculation. Every matchup of a hero combo
+ * and a villain combo on every runout is counted with the weight equal to the product of the combos` weights.
+ */
+public class RangeEquityResult {
+    private final double winWeight;
+    private final double tieWeight;
+    private final double totalWeight;
+    private final long runouts;
+
+    /**
+     * Constructs the result with given sums.
+     *
+     * @param winWeight   total weight of matchups, where hero combo wins
+     * @param tieWeight   total weight of matchups, where combos split the pot
+     * @param totalWeight total weight of all the matchups
+     * @param runouts     amount of runouts checked
+     */
+    RangeEquityResult(double winWeight, double tieWeight, double totalWeight, long runouts) {
+        this.winWeight = winWeight;
+        this.tieWeight = tieWeight;
+        this.totalWeight = totalWeight;
+        this.runouts = runouts;
+    }
+
+    /**
+     * @return equity of hero`s range (from 0 to 1)
+     */
+    public double getHeroEquity() {
+        return totalWeight == 0 ? 0 : (winWeight + tieWeight / 2) / totalWeight;
+    }
+
+    /**
+     * @return equity of villain`s range (from 0 to 1)
+     */
+    public double getVillainEquity() {
+        return totalWeight == 0 ? 0 : 1 - getHeroEquity();
+    }
+
+    /**
+     * @return probability that hero`s range wins the whole pot
+     */
+    public double getWinProbability() {
+        return totalWeight == 0 ? 0 : winWeight / totalWeight;
+    }
+
+    /**
+     * @return probability that ranges split the pot
+     */
+    public double getTieProbability() {
+        return totalWeight == 0 ? 0 : tieWeight / totalWeight;
+    }
+
+    /**
+     * @return total weight of all the matchups of non-conflicting combos on all the runouts
+     */
+    public double getTotalWeight() {
+        return totalWeight;
+    }
+
+    /**
+     * @return amount of runouts checked
+     */
+    public long getRunouts() {
+        return runouts;
+    }
+
+    /**
+     * @return string representation like: (RangeEquityResult| Runouts: r, Hero: h, Villain: v)
+     */
+    @Override
+    public String toString() {
+        DecimalFormat dcf = new DecimalFormat("##0.00");
+        return "(RangeEquityResult| Runouts: " + runouts +
+                ", Hero: " + dcf.format(getHeroEquity() * 100).replace(',', '.') + "%" +
+                ", Villain: " + dcf.format(getVillainEquity() * 100).replace(',', '.') + "%)";
+    }
+}
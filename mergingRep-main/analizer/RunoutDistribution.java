@@ -0,0 +1,144 @@
+package analizer;
+
+import models.CardSet;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Distribution of the combinations of the hand over all the possible runouts of the board
+ * (next cards or pairs of turn and river cards), and the results against the villain hand, if it is known.
+ */
+public class RunoutDistribution {
+    private static final Combination[] COMBINATIONS = Combination.values();
+
+    private final Combination currentCombination;
+    private final long[] combinationCounts;
+    private final long runouts;
+    private final long wins;
+    private final long ties;
+    private final boolean villainKnown;
+    private final CardSet improvingCards;
+    private final CardSet winningCards;
+
+    RunoutDistribution(Combination currentCombination, long[] combinationCounts, long runouts,
+                       long wins, long ties, boolean villainKnown,
+                       CardSet improvingCards, CardSet winningCards) {
+        this.currentCombination = currentCombination;
+        this.combinationCounts = combinationCounts.clone();
+        this.runouts = runouts;
+        this.wins = wins;
+        this.ties = ties;
+        this.villainKnown = villainKnown;
+        this.improvingCards = improvingCards;
+        this.winningCards = winningCards;
+    }
+
+    /**
+     * @return combination of the hand on the current board
+     */
+    public Combination getCurrentCombination() {
+        return currentCombination;
+    }
+
+    /**
+     * @return amount of runouts checked
+     */
+    public long getRunouts() {
+        return runouts;
+    }
+
+    /**
+     * @return amount of runouts, where the hand makes exactly given combination
+     */
+    public long getCount(Combination combination) {
+        return combinationCounts[combination.ordinal()];
+    }
+
+    /**
+     * For example, {@code getCountAtLeast(Combination.FLUSH)} is the amount of runouts,
+     * where the hand makes flush or better.
+     *
+     * @return amount of runouts, where the hand makes given combination or better
+     */
+    public long getCountAtLeast(Combination combination) {
+        long count = 0;
+        for (int i = combination.ordinal(); i < COMBINATIONS.length; ++i) {
+            count += combinationCounts[i];
+        }
+        return count;
+    }
+
+    /**
+     * @return probability to make given combination or better
+     */
+    public double getProbabilityAtLeast(Combination combination) {
+        return runouts == 0 ? 0 : (double) getCountAtLeast(combination) / runouts;
+    }
+
+    /**
+     * @return map from every combination, that is made at least on one runout, to the amount of such runouts
+     */
+    public Map<Combination, Long> getCounts() {
+        Map<Combination, Long> counts = new LinkedHashMap<>();
+        for (Combination combination : COMBINATIONS) {
+            if (combinationCounts[combination.ordinal()] != 0) {
+                counts.put(combination, combinationCounts[combination.ordinal()]);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * @return true if the hand was compared with the villain hand
+     */
+    public boolean isVillainKnown() {
+        return villainKnown;
+    }
+
+    /**
+     * @return amount of runouts, where the hand beats the villain hand (0 if villain hand is unknown)
+     */
+    public long getWins() {
+        return wins;
+    }
+
+    /**
+     * @return amount of runouts, where the hand splits the pot with the villain hand (0 if villain hand is unknown)
+     */
+    public long getTies() {
+        return ties;
+    }
+
+    /**
+     * @return amount of runouts, where the hand loses to the villain hand (0 if villain hand is unknown)
+     */
+    public long getLosses() {
+        return villainKnown ? runouts - wins - ties : 0;
+    }
+
+    /**
+     * @return next cards, that make a better combination than the current one
+     * (empty, if runouts of 2 cards were checked)
+     */
+    public CardSet getImprovingCards() {
+        return improvingCards;
+    }
+
+    /**
+     * @return next cards, with which the hand beats the villain hand
+     * (empty, if villain hand is unknown or runouts of 2 cards were checked)
+     */
+    public CardSet getWinningCards() {
+        return winningCards;
+    }
+
+    /**
+     * @return string representation like: (RunoutDistribution| Runouts: r, Combinations: {c1=n1, c2=n2}, Wins: w, Ties: t)
+     */
+    @Override
+    public String toString() {
+        return "(RunoutDistribution| Runouts: " + runouts + ", Combinations: " + getCounts() +
+                (villainKnown ? ", Wins: " + wins + ", Ties: " + ties : "") + ")";
+    }
+}
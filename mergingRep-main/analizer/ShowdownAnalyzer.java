@@ -0,0 +1,141 @@
+package analizer;
+
+import exceptions.IncorrectBoardException;
+import models.Board;
+import models.Card;
+import models.Hand;
+
+import java.util.List;
+
+/**
+ * Class that decides who wins at showdown. Hands are compared by the strengths, given by
+ * {@link HandEvaluator}, so all the kickers are taken into account and equal strengths mean split pot.
+ * <p>
+ * Methods that work with masks and strengths do not allocate anything, so they could be used
+ * for bulk checks of many showdowns.
+ */
+public class ShowdownAnalyzer {
+    /**
+     * Max amount of hands in one showdown: only 24 hands of 2 cards fit in the deck together with the flop
+     * (and 23 together with the full board).
+     */
+    public static final int MAX_HANDS = (Card.CARDS_AMOUNT - 3) / 2;
+    /**
+     * Max amount of strengths, which winners could be found at once (winners are returned as the bit mask of int).
+     */
+    public static final int MAX_STRENGTHS = Integer.SIZE;
+
+    /**
+     * Compares two hands on the given board.
+     *
+     * @param board board (at least flop)
+     * @param hand1 first hand
+     * @param hand2 second hand
+     * @return positive number if first hand is stronger, negative if second hand is stronger, 0 if they split the pot
+     * @throws IncorrectBoardException if cards are repeated in board and hands
+     */
+    public static int compare(Board board, Hand hand1, Hand hand2) throws IncorrectBoardException {
+        ShowdownResult result = showdown(board, List.of(hand1, hand2));
+        return Integer.compare(result.getStrength(0), result.getStrength(1));
+    }
+
+    /**
+     * Finds the winners of the showdown and orders all the hands by strength.
+     *
+     * @param board board (at least flop)
+     * @param hands hands, that take part in showdown (from 2 to 24)
+     * @return result of the showdown, where hands keep the order they were given in
+     * @throws IncorrectBoardException  if cards are repeated in board and hands
+     * @throws IllegalArgumentException if amount of hands is not in [2; 24]
+     */
+    public static ShowdownResult showdown(Board board, List<Hand> hands) throws IncorrectBoardException {
+        if (board == null || hands == null) {
+            throw new IllegalArgumentException("Board and hands must not be null");
+        }
+        if (hands.size() < 2 || hands.size() > MAX_HANDS) {
+            throw new IllegalArgumentException("Showdown is possible only for 2 to " + MAX_HANDS +
+                    " hands, but " + hands.size() + " were given");
+        }
+        long usedCards = board.getCardsMask();
+        long[] handMasks = new long[hands.size()];
+        for (int i = 0; i < handMasks.length; ++i) {
+            handMasks[i] = hands.get(i).getCardsMask();
+            if ((usedCards & handMasks[i]) != 0) {
+                throw new IncorrectBoardException("Cards must not be repeated in board and hands");
+            }
+            usedCards |= handMasks[i];
+        }
+
+        int[] strengths = new int[handMasks.length];
+        evaluateStrengths(board.getCardsMask(), handMasks, strengths);
+        return new ShowdownResult(strengths);
+    }
+
+    /**
+     * Evaluates strengths of all the hands on the same board. Does not check the cards.
+     *
+     * @param boardMask mask of the board cards (from 3 to 5 cards)
+     * @param handMasks masks of the hands
+     * @param strengths array, where the strengths are written (at least as long as handMasks)
+     */
+    public static void evaluateStrengths(long boardMask, long[] handMasks, int[] strengths) {
+        for (int i = 0; i < handMasks.length; ++i) {
+            strengths[i] = HandEvaluator.evaluate(boardMask | handMasks[i]);
+        }
+    }
+
+    /**
+     * @param strengths strengths of hands (no more than 32)
+     * @return bit mask of the hands with max strength (i-th bit is set if i-th hand wins or splits the pot)
+     * @throws IllegalArgumentException if there are more than 32 strengths
+     */
+    public static int winnersMask(int[] strengths) {
+        if (strengths.length > MAX_STRENGTHS) {
+            throw new IllegalArgumentException("No more than " + MAX_STRENGTHS + " hands could be compared");
+        }
+        int best = Integer.MIN_VALUE;
+        int winners = 0;
+        for (int i = 0; i < strengths.length; ++i) {
+            if (strengths[i] > best) {
+                best = strengths[i];
+                winners = 1 << i;
+            } else if (strengths[i] == best) {
+                winners |= 1 << i;
+            }
+        }
+        return winners;
+    }
+
+    /**
+     * Counts place of every hand: 0 for the strongest hands, 1 for the next ones and so on.
+     * Hands with equal strength get the same place.
+     *
+     * @param strengths strengths of hands
+     * @param places    array, where the places are written (at least as long as strengths)
+     * @return amount of different places
+     */
+    public static int countPlaces(int[] strengths, int[] places) {
+        int groups = 0;
+        for (int i = 0; i < strengths.length; ++i) {
+            // Place is the amount of different strengths, that are greater than this one.
+            int place = 0;
+            for (int j = 0; j < strengths.length; ++j) {
+                if (strengths[j] > strengths[i] && isFirstOccurrence(strengths, j)) {
+                    ++place;
+                }
+            }
+            places[i] = place;
+            groups = Math.max(groups, place + 1);
+        }
+        return groups;
+    }
+
+    private static boolean isFirstOccurrence(int[] values, int index) {
+        for (int i = 0; i < index; ++i) {
+            if (values[i] == values[index]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
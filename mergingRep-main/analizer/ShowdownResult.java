@@ -0,0 +1,104 @@
+package analizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Result of the showdown: strength of every hand and groups of hands, that split equal places.
+ * Hands are identified by their indexes in the list given to {@link ShowdownAnalyzer}.
+ */
+public class ShowdownResult {
+    private final int[] strengths;
+    private final int[] places;
+    private final int placesAmount;
+
+    /**
+     * Constructs the result by strengths of the hands.
+     *
+     * @param strengths strengths of the hands, given by {@link HandEvaluator}
+     */
+    ShowdownResult(int[] strengths) {
+        this.strengths = strengths.clone();
+        this.places = new int[strengths.length];
+        this.placesAmount = ShowdownAnalyzer.countPlaces(this.strengths, places);
+    }
+
+    /**
+     * @return amount of hands in showdown
+     */
+    public int getHandsAmount() {
+        return strengths.length;
+    }
+
+    /**
+     * @return strength of the hand with given index
+     */
+    public int getStrength(int hand) {
+        return strengths[hand];
+    }
+
+    /**
+     * @return combination of the hand with given index
+     */
+    public Combination getCombination(int hand) {
+        return HandEvaluator.getCombination(strengths[hand]);
+    }
+
+    /**
+     * @return place of the hand with given index (0 for the winners)
+     */
+    public int getPlace(int hand) {
+        return places[hand];
+    }
+
+    /**
+     * @return indexes of the hands, that win or split the pot
+     */
+    public List<Integer> getWinners() {
+        return getGroup(0);
+    }
+
+    /**
+     * @return bit mask of the winners (i-th bit is set if i-th hand wins or splits the pot)
+     */
+    public int getWinnersMask() {
+        return ShowdownAnalyzer.winnersMask(strengths);
+    }
+
+    /**
+     * @return true if the pot is split between several hands
+     */
+    public boolean isSplit() {
+        return Integer.bitCount(getWinnersMask()) > 1;
+    }
+
+    /**
+     * @return groups of indexes of the hands with equal strength, from the strongest group to the weakest one
+     */
+    public List<List<Integer>> getGroups() {
+        List<List<Integer>> groups = new ArrayList<>();
+        for (int place = 0; place < placesAmount; ++place) {
+            groups.add(getGroup(place));
+        }
+        return groups;
+    }
+
+    private List<Integer> getGroup(int place) {
+        List<Integer> group = new ArrayList<>();
+        for (int i = 0; i < places.length; ++i) {
+            if (places[i] == place) {
+                group.add(i);
+            }
+        }
+        return group;
+    }
+
+    /**
+     * @return string representation like: (ShowdownResult| Groups: [[w1, w2], [h3]], Strengths: [s1, s2, s3])
+     */
+    @Override
+    public String toString() {
+        return "(ShowdownResult| Groups: " + getGroups() + ", Strengths: " + Arrays.toString(strengths) + ")";
+    }
+}
@@ -0,0 +1,195 @@
+package analizer;
+
+import exceptions.IncorrectBoardException;
+import exceptions.IncorrectHandException;
+import models.Board;
+import models.Card;
+import models.Hand;
+
+import java.util.ArrayList;
+
+/**
+ * Maps boards and hands to their representatives up to the permutation of suits.
+ * Boards and hands, that differ only by the names of the suits, have equal strategic value,
+ * so results of the analysis could be cached by the canonical form only
+ * (there are 1755 classes of flops instead of 22100 flops and 169 classes of hands instead of 1326 hands).
+ * <p>
+ * Every suit gets a signature - ranks it has on the flop, the turn, the river and in the hand, in this order
+ * of priority. Suits are renamed so that the suit with the biggest signature becomes the first suit and so on.
+ * Suits with equal signatures are interchangeable, so the canonical form does not depend on their order.
+ * <p>
+ * Permutation is packed into an int: bits {@code 2 * s} and {@code 2 * s + 1} contain the ordinal
+ * of the canonical suit, that the suit with ordinal {@code s} is mapped to.
+ */
+public final class SuitIsomorphism {
+    public static final int FLOP_CLASSES = 1755;
+    public static final int HAND_CLASSES = 169;
+
+    private static final int SUITS_AMOUNT = Card.CARDS_AMOUNT / Card.RANKS_AMOUNT;
+    private static final int RANKS_MASK = (1 << Card.RANKS_AMOUNT) - 1;
+    private static final Card.Suit[] SUITS = Card.Suit.values();
+
+    private SuitIsomorphism() {
+    }
+
+    /**
+     * @param board board to canonicalize
+     * @return canonical board (flop cards are sorted, turn and river stay on their places) and the permutation of suits
+     */
+    public static CanonicalForm canonicalize(Board board) {
+        int permutation = permutationOf(boardLayers(board, 0));
+        return new CanonicalForm(permuteBoard(board, permutation), null, permutation);
+    }
+
+    /**
+     * @param hand hand to canonicalize
+     * @return canonical hand (one of 169 hand classes) and the permutation of suits
+     */
+    public static CanonicalForm canonicalize(Hand hand) {
+        int permutation = permutationOf(hand.getCardsMask());
+        return new CanonicalForm(null, permuteHand(hand, permutation), permutation);
+    }
+
+    /**
+     * Canonicalizes the board and the hand together, so the relation of the hand suits
+     * to the board suits is kept (for example, flush draws stay flush draws).
+     *
+     * @param board board to canonicalize
+     * @param hand  hand to canonicalize
+     * @return canonical board, canonical hand and the permutation of suits
+     */
+    public static CanonicalForm canonicalize(Board board, Hand hand) {
+        int permutation = permutationOf(boardLayers(board, hand.getCardsMask()));
+        return new CanonicalForm(permuteBoard(board, permutation), permuteHand(hand, permutation), permutation);
+    }
+
+    /**
+     * Canonicalizes unordered set of cards (for example, flop or hand) without creating any objects.
+     *
+     * @param cards mask of cards (see {@link models.CardSet})
+     * @return mask of the canonical set of cards
+     */
+    public static long canonicalMask(long cards) {
+        return permute(cards, permutationOf(cards));
+    }
+
+    /**
+     * Counts the permutation of suits, that maps cards to the canonical form.
+     *
+     * @param layers masks of cards, from the most important to the least important one (no more than 4)
+     * @return packed permutation of suits
+     */
+    public static int permutationOf(long... layers) {
+        if (layers.length > SUITS_AMOUNT) {
+            throw new IllegalArgumentException("No more than " + SUITS_AMOUNT + " layers of cards could be used");
+        }
+        long[] signatures = new long[SUITS_AMOUNT];
+        for (int suit = 0; suit < SUITS_AMOUNT; ++suit) {
+            for (long layer : layers) {
+                signatures[suit] = signatures[suit] << Card.RANKS_AMOUNT |
+                        (layer >>> (suit * Card.RANKS_AMOUNT)) & RANKS_MASK;
+            }
+        }
+
+        // Canonical place of the suit is the amount of suits with bigger signatures
+        // (or with equal signatures and smaller ordinals).
+        int permutation = 0;
+        for (int suit = 0; suit < SUITS_AMOUNT; ++suit) {
+            int place = 0;
+            for (int other = 0; other < SUITS_AMOUNT; ++other) {
+                if (signatures[other] > signatures[suit] || signatures[other] == signatures[suit] && other < suit) {
+                    ++place;
+                }
+            }
+            permutation |= place << (2 * suit);
+        }
+        return permutation;
+    }
+
+    /**
+     * @param cards       mask of cards
+     * @param permutation packed permutation of suits
+     * @return mask of the same cards with suits renamed by the permutation
+     */
+    public static long permute(long cards, int permutation) {
+        long result = 0;
+        for (int suit = 0; suit < SUITS_AMOUNT; ++suit) {
+            long ranks = (cards >>> (suit * Card.RANKS_AMOUNT)) & RANKS_MASK;
+            result |= ranks << (mappedSuit(permutation, suit) * Card.RANKS_AMOUNT);
+        }
+        return result;
+    }
+
+    /**
+     * @return packed permutation, that reverts the given one
+     */
+    public static int invert(int permutation) {
+        int inverse = 0;
+        for (int suit = 0; suit < SUITS_AMOUNT; ++suit) {
+            inverse |= suit << (2 * mappedSuit(permutation, suit));
+        }
+        return inverse;
+    }
+
+    /**
+     * @return ordinal of the suit, that the suit with given ordinal is mapped to
+     */
+    static int mappedSuit(int permutation, int suit) {
+        return (permutation >>> (2 * suit)) & 0x3;
+    }
+
+    /**
+     * @return card with the same rank and suit renamed by the permutation
+     */
+    static Card permute(Card card, int permutation) {
+        return Card.of(card.getRank(), SUITS[mappedSuit(permutation, card.getSuit().ordinal())]);
+    }
+
+    private static long[] boardLayers(Board board, long hand) {
+        long flop = partMask(board, 0, 3);
+        long turn = board.size() > 3 ? partMask(board, 3, 4) : 0;
+        long river = board.size() > 4 ? partMask(board, 4, 5) : 0;
+        return new long[]{flop, turn, river, hand};
+    }
+
+    private static long partMask(Board board, int from, int to) {
+        long mask = 0;
+        for (int i = from; i < to; ++i) {
+            mask |= 1L << board.get(i).getIndex();
+        }
+        return mask;
+    }
+
+    private static Board permuteBoard(Board board, int permutation) {
+        ArrayList<Card> cards = new ArrayList<>();
+        long flop = permute(partMask(board, 0, 3), permutation);
+        for (; flop != 0; flop &= flop - 1) {
+            cards.add(Card.of(Long.numberOfTrailingZeros(flop)));
+        }
+        for (int i = 3; i < board.size(); ++i) {
+            cards.add(permute(board.get(i), permutation));
+        }
+        try {
+            return new Board(cards);
+        } catch (IncorrectBoardException ex) {
+            // Permutation of suits keeps the cards unique.
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static Hand permuteHand(Hand hand, int permutation) {
+        Card card1 = permute(hand.getCard1(), permutation);
+        Card card2 = permute(hand.getCard2(), permutation);
+        try {
+            // The higher card goes first, so equal hand classes are equal hands.
+            if (card1.getRank().compareTo(card2.getRank()) < 0 ||
+                    card1.getRank() == card2.getRank() && card1.getIndex() > card2.getIndex()) {
+                return new Hand(card2, card1);
+            }
+            return new Hand(card1, card2);
+        } catch (IncorrectHandException ex) {
+            // Permutation of suits keeps the cards unique.
+            throw new IllegalStateException(ex);
+        }
+    }
+}
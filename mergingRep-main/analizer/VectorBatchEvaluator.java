@@ -0,0 +1,387 @@
+package analizer;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector path of {@link HandEvaluator#evaluateBatch(long, int[], int[])}: every lane of the widest int vector
+ * of the CPU evaluates its own hand. Lanes follow the steps of {@link HandEvaluator#evaluateWithFlush}, but without
+ * branches: strengths of the combinations are computed for all the lanes and the best one is selected by masks.
+ * <p>
+ * Hands are evaluated by several short passes over the whole batch (ranks of the hands are kept in buffers between
+ * the passes), every pass replaces the strengths of the hands, that have a stronger combination. The JIT keeps
+ * vectors in registers only when every operation of the loop is inlined, and a single loop with all
+ * the combinations is too big for that. Highest ranks are found by arithmetic, only the packed top ranks
+ * are read from the table of {@link HandEvaluator} by plain scalar loops between the passes: gathers
+ * are not compiled to vector instructions on every CPU, and their fallback is much slower than the scalar path.
+ * <p>
+ * Class uses the incubating module jdk.incubator.vector, so it must be loaded only when the module is present.
+ */
+final class VectorBatchEvaluator {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+    // With fewer lanes (128-bit vectors) the passes are slower than the scalar loop.
+    private static final int MIN_LANES = 8;
+    private static final int RANKS_MASK = (1 << HandEvaluator.RANKS_AMOUNT) - 1;
+    private static final int ACE = 12;
+
+    private static final int HIGH_CARD = HandEvaluator.strength(Combination.HIGH_CARD, 0);
+    private static final int PAIR = HandEvaluator.strength(Combination.PAIR, 0);
+    private static final int TWO_PAIRS = HandEvaluator.strength(Combination.TWO_PAIRS, 0);
+    private static final int SET = HandEvaluator.strength(Combination.SET, 0);
+    private static final int STRAIGHT = HandEvaluator.strength(Combination.STRAIGHT, 0);
+    private static final int FLUSH = HandEvaluator.strength(Combination.FLUSH, 0);
+    private static final int FULL_HOUSE = HandEvaluator.strength(Combination.FULL_HOUSE, 0);
+    private static final int QUADS = HandEvaluator.strength(Combination.QUADS, 0);
+    private static final int STRAIGHT_FLUSH = HandEvaluator.strength(Combination.STRAIGHT_FLUSH, 0);
+    private static final int FLUSH_ROYAL = HandEvaluator.strength(Combination.FLUSH_ROYAL, 0);
+
+    /**
+     * Index map of the gather of the first hole cards of the hands (second cards are at the next indexes).
+     */
+    private static final int[] FIRST_CARDS = new int[LANES];
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    static {
+        for (int lane = 0; lane < LANES; ++lane) {
+            FIRST_CARDS[lane] = 2 * lane;
+        }
+    }
+
+    /**
+     * Buffers of the thread between the passes (they only grow, so the batches of the same size allocate nothing).
+     */
+    private static final class Buffers {
+        private int[] s0 = new int[0];
+        private int[] s1 = new int[0];
+        private int[] s2 = new int[0];
+        private int[] s3 = new int[0];
+        private int[] ranks = new int[0];
+        // Ranks of the kickers of the pair (set), or all the ranks, if there is no pair
+        private int[] kickers = new int[0];
+        // Packed top ranks of the kickers (and then of the flushes)
+        private int[] topRanks = new int[0];
+        // -1 for the hands, that share cards with the board, 0 for others
+        private int[] conflicts = new int[0];
+
+        private Buffers ensureCapacity(int hands) {
+            if (s0.length < hands) {
+                s0 = new int[hands];
+                s1 = new int[hands];
+                s2 = new int[hands];
+                s3 = new int[hands];
+                ranks = new int[hands];
+                kickers = new int[hands];
+                topRanks = new int[hands];
+                conflicts = new int[hands];
+            }
+            return this;
+        }
+    }
+
+    private VectorBatchEvaluator() {
+    }
+
+    /**
+     * @return true if the vectors of the CPU are wide enough for the vector path to be faster than the scalar one
+     */
+    static boolean isSupported() {
+        return LANES >= MIN_LANES;
+    }
+
+    /**
+     * Evaluates the hands by whole vectors, the rest of the hands (less than a vector) is left for the scalar path.
+     *
+     * @param board      mask of the board cards (from 3 to 5 cards)
+     * @param flushShift shift of the only suit of the board, that could make a flush, or -1 if there is no such suit
+     * @param holeCards  indexes of the hole cards (see {@link HandEvaluator#evaluateBatch(long, int[], int[])})
+     * @param strengths  array, where strengths of the hands are written
+     * @return amount of the first hands, that were evaluated
+     */
+    static int evaluateBatch(long board, int flushShift, int[] holeCards, int[] strengths) {
+        int hands = SPECIES.loopBound(holeCards.length / 2);
+        if (hands == 0) {
+            return 0;
+        }
+        Buffers buffers = BUFFERS.get().ensureCapacity(hands);
+        addHoleCards(board, holeCards, hands, buffers);
+        findKickers(hands, buffers);
+        lookupTopRanks(hands, buffers.kickers, buffers.topRanks);
+        evaluatePairsAndSets(hands, buffers, strengths);
+        evaluateTwoPairs(hands, buffers, strengths);
+        evaluateStraights(hands, buffers, strengths);
+        if (flushShift >= 0) {
+            int[] flushes = switch (flushShift / HandEvaluator.RANKS_AMOUNT) {
+                case 0 -> buffers.s0;
+                case 1 -> buffers.s1;
+                case 2 -> buffers.s2;
+                default -> buffers.s3;
+            };
+            lookupTopRanks(hands, flushes, buffers.topRanks);
+            evaluateFlushes(hands, flushes, buffers.topRanks, strengths);
+        }
+        // With 7 cards there could be no full house or quads together with a flush,
+        // so they are not compared with the flushes.
+        evaluateFullHouses(hands, buffers, strengths);
+        evaluateQuads(hands, buffers, strengths);
+        return hands;
+    }
+
+    /**
+     * Writes the ranks of every suit of the board with the hole cards of the hands and finds the conflicts.
+     */
+    private static void addHoleCards(long board, int[] holeCards, int hands, Buffers buffers) {
+        IntVector b0 = IntVector.broadcast(SPECIES, (int) board & RANKS_MASK);
+        IntVector b1 = IntVector.broadcast(SPECIES, (int) (board >>> HandEvaluator.RANKS_AMOUNT) & RANKS_MASK);
+        IntVector b2 = IntVector.broadcast(SPECIES, (int) (board >>> (2 * HandEvaluator.RANKS_AMOUNT)) & RANKS_MASK);
+        IntVector b3 = IntVector.broadcast(SPECIES, (int) (board >>> (3 * HandEvaluator.RANKS_AMOUNT)) & RANKS_MASK);
+        IntVector one = IntVector.broadcast(SPECIES, 1);
+        for (int hand = 0; hand < hands; hand += LANES) {
+            IntVector first = IntVector.fromArray(SPECIES, holeCards, 2 * hand, FIRST_CARDS, 0);
+            IntVector second = IntVector.fromArray(SPECIES, holeCards, 2 * hand + 1, FIRST_CARDS, 0);
+            // card / 13 for the cards from 0 to 51
+            IntVector firstSuit = first.mul(79).lanewise(VectorOperators.LSHR, 10);
+            IntVector secondSuit = second.mul(79).lanewise(VectorOperators.LSHR, 10);
+            IntVector firstBit = one.lanewise(VectorOperators.LSHL,
+                    first.sub(firstSuit.mul(HandEvaluator.RANKS_AMOUNT)));
+            IntVector secondBit = one.lanewise(VectorOperators.LSHL,
+                    second.sub(secondSuit.mul(HandEvaluator.RANKS_AMOUNT)));
+
+            IntVector s0 = b0.lanewise(VectorOperators.OR, firstBit, firstSuit.eq(0))
+                    .lanewise(VectorOperators.OR, secondBit, secondSuit.eq(0));
+            IntVector s1 = b1.lanewise(VectorOperators.OR, firstBit, firstSuit.eq(1))
+                    .lanewise(VectorOperators.OR, secondBit, secondSuit.eq(1));
+            IntVector s2 = b2.lanewise(VectorOperators.OR, firstBit, firstSuit.eq(2))
+                    .lanewise(VectorOperators.OR, secondBit, secondSuit.eq(2));
+            IntVector s3 = b3.lanewise(VectorOperators.OR, firstBit, firstSuit.eq(3))
+                    .lanewise(VectorOperators.OR, secondBit, secondSuit.eq(3));
+            s0.intoArray(buffers.s0, hand);
+            s1.intoArray(buffers.s1, hand);
+            s2.intoArray(buffers.s2, hand);
+            s3.intoArray(buffers.s3, hand);
+            s0.or(s1).or(s2).or(s3).intoArray(buffers.ranks, hand);
+
+            // Board of the suit of every hole card: the card conflicts, if it is already there.
+            IntVector firstBoard = b0.blend(b1, firstSuit.eq(1)).blend(b2, firstSuit.eq(2)).blend(b3, firstSuit.eq(3));
+            IntVector secondBoard = b0.blend(b1, secondSuit.eq(1)).blend(b2, secondSuit.eq(2)).blend(b3, secondSuit.eq(3));
+            firstBoard.and(firstBit).or(secondBoard.and(secondBit))
+                    .compare(VectorOperators.NE, 0)
+                    .toVector().reinterpretAsInts()
+                    .intoArray(buffers.conflicts, hand);
+        }
+    }
+
+    /**
+     * Writes the kickers of the pairs and the sets: the ranks except the rank of the pair (set),
+     * or all the ranks, if there is no pair.
+     */
+    private static void findKickers(int hands, Buffers buffers) {
+        for (int hand = 0; hand < hands; hand += LANES) {
+            IntVector s0 = IntVector.fromArray(SPECIES, buffers.s0, hand);
+            IntVector s1 = IntVector.fromArray(SPECIES, buffers.s1, hand);
+            IntVector s2 = IntVector.fromArray(SPECIES, buffers.s2, hand);
+            IntVector s3 = IntVector.fromArray(SPECIES, buffers.s3, hand);
+            IntVector twoOrMore = s0.and(s1.or(s2).or(s3)).or(s1.and(s2.or(s3))).or(s2.and(s3));
+            IntVector threeOrMore = s0.and(s1).and(s2.or(s3)).or(s2.and(s3).and(s0.or(s1)));
+            IntVector rank = highestRank(twoOrMore)
+                    .blend(highestRank(threeOrMore), threeOrMore.compare(VectorOperators.NE, 0));
+            withoutRank(IntVector.fromArray(SPECIES, buffers.ranks, hand), rank).intoArray(buffers.kickers, hand);
+        }
+    }
+
+    /**
+     * Reads the packed top ranks of every mask of ranks from the table.
+     */
+    private static void lookupTopRanks(int hands, int[] ranks, int[] topRanks) {
+        for (int hand = 0; hand < hands; ++hand) {
+            topRanks[hand] = HandEvaluator.topFive(ranks[hand]);
+        }
+    }
+
+    /**
+     * Writes the strengths of the high cards, pairs and sets.
+     */
+    private static void evaluatePairsAndSets(int hands, Buffers buffers, int[] strengths) {
+        IntVector highCard = IntVector.broadcast(SPECIES, HIGH_CARD);
+        IntVector pair = IntVector.broadcast(SPECIES, PAIR);
+        IntVector set = IntVector.broadcast(SPECIES, SET);
+        for (int hand = 0; hand < hands; hand += LANES) {
+            IntVector s0 = IntVector.fromArray(SPECIES, buffers.s0, hand);
+            IntVector s1 = IntVector.fromArray(SPECIES, buffers.s1, hand);
+            IntVector s2 = IntVector.fromArray(SPECIES, buffers.s2, hand);
+            IntVector s3 = IntVector.fromArray(SPECIES, buffers.s3, hand);
+            IntVector twoOrMore = s0.and(s1.or(s2).or(s3)).or(s1.and(s2.or(s3))).or(s2.and(s3));
+            IntVector threeOrMore = s0.and(s1).and(s2.or(s3)).or(s2.and(s3).and(s0.or(s1)));
+            VectorMask<Integer> hasSet = threeOrMore.compare(VectorOperators.NE, 0);
+            IntVector rankShifted = highestRank(twoOrMore).blend(highestRank(threeOrMore), hasSet)
+                    .lanewise(VectorOperators.LSHL, 16);
+            IntVector topRanks = IntVector.fromArray(SPECIES, buffers.topRanks, hand);
+            topRanks.or(highCard)
+                    .blend(topRanks.lanewise(VectorOperators.LSHR, 8).lanewise(VectorOperators.LSHL, 4)
+                            .or(rankShifted).or(pair), twoOrMore.compare(VectorOperators.NE, 0))
+                    .blend(topRanks.lanewise(VectorOperators.LSHR, 12).lanewise(VectorOperators.LSHL, 8)
+                            .or(rankShifted).or(set), hasSet)
+                    .intoArray(strengths, hand);
+        }
+    }
+
+    /**
+     * Replaces the strengths of the hands with two pairs (hands with sets are replaced later by the full houses).
+     */
+    private static void evaluateTwoPairs(int hands, Buffers buffers, int[] strengths) {
+        IntVector twoPairs = IntVector.broadcast(SPECIES, TWO_PAIRS);
+        for (int hand = 0; hand < hands; hand += LANES) {
+            IntVector s0 = IntVector.fromArray(SPECIES, buffers.s0, hand);
+            IntVector s1 = IntVector.fromArray(SPECIES, buffers.s1, hand);
+            IntVector s2 = IntVector.fromArray(SPECIES, buffers.s2, hand);
+            IntVector s3 = IntVector.fromArray(SPECIES, buffers.s3, hand);
+            IntVector twoOrMore = s0.and(s1.or(s2).or(s3)).or(s1.and(s2.or(s3))).or(s2.and(s3));
+            IntVector highPair = highestRank(twoOrMore);
+            IntVector otherPairs = withoutRank(twoOrMore, highPair);
+            IntVector lowPair = highestRank(otherPairs);
+            // Kickers are the ranks without the high pair, so the kicker is the highest of them,
+            // that is not the low pair.
+            IntVector topRanks = IntVector.fromArray(SPECIES, buffers.topRanks, hand);
+            IntVector first = topRanks.lanewise(VectorOperators.LSHR, 16);
+            IntVector second = topRanks.lanewise(VectorOperators.LSHR, 12).and(0xF);
+            IntVector.fromArray(SPECIES, strengths, hand)
+                    .blend(highPair.lanewise(VectorOperators.LSHL, 16)
+                                    .or(lowPair.lanewise(VectorOperators.LSHL, 12))
+                                    .or(first.blend(second, first.eq(lowPair)).lanewise(VectorOperators.LSHL, 8))
+                                    .or(twoPairs),
+                            otherPairs.compare(VectorOperators.NE, 0))
+                    .intoArray(strengths, hand);
+        }
+    }
+
+    /**
+     * Replaces the strengths of the hands with straights.
+     */
+    private static void evaluateStraights(int hands, Buffers buffers, int[] strengths) {
+        IntVector straight = IntVector.broadcast(SPECIES, STRAIGHT);
+        for (int hand = 0; hand < hands; hand += LANES) {
+            IntVector straights = straights(IntVector.fromArray(SPECIES, buffers.ranks, hand));
+            IntVector.fromArray(SPECIES, strengths, hand)
+                    .blend(highestRank(straights).add(3).lanewise(VectorOperators.LSHL, 16).or(straight),
+                            straights.compare(VectorOperators.NE, 0))
+                    .intoArray(strengths, hand);
+        }
+    }
+
+    /**
+     * Replaces the strengths of the hands with flushes, straight flushes and royal flushes.
+     *
+     * @param flushes  ranks of the only suit, that could make a flush
+     * @param topRanks packed top ranks of the flushes
+     */
+    private static void evaluateFlushes(int hands, int[] flushes, int[] topRanks, int[] strengths) {
+        IntVector flushStrength = IntVector.broadcast(SPECIES, FLUSH);
+        IntVector straightFlush = IntVector.broadcast(SPECIES, STRAIGHT_FLUSH);
+        IntVector flushRoyal = IntVector.broadcast(SPECIES, FLUSH_ROYAL);
+        for (int hand = 0; hand < hands; hand += LANES) {
+            IntVector flush = IntVector.fromArray(SPECIES, flushes, hand);
+            VectorMask<Integer> hasFlush = bitCount(flush).compare(VectorOperators.GE, 5);
+            IntVector straights = straights(flush);
+            IntVector high = highestRank(straights).add(3);
+            IntVector highShifted = high.lanewise(VectorOperators.LSHL, 16);
+            IntVector.fromArray(SPECIES, strengths, hand)
+                    .blend(IntVector.fromArray(SPECIES, topRanks, hand).or(flushStrength), hasFlush)
+                    .blend(highShifted.or(straightFlush).blend(highShifted.or(flushRoyal), high.eq(ACE)),
+                            straights.compare(VectorOperators.NE, 0).and(hasFlush))
+                    .intoArray(strengths, hand);
+        }
+    }
+
+    /**
+     * Replaces the strengths of the hands with full houses.
+     */
+    private static void evaluateFullHouses(int hands, Buffers buffers, int[] strengths) {
+        IntVector fullHouse = IntVector.broadcast(SPECIES, FULL_HOUSE);
+        for (int hand = 0; hand < hands; hand += LANES) {
+            IntVector s0 = IntVector.fromArray(SPECIES, buffers.s0, hand);
+            IntVector s1 = IntVector.fromArray(SPECIES, buffers.s1, hand);
+            IntVector s2 = IntVector.fromArray(SPECIES, buffers.s2, hand);
+            IntVector s3 = IntVector.fromArray(SPECIES, buffers.s3, hand);
+            IntVector twoOrMore = s0.and(s1.or(s2).or(s3)).or(s1.and(s2.or(s3))).or(s2.and(s3));
+            IntVector threeOrMore = s0.and(s1).and(s2.or(s3)).or(s2.and(s3).and(s0.or(s1)));
+            IntVector setRank = highestRank(threeOrMore);
+            // Second set could also serve as a pair of the full house.
+            IntVector pairs = withoutRank(twoOrMore, setRank);
+            IntVector.fromArray(SPECIES, strengths, hand)
+                    .blend(setRank.lanewise(VectorOperators.LSHL, 16)
+                                    .or(highestRank(pairs).lanewise(VectorOperators.LSHL, 12))
+                                    .or(fullHouse),
+                            threeOrMore.compare(VectorOperators.NE, 0).and(pairs.compare(VectorOperators.NE, 0)))
+                    .intoArray(strengths, hand);
+        }
+    }
+
+    /**
+     * Replaces the strengths of the hands with quads and marks the hands, that share cards with the board.
+     */
+    private static void evaluateQuads(int hands, Buffers buffers, int[] strengths) {
+        IntVector quadsStrength = IntVector.broadcast(SPECIES, QUADS);
+        for (int hand = 0; hand < hands; hand += LANES) {
+            IntVector quads = IntVector.fromArray(SPECIES, buffers.s0, hand)
+                    .and(IntVector.fromArray(SPECIES, buffers.s1, hand))
+                    .and(IntVector.fromArray(SPECIES, buffers.s2, hand))
+                    .and(IntVector.fromArray(SPECIES, buffers.s3, hand));
+            IntVector quadsRank = highestRank(quads);
+            IntVector kicker = highestRank(withoutRank(IntVector.fromArray(SPECIES, buffers.ranks, hand), quadsRank));
+            IntVector.fromArray(SPECIES, strengths, hand)
+                    .blend(quadsRank.lanewise(VectorOperators.LSHL, 16)
+                                    .or(kicker.lanewise(VectorOperators.LSHL, 12))
+                                    .or(quadsStrength),
+                            quads.compare(VectorOperators.NE, 0))
+                    .or(IntVector.fromArray(SPECIES, buffers.conflicts, hand))
+                    .intoArray(strengths, hand);
+        }
+    }
+
+    /**
+     * Takes the exponent of the ranks converted to float (ranks are exact in float).
+     *
+     * @return highest rank of the ranks of every lane (negative for the empty ranks)
+     */
+    private static IntVector highestRank(IntVector ranks) {
+        return ranks.convert(VectorOperators.I2F, 0).reinterpretAsInts()
+                .lanewise(VectorOperators.LSHR, 23)
+                .sub(127);
+    }
+
+    /**
+     * @param rank rank of every lane (the ranks are not changed in the lanes with a negative rank)
+     * @return ranks without the given rank
+     */
+    private static IntVector withoutRank(IntVector ranks, IntVector rank) {
+        return ranks.lanewise(VectorOperators.AND_NOT,
+                IntVector.broadcast(SPECIES, 1).lanewise(VectorOperators.LSHL, rank),
+                rank.compare(VectorOperators.GE, 0));
+    }
+
+    /**
+     * Ace is also put below the two, so the wheel is found as any other straight.
+     *
+     * @return mask, where bit i is raised, if ranks from i - 1 to i + 3 are all raised (the highest rank
+     * of the best straight is the highest raised bit plus 3)
+     */
+    private static IntVector straights(IntVector ranks) {
+        IntVector low = ranks.lanewise(VectorOperators.LSHL, 1).or(ranks.lanewise(VectorOperators.LSHR, ACE));
+        return low.and(low.lanewise(VectorOperators.LSHR, 1))
+                .and(low.lanewise(VectorOperators.LSHR, 2))
+                .and(low.lanewise(VectorOperators.LSHR, 3))
+                .and(low.lanewise(VectorOperators.LSHR, 4));
+    }
+
+    /**
+     * @return amount of raised bits of the 13 lowest bits of every lane
+     */
+    private static IntVector bitCount(IntVector ranks) {
+        IntVector count = ranks.sub(ranks.lanewise(VectorOperators.LSHR, 1).and(0x5555));
+        count = count.and(0x3333).add(count.lanewise(VectorOperators.LSHR, 2).and(0x3333));
+        count = count.add(count.lanewise(VectorOperators.LSHR, 4)).and(0x0F0F);
+        return count.add(count.lanewise(VectorOperators.LSHR, 8)).and(0x1F);
+    }
+}
@@ -156,12 +156,12 @@ public class FilterSearchController {
                 continue;
             }
 
-            if (filteredFromDate != null && filteredFromDate.after(g.getDate())) {
+            if (filteredFromDate != null && filteredFromDate.getTime() > g.getDateMillis()) {
                 filteredGames.remove(id);
                 continue;
             }
 
-            if (filteredToDate != null && filteredToDate.before(g.getDate())) {
+            if (filteredToDate != null && filteredToDate.getTime() < g.getDateMillis()) {
                 filteredGames.remove(id);
                 continue;
             }
@@ -6,11 +6,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import exceptions.IncorrectBoardException;
 import exceptions.IncorrectCardException;
 import exceptions.IncorrectHandException;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.MenuItem;
 import javafx.scene.control.TableRow;
 import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
@@ -19,14 +22,27 @@ import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import models.Game;
 import models.GamesSet;
+import parsers.AtomicFiles;
+import parsers.KnownGamesIndex;
+import parsers.ParsingError;
+import parsers.gg.GGPokerokRushNCashParser;
+import parsers.gg.HandHistoryWatcher;
 
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class GamesListController {
     private final static String SERIALIZED_GAMES_PATH = "src/main/resources/serializedFiles/serializedGames.txt";
+    private final static String WATCHED_OFFSETS_PATH = "src/main/resources/serializedFiles/watchedOffsets";
+    private final static String KNOWN_GAMES_PATH = "src/main/resources/serializedFiles/knownGames.bin";
+    // Hands of the live import come every few seconds, so they are saved together after this delay.
+    private final static long SERIALIZATION_DELAY_MILLIS = 2000;
 
     @FXML
     private ResourceBundle resources;
@@ -61,10 +77,26 @@ public class GamesListController {
     private
     GamesSet gamesSet;
 
+    // Keeps the games, that were skipped while uploading, so they could be retried.
+    private final UploadController uploadController = new UploadController();
+
+    // Ids of the saved games, so the games uploaded again are skipped without parsing.
+    private KnownGamesIndex knownGames = new KnownGamesIndex();
+
+    // Imports hands, that are appended to the directory of the uploaded files during the session.
+    private HandHistoryWatcher handHistoryWatcher;
+
+    // Writes the saved games in the background, so the window is not blocked while the games are written.
+    private final ScheduledThreadPoolExecutor serializationExecutor = createSerializationExecutor();
+
+    // Copy of the games, that are waiting to be written, or null if there are none.
+    private final AtomicReference<GamesSet> gamesToSerialize = new AtomicReference<>();
+
 
     @FXML
     void initialize() throws IncorrectHandException, IncorrectCardException, IncorrectBoardException, IOException {
         uploadButton.setOnAction(actionEvent -> onUploadButtonClick());
+        initializeRetryMenu();
 
         initializeTable();
         initializeSerializedSavedGames();
@@ -130,19 +162,26 @@ public class GamesListController {
     void onUploadButtonClick() {
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Upload Files");
-        fileChooser.getExtensionFilters().addAll(new FileChooser.ExtensionFilter("TextFiles", "*.txt"));
+        fileChooser.getExtensionFilters().addAll(new FileChooser.ExtensionFilter("TextFiles", "*.txt", "*.zip", "*.gz"));
 //            fileChooser.setSelectedExtensionFilter();
         List<File> selectedFiles = fileChooser.showOpenMultipleDialog(uploadButton.getParent().getScene().getWindow());
 
         if (selectedFiles != null) {
             try {
-                UploadController uploadController = new UploadController();
-                ArrayList<Game> addedGames = uploadController.uploadFiles(selectedFiles);
+                // Sizes are taken before the upload, so the hands appended later are imported by the watcher.
+                HashMap<File, Long> uploadedSizes = new HashMap<>();
+                for (File f : selectedFiles) {
+                    uploadedSizes.put(f, f.length());
+                }
+                ArrayList<Game> addedGames = uploadController.uploadFiles(selectedFiles, knownGames);
                 gamesSet.addGames(new HashSet<>(addedGames));
 
                 updateTable(gamesSet.getGames());
 
                 serializeGames();
+                if (!selectedFiles.isEmpty()) {
+                    startLiveImport(selectedFiles.get(0).getParentFile(), uploadedSizes);
+                }
             } catch (IOException ex) {
                 Alert alert = new Alert(Alert.AlertType.ERROR);
                 alert.setContentText("Something went wrong while uploading files..");
@@ -153,6 +192,30 @@ public class GamesListController {
         }
     }
 
+    /**
+     * Adds the menu to the upload button (opened by the right click), that retries the skipped games.
+     */
+    private void initializeRetryMenu() {
+        MenuItem retryItem = new MenuItem("Retry skipped games");
+        retryItem.setOnAction(actionEvent -> onRetrySkippedGamesClick());
+        ContextMenu retryMenu = new ContextMenu(retryItem);
+        retryMenu.setOnShowing(event -> {
+            int skippedAmount = uploadController.getSkippedGames().size();
+            retryItem.setText("Retry skipped games (" + skippedAmount + ")");
+            retryItem.setDisable(skippedAmount == 0);
+        });
+        uploadButton.setContextMenu(retryMenu);
+    }
+
+    private void onRetrySkippedGamesClick() {
+        ArrayList<Game> retriedGames = uploadController.retrySkippedGames(knownGames);
+        if (!retriedGames.isEmpty()) {
+            gamesSet.addGames(retriedGames);
+            updateTable(gamesSet.getGames());
+            serializeGames();
+        }
+    }
+
     @FXML
     private void onExaminePlayersButtonClicked() {
         try {
@@ -217,6 +280,7 @@ public class GamesListController {
             if (gamesSet.getGames().size() != 0) {
                 gamesTableView.getItems().addAll(gamesSet.getGames().values());
             }
+            initializeKnownGames();
         } catch (Exception ex) {
             System.out.println(ex.getStackTrace());
             Alert alert = new Alert(Alert.AlertType.ERROR);
@@ -226,6 +290,96 @@ public class GamesListController {
         }
     }
 
+    /**
+     * Loads the index of the known games. Saved games are the source of truth,
+     * so the index is rebuilt from them if it does not match them.
+     */
+    private void initializeKnownGames() {
+        try {
+            knownGames = KnownGamesIndex.load(Path.of(KNOWN_GAMES_PATH));
+        } catch (IOException ex) {
+            knownGames = null;
+        }
+        if (knownGames == null || knownGames.size() != gamesSet.getGames().size()) {
+            knownGames = KnownGamesIndex.of(gamesSet.getGames().keySet());
+        }
+    }
+
+    /**
+     * Starts watching the directory with hand history files (if it is not watched yet) in the background thread.
+     * New hands are added to the games as soon as the poker client appends them to the files.
+     *
+     * @param directory     directory to watch
+     * @param uploadedSizes sizes of the uploaded files, that were already imported as a whole
+     */
+    private void startLiveImport(File directory, Map<File, Long> uploadedSizes) {
+        if (directory == null ||
+                (handHistoryWatcher != null && handHistoryWatcher.getDirectory().equals(directory.toPath()))) {
+            return;
+        }
+        try {
+            if (handHistoryWatcher != null) {
+                handHistoryWatcher.close();
+            }
+            // Every directory has its own offsets, as files in different directories could have the same names.
+            Path offsetsFile = Path.of(WATCHED_OFFSETS_PATH + Integer.toHexString(directory.getAbsolutePath().hashCode()) + ".properties");
+            HandHistoryWatcher watcher = new HandHistoryWatcher(new GGPokerokRushNCashParser(), directory.toPath(), offsetsFile);
+            for (File f : uploadedSizes.keySet()) {
+                if (directory.equals(f.getParentFile())) {
+                    watcher.markImported(f.toPath(), uploadedSizes.get(f));
+                }
+            }
+            // Files, that were not uploaded, are followed only from their current end.
+            watcher.markExistingImported();
+            handHistoryWatcher = watcher;
+
+            Thread watcherThread = new Thread(() -> watchHandHistory(watcher), "hand-history-watcher");
+            watcherThread.setDaemon(true);
+            watcherThread.start();
+        } catch (IOException ex) {
+            Alert alert = new Alert(Alert.AlertType.WARNING);
+            alert.setContentText("Live import of the new hands is off, the directory " + directory +
+                    " could not be watched: " + ex.getMessage());
+            alert.show();
+        }
+    }
+
+    private void watchHandHistory(HandHistoryWatcher watcher) {
+        try (watcher) {
+            ArrayList<Game> newGames = new ArrayList<>();
+            ArrayList<ParsingError> newErrors = new ArrayList<>();
+            long amount = watcher.importNewHands(newGames::add, newErrors::add);
+            while (amount >= 0) {
+                if (!newGames.isEmpty() || !newErrors.isEmpty()) {
+                    ArrayList<Game> gamesToAdd = newGames;
+                    ArrayList<ParsingError> errorsToReport = newErrors;
+                    Platform.runLater(() -> addImportedGames(gamesToAdd, errorsToReport));
+                    newGames = new ArrayList<>();
+                    newErrors = new ArrayList<>();
+                }
+                amount = watcher.awaitNewHands(newGames::add, newErrors::add);
+            }
+        } catch (IOException | InterruptedException ex) {
+            Platform.runLater(() -> {
+                Alert alert = new Alert(Alert.AlertType.WARNING);
+                alert.setContentText("Live import of the new hands was stopped: " + ex.getMessage());
+                alert.show();
+            });
+        }
+    }
+
+    private void addImportedGames(List<Game> games, List<ParsingError> errors) {
+        if (!games.isEmpty()) {
+            gamesSet.addGames(games);
+            for (Game g : games) {
+                knownGames.add(g.getGameId());
+            }
+            updateTable(gamesSet.getGames());
+            serializeGames(SERIALIZATION_DELAY_MILLIS);
+        }
+        uploadController.reportSkippedGames(errors);
+    }
+
     private void updateTable(Map<String, Game> gamesToShow) {
         gamesTableView.getItems().clear();
         if (gamesToShow == null) {
@@ -236,16 +390,45 @@ public class GamesListController {
     }
 
     private void serializeGames() {
-        try {
-            ObjectMapper objectMapper = new ObjectMapper();
+        serializeGames(0);
+    }
 
-            File file = new File(SERIALIZED_GAMES_PATH);
+    /**
+     * Saves the games in the background thread after the delay. Games are copied now, and if they are changed
+     * again before the delay is over, only the latest copy is written.
+     */
+    private void serializeGames(long delayMillis) {
+        if (gamesToSerialize.getAndSet(new GamesSet(gamesSet.getGames())) == null) {
+            serializationExecutor.schedule(this::writeSerializedGames, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
 
-            objectMapper.writeValue(file, gamesSet);
+    private void writeSerializedGames() {
+        GamesSet games = gamesToSerialize.getAndSet(null);
+        if (games == null) {
+            return;
+        }
+        try {
+            ObjectMapper objectMapper = new ObjectMapper();
+            AtomicFiles.write(Path.of(SERIALIZED_GAMES_PATH), out -> objectMapper.writeValue(out, games));
+            // Index is built from the copy, as the index of the window could be changed while it is written.
+            KnownGamesIndex.of(games.getGames().keySet()).save(Path.of(KNOWN_GAMES_PATH));
         } catch (Exception exception) {
-            Alert alert = new Alert(Alert.AlertType.WARNING);
-            alert.setContentText("File with saved games was not able to upload, please close it if it is opened");
-            alert.show();
+            Platform.runLater(() -> {
+                Alert alert = new Alert(Alert.AlertType.WARNING);
+                alert.setContentText("File with saved games was not able to upload, please close it if it is opened");
+                alert.show();
+            });
         }
     }
+
+    private static ScheduledThreadPoolExecutor createSerializationExecutor() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1,
+                runnable -> new Thread(runnable, "games-serializer"));
+        // Thread is not a daemon, so the waiting games are written before the app exits,
+        // and it is stopped, when there is nothing to write, so it does not keep the app running.
+        executor.setKeepAliveTime(1, TimeUnit.SECONDS);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
 }
@@ -7,6 +7,8 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.Region;
 import models.Game;
 import models.GamesSet;
+import parsers.KnownGamesIndex;
+import parsers.ParsingError;
 import parsers.gg.GGPokerokRushNCashParser;
 
 import java.io.File;
@@ -19,13 +21,40 @@ import java.util.HashSet;
 import java.util.List;
 
 public class UploadController {
+    /**
+     * Games of the uploaded files, that could not be parsed and were skipped
+     * (they could be parsed again by their offsets).
+     */
+    private final ArrayList<ParsingError> skippedGames = new ArrayList<>();
+
     public ArrayList<Game> uploadFiles(List<File> files) throws IOException {
+        return uploadFiles(files, null);
+    }
+
+    /**
+     * Uploads the files, skipping the games, that are already known, without parsing them.
+     * Ids of the uploaded games are added to the index.
+     *
+     * @param files      files to upload
+     * @param knownGames index of the games, that were already uploaded (or null to upload all the games)
+     * @return uploaded games
+     */
+    public ArrayList<Game> uploadFiles(List<File> files, KnownGamesIndex knownGames) throws IOException {
         ArrayList<Game> allGames = new ArrayList<>();
         ArrayList<Exception> allExceptions = new ArrayList<>();
+        int skippedBefore = skippedGames.size();
         GGPokerokRushNCashParser parser = new GGPokerokRushNCashParser();
         for (File f : files) {
+            // Bad games are skipped one by one, only a file that could not be read is lost.
+            ArrayList<Game> fileGames = new ArrayList<>();
             try {
-                allGames.addAll(parser.parseFile(f.toString()));
+                parser.parseFile(f.toString(), knownGames, fileGames::add, skippedGames::add);
+                allGames.addAll(fileGames);
+                if (knownGames != null) {
+                    for (Game g : fileGames) {
+                        knownGames.add(g.getGameId());
+                    }
+                }
             } catch (Exception ex) {
                 allExceptions.add(ex);
             }
@@ -38,10 +67,79 @@ public class UploadController {
         if (allExceptions.size() != 0) {
             alert.setContentText(alert.getContentText() + "\n" + allExceptions.size() + " files were in incorrect format or could not be read.");
         }
+        if (skippedGames.size() != skippedBefore) {
+            alert.setContentText(alert.getContentText() + "\n" + (skippedGames.size() - skippedBefore) +
+                    " games were in incorrect format and were skipped. Right-click the Upload button to retry them.");
+        }
         alert.show();
 
         return allGames;
     }
 
+    /**
+     * Parses the skipped games again by their offsets (for example, if the file was still being written,
+     * when it was uploaded). Games, that are parsed now, are no longer skipped, and their ids are added to the index.
+     *
+     * @param knownGames index of the games, that were already uploaded (or null)
+     * @return games, that were parsed
+     */
+    public ArrayList<Game> retrySkippedGames(KnownGamesIndex knownGames) {
+        ArrayList<Game> retriedGames = new ArrayList<>();
+        ArrayList<ParsingError> stillSkipped = new ArrayList<>();
+        GGPokerokRushNCashParser parser = new GGPokerokRushNCashParser();
+        for (ParsingError error : skippedGames) {
+            try {
+                Game game = parser.parseGameAt(error.getPath(), error.getByteOffset());
+                // Null means there is no game at the offset anymore (file was rewritten), so there is nothing to retry.
+                if (game != null) {
+                    retriedGames.add(game);
+                    if (knownGames != null) {
+                        knownGames.add(game.getGameId());
+                    }
+                }
+            } catch (Exception ex) {
+                stillSkipped.add(new ParsingError(error.getPath(), error.getByteOffset(), ex));
+            }
+        }
+        int retriedAmount = skippedGames.size();
+        skippedGames.clear();
+        skippedGames.addAll(stillSkipped);
+
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setContentText(retriedGames.size() + " of " + retriedAmount + " skipped games were uploaded.");
+        alert.getDialogPane().setMinHeight(Region.USE_PREF_SIZE);
+        if (!stillSkipped.isEmpty()) {
+            alert.setContentText(alert.getContentText() + "\n" + stillSkipped.size() + " games are still in incorrect format.");
+        }
+        alert.show();
+
+        return retriedGames;
+    }
+
+    /**
+     * Records the games, that could not be parsed while they were imported not by the upload
+     * (like the hands appended to the watched files), so they could be retried too, and shows their amount.
+     *
+     * @param errors errors of the skipped games
+     */
+    public void reportSkippedGames(List<ParsingError> errors) {
+        if (errors.isEmpty()) {
+            return;
+        }
+        skippedGames.addAll(errors);
+
+        Alert alert = new Alert(Alert.AlertType.WARNING);
+        alert.setContentText(errors.size() + " new games were in incorrect format and were skipped. " +
+                "Right-click the Upload button to retry them.");
+        alert.getDialogPane().setMinHeight(Region.USE_PREF_SIZE);
+        alert.show();
+    }
+
+    /**
+     * @return games of all the uploaded files, that could not be parsed and were skipped
+     */
+    public ArrayList<ParsingError> getSkippedGames() {
+        return new ArrayList<>(skippedGames);
+    }
 
 }
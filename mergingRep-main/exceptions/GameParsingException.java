@@ -0,0 +1,12 @@
+package exceptions;
+
+/**
+ * Thrown to indicate that a game could not be parsed, where checked exceptions
+ * could not be thrown (for example, while consuming a stream of games).
+ * The original exception (like {@link IncorrectCardException}) is the cause.
+ */
+public class GameParsingException extends RuntimeException {
+    public GameParsingException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
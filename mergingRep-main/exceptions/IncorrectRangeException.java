@@ -0,0 +1,20 @@
+package exceptions;
+
+/**
+ * Thrown to show that the range of hands is incorrect (mostly while parsing range notation)
+ */
+public class IncorrectRangeException extends Exception {
+    public  IncorrectRangeException() {
+        message = "The range is invalid - it must be written in standard notation (ex: 22+, A2s+, KTo+)";
+    }
+
+    public IncorrectRangeException(String message) {
+        this.message = message;
+    }
+
+    private final String message;
+    @Override
+    public String getMessage() {
+        return message;
+    }
+}
@@ -1,9 +1,9 @@
 package models;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
-import java.text.DecimalFormat;
 import java.util.Objects;
 
 /**
@@ -29,9 +29,10 @@ public class Action {
     }
 
     private final ActionType actionType;
-    private final double amount;
+    // Amounts in cents (see Cents)
+    private final long amountCents;
     private final String playerInGameId;
-    private final double potBeforeAction;
+    private final long potBeforeActionCents;
 
     /**
      * Constructs new Action using given ActionType, playerInGame, amount contributed in pot,
@@ -50,23 +51,38 @@ public class Action {
                   @JsonProperty("playerInGameId") String playerInGameId,
                   @JsonProperty("amount") double amount,
                   @JsonProperty("potBeforeAction") double potBeforeAction) {
+        this(actionType, playerInGameId, Cents.of(amount), Cents.of(potBeforeAction));
+    }
+
+    private Action(ActionType actionType, String playerInGameId, long amountCents, long potBeforeActionCents) {
         this.actionType = actionType;
         this.playerInGameId = playerInGameId;
         if (actionType == ActionType.FOLD || actionType == ActionType.CHECK) {
-            this.amount = 0;
+            this.amountCents = 0;
         } else {
-            if (amount <= 0) {
+            if (amountCents <= 0) {
                 throw new IllegalArgumentException("Amount, contributed to the pot can not be equal or less than 0 " +
                         "for any action type other than FOLD and CHECK");
             }
 
-            this.amount = amount;
+            this.amountCents = amountCents;
         }
 
-        if (potBeforeAction < 0) {
+        if (potBeforeActionCents < 0) {
             throw new IllegalArgumentException("Pot before action can not be less than 0.");
         }
-        this.potBeforeAction = potBeforeAction;
+        this.potBeforeActionCents = potBeforeActionCents;
+    }
+
+    /**
+     * Constructs new Action using given ActionType, playerInGame, amount contributed in pot,
+     * and pot before this action (both in cents).
+     *
+     * @throws IllegalArgumentException is thrown if amount is <= 0 for CALL, BET, or RAISE Action types
+     *                                  or because pot before action is < 0.
+     */
+    public static Action ofCents(ActionType actionType, String playerInGameId, long amountCents, long potBeforeActionCents) {
+        return new Action(actionType, playerInGameId, amountCents, potBeforeActionCents);
     }
 
 
@@ -81,14 +97,30 @@ public class Action {
      * @return amount contributed to the pot by this action (in dollars)
      */
     public double getAmount() {
-        return amount;
+        return Cents.toDollars(amountCents);
     }
 
     /**
      * @return amount in dollars in the pot before this action.
      */
     public double getPotBeforeAction() {
-        return potBeforeAction;
+        return Cents.toDollars(potBeforeActionCents);
+    }
+
+    /**
+     * @return amount contributed to the pot by this action (in cents)
+     */
+    @JsonIgnore
+    public long getAmountCents() {
+        return amountCents;
+    }
+
+    /**
+     * @return amount in cents in the pot before this action.
+     */
+    @JsonIgnore
+    public long getPotBeforeActionCents() {
+        return potBeforeActionCents;
     }
 
     /**
@@ -114,8 +146,8 @@ public class Action {
         if (obj.getClass() == Action.class) {
             Action ac = (Action) obj;
             return this.actionType == ac.actionType &&
-                    Math.abs(this.potBeforeAction - ac.potBeforeAction) < 0.01 &&
-                    Math.abs(this.amount - ac.amount) < 0.01 &&
+                    this.potBeforeActionCents == ac.potBeforeActionCents &&
+                    this.amountCents == ac.amountCents &&
                     this.playerInGameId.equals(ac.playerInGameId);
         }
         return false;
@@ -128,7 +160,7 @@ public class Action {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(actionType, amount, playerInGameId, potBeforeAction);
+        return Objects.hash(actionType, amountCents, playerInGameId, potBeforeActionCents);
     }
 
     /**
@@ -143,13 +175,9 @@ public class Action {
     public String toString() {
         String repr = "(Action| Type: " + actionType;
         if (actionType != ActionType.FOLD && actionType != ActionType.CHECK) {
-            DecimalFormat dcf = new DecimalFormat("##0.00");
-            repr += ", Amount: " + dcf.format(amount).replace(',', '.');
+            repr += ", Amount: " + Cents.format(amountCents);
         }
-        DecimalFormat dcf = new DecimalFormat("##0.00");
-        String potRep = dcf.format(potBeforeAction);
-        potRep = potRep.replace(",", ".");
-        repr += ", Pot before action: " + potRep + ", Player Id: " + playerInGameId + ")";
+        repr += ", Pot before action: " + Cents.format(potBeforeActionCents) + ", Player Id: " + playerInGameId + ")";
         return repr;
     }
 }
@@ -1,6 +1,8 @@
 package models;
 
+import analizer.FlopTexture;
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import exceptions.IncorrectBoardException;
 import exceptions.IncorrectCardException;
@@ -11,7 +13,17 @@ import java.util.*;
  * Class representing the board in the game. Can contain from 3 to 5 unique cards.
  */
 public class Board {
+    private static final int TURN_SHIFT = Card.CARDS_AMOUNT;
+    private static final int RIVER_SHIFT = TURN_SHIFT + 6;
+
     private final ArrayList<Card> cards = new ArrayList<>();
+    private final long cardsMask;
+    /**
+     * Canonical key of the board: 52 lowest bits are the mask of the flop cards,
+     * next 6 bits are (index + 1) of the turn card and the highest 6 bits
+     * are (index + 1) of the river card (zeros if there is no such card).
+     */
+    private final long key;
 
     /**
      * Constructs the Board with the array of cards (the amount of cards must be in [3; 5])
@@ -24,11 +36,9 @@ public class Board {
         if (cards.length < 3 || cards.length > 5) {
             throw new IncorrectBoardException( "Board must contain from 3 to 5 cards.");
         }
-        HashSet<Card> unique = new HashSet<>(List.of(cards));
-        if (unique.size() != cards.length) {
-            throw new IncorrectBoardException("Board must only contain unique cards");
-        }
         Collections.addAll(this.cards, cards);
+        this.cardsMask = countUniqueMask(this.cards);
+        this.key = countKey(this.cards);
     }
 
     /**
@@ -44,18 +54,11 @@ public class Board {
             throw new IncorrectBoardException( "Board must contain from 3 to 5 cards.");
         }
 
-        HashSet<Card> unique = new HashSet<Card>();
         for (String rep : cardReps) {
-            unique.add(new Card(rep));
-        }
-        if (unique.size() != cardReps.length) {
-            throw new IncorrectBoardException("Board must only contain unique cards");
-        }
-
-        for (String rep : cardReps) {
-            Card c = new Card(rep);
-            this.cards.add(c);
+            this.cards.add(Card.parse(rep));
         }
+        this.cardsMask = countUniqueMask(this.cards);
+        this.key = countKey(this.cards);
     }
 
     /**
@@ -70,12 +73,9 @@ public class Board {
         if (cards.size() < 3 || cards.size() > 5) {
             throw new IncorrectBoardException( "Board must contain from 3 to 5 cards.");
         }
-        HashSet<Card> unique = new HashSet<Card>(cards);
-        if (unique.size() != cards.size()) {
-            throw new IncorrectBoardException("Board must only contain unique cards");
-        }
-
         this.cards.addAll(cards);
+        this.cardsMask = countUniqueMask(this.cards);
+        this.key = countKey(this.cards);
     }
 
     /**
@@ -85,12 +85,38 @@ public class Board {
      * @param copyBoard board to copy from
      */
     public Board(Board copyBoard) {
-        this.cards.addAll(copyBoard.getCards());
+        this.cards.addAll(copyBoard.cards);
+        this.cardsMask = copyBoard.cardsMask;
+        this.key = copyBoard.key;
+    }
+
+    /**
+     * @throws IncorrectBoardException if the cards are not unique
+     */
+    private static long countUniqueMask(ArrayList<Card> cards) throws IncorrectBoardException {
+        long mask = 0;
+        for (Card card : cards) {
+            mask |= CardSet.maskOf(card);
+        }
+        if (Long.bitCount(mask) != cards.size()) {
+            throw new IncorrectBoardException("Board must only contain unique cards");
+        }
+        return mask;
+    }
+
+    private static long countKey(ArrayList<Card> cards) {
+        long key = CardSet.maskOf(cards.get(0)) | CardSet.maskOf(cards.get(1)) | CardSet.maskOf(cards.get(2));
+        if (cards.size() > 3) {
+            key |= (long) (cards.get(3).getIndex() + 1) << TURN_SHIFT;
+        }
+        if (cards.size() > 4) {
+            key |= (long) (cards.get(4).getIndex() + 1) << RIVER_SHIFT;
+        }
+        return key;
     }
 
     public Card get(int index) {
-        ArrayList<Card> cardsCopy = getCards();
-        return cardsCopy.get(index);
+        return cards.get(index);
     }
 
 
@@ -105,6 +131,48 @@ public class Board {
         return cards.size();
     }
 
+    /**
+     * @return set of all the cards of the board
+     */
+    @JsonIgnore
+    public CardSet getCardSet() {
+        return CardSet.of(cardsMask);
+    }
+
+    /**
+     * @return mask of all the cards of the board (see {@link CardSet})
+     */
+    @JsonIgnore
+    public long getCardsMask() {
+        return cardsMask;
+    }
+
+    /**
+     * Returns canonical key of the board - boards are equal only if their keys are equal.
+     * @return 64-bit key of the board
+     */
+    @JsonIgnore
+    public long getKey() {
+        return key;
+    }
+
+    /**
+     * @return index of the flop of this board (see {@link FlopTexture#flopIndex(long)})
+     */
+    @JsonIgnore
+    public int getFlopIndex() {
+        return FlopTexture.flopIndex(key & CardSet.FULL_MASK);
+    }
+
+    /**
+     * Returns texture of the flop of this board. Turn and river do not change it.
+     * @return texture of the flop, taken from the precomputed table
+     */
+    @JsonIgnore
+    public FlopTexture getTexture() {
+        return FlopTexture.of(getFlopIndex());
+    }
+
     /**
      * Board can be equal with another object only if it is another board.
      * The boards are considered equal if the boards contain same amount of same cards.
@@ -119,40 +187,17 @@ public class Board {
         if (obj == null || obj.getClass() != Board.class) {
             return false;
         }
-        if (this.size() != ((Board) obj).size()) {
-            return false;
-        }
-
-        Board b = ((Board) obj);
-        Set<Card> set1 = new HashSet<>(this.cards.subList(0, 3));
-        Set<Card> set2 = new HashSet<>(b.cards.subList(0, 3));
-
-        for (Card card1 : set1) {
-            set2.remove(card1);
-        }
-
-        boolean trSame = true;
-        for (int i = 3; i < this.size(); ++i) {
-            if (b.size() < i || !this.get(i).equals(b.get(i))) {
-                trSame = false;
-            }
-        }
-        return set2.size() == 0 && trSame;
+        return this.key == ((Board) obj).key;
     }
 
     /**
      * returns hashcode of the Board object - first 3 cards` order does not matter,
      * but 4th and 5th cards order matters.
-     * @return
+     * @return hashcode, counted by the canonical key of the board
      */
     @Override
     public int hashCode() {
-        if (size() == 3) {
-            return Objects.hash(new HashSet<>(cards.subList(0, 3)));
-        } else if (size() == 4) {
-            return Objects.hash(new HashSet<>(cards.subList(0, 3)), get(3));
-        }
-        return Objects.hash(new HashSet<>(cards.subList(0, 3)), get(3), get(4));
+        return Long.hashCode(key);
     }
 
     /**
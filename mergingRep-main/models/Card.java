@@ -1,102 +1,161 @@
 package models;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import exceptions.IncorrectCardException;
 
-import java.util.Locale;
-
 /**
  * The class for Card entity. Card has a rank and a suit.
  */
 public class Card {
+    /**
+     * Amount of different ranks (and so the amount of cards of one suit).
+     */
+    public static final int RANKS_AMOUNT = 13;
+
+    /**
+     * Amount of different cards in the deck.
+     */
+    public static final int CARDS_AMOUNT = 52;
+
+    private static final Rank[] RANKS = Rank.values();
+    private static final Suit[] SUITS = Suit.values();
+
+    /**
+     * All 52 cards, stored by their index. Cards are immutable, so these instances are shared.
+     */
+    private static final Card[] CARDS = new Card[CARDS_AMOUNT];
+
+    static {
+        for (Suit suit : SUITS) {
+            for (Rank rank : RANKS) {
+                Card card = new Card(rank, suit);
+                CARDS[card.index] = card;
+            }
+        }
+    }
+
     private final Rank rank;
     private final Suit suit;
+    private final int index;
 
     /**
      * Creates new instance of the Card with given Rank and Suit.
+     * Prefer {@link #of(Rank, Suit)}, that returns the shared instance of the card.
      * @param rank rank of the created card (could be 2 .. 9, or T, J, Q, K, A)
      * @param suit suit of the created card (could be one of the 4 possible suits)
      */
-    @JsonCreator
-    public Card(@JsonProperty("rank") Rank rank, @JsonProperty("suit") Suit suit) {
+    public Card(Rank rank, Suit suit) {
         this.rank = rank;
         this.suit = suit;
+        this.index = suit.ordinal() * RANKS_AMOUNT + rank.ordinal();
     }
 
     /**
      * Constructs the Card by its String representation
+     * Prefer {@link #parse(String)}, that returns the shared instance of the card.
      *
      * @param strRepresentation String, that consists of the rank and the suit - both
      *                          represented by 1 character (standard notation is used)
      * @throws IncorrectCardException if the parameter is incorrect (either rank or suit are misspelled)
      */
     public Card(String strRepresentation) throws IncorrectCardException {
+        this(parse(strRepresentation));
+    }
+
+    private Card(Card card) {
+        this(card.rank, card.suit);
+    }
+
+    /**
+     * Returns the shared instance of the card with given Rank and Suit.
+     * @param rank rank of the card
+     * @param suit suit of the card
+     * @return card with given rank and suit
+     */
+    @JsonCreator
+    public static Card of(@JsonProperty("rank") Rank rank, @JsonProperty("suit") Suit suit) {
+        return CARDS[suit.ordinal() * RANKS_AMOUNT + rank.ordinal()];
+    }
+
+    /**
+     * Returns the shared instance of the card with given index.
+     * @param index index of the card (see {@link #getIndex()})
+     * @return card with given index
+     * @throws IllegalArgumentException if index is not in [0; 51]
+     */
+    public static Card of(int index) {
+        if (index < 0 || index >= CARDS_AMOUNT) {
+            throw new IllegalArgumentException("Index of the card must be in [0; 51], but was: " + index);
+        }
+        return CARDS[index];
+    }
+
+    /**
+     * Returns the shared instance of the card by its String representation.
+     *
+     * @param strRepresentation String, that consists of the rank and the suit - both
+     *                          represented by 1 character (standard notation is used)
+     * @return card with given representation
+     * @throws IncorrectCardException if the parameter is incorrect (either rank or suit are misspelled)
+     */
+    public static Card parse(String strRepresentation) throws IncorrectCardException {
         if (strRepresentation.length() != 2) {
             throw new IncorrectCardException("Was given : " + strRepresentation + ". Representation of the card must be [Rank][suit], 10 being T," +
                     " suit = 1st letter (ex: 4 of spades = 4s)");
         }
+        return parse(strRepresentation.charAt(0), strRepresentation.charAt(1));
+    }
 
-        char valueChar = strRepresentation.toUpperCase(Locale.ROOT).charAt(0);
-
-        if (valueChar == 'T') {
-            this.rank = Rank.TEN;
-        } else if (valueChar == 'J') {
-            this.rank = Rank.JACK;
-        } else if (valueChar == 'Q') {
-            this.rank = Rank.QUEEN;
-        } else if (valueChar == 'K') {
-            this.rank = Rank.KING;
-        } else if (valueChar == 'A') {
-            this.rank = Rank.ACE;
-        } else {
-            if (valueChar > '9' || valueChar < '2') {
-                throw new IncorrectCardException("Representation of the card must be [Rank][suit], 10 being T," +
-                        " suit = 1st letter (ex: 4 of spades = 4s)");
-            } else {
-                int number = valueChar - '0';
-                Rank rankToGive = Rank.TWO;
-                for (Rank r : Rank.values()) {
-                    if (number == r.value) {
-                        rankToGive = r;
-                    }
-                }
-                this.rank = rankToGive;
-                // Just a check, to make sure my sloppy solution to
-                // prevent error popping out (rankToGive) is working correctly
-                if (rank == Rank.TWO && (number != 2 || valueChar != '2')) {
-                    throw new RuntimeException("I have wrote the code incorrectly: " +
-                            "Change the Card constructor (for some reason the rank is " +
-                            "assigned incorrectly.");
-                }
-            }
+    /**
+     * Returns the shared instance of the card by characters of its rank and suit
+     * (case does not matter, suit could also be given by its icon).
+     *
+     * @param rankChar character of the rank (2 .. 9, or T, J, Q, K, A)
+     * @param suitChar character of the suit (s, c, h, d or the icon of the suit)
+     * @return card with given rank and suit
+     * @throws IncorrectCardException if either rank or suit are misspelled
+     */
+    public static Card parse(char rankChar, char suitChar) throws IncorrectCardException {
+        int rank = parseRank(rankChar);
+        int suit = parseSuit(suitChar);
+        if (rank < 0 || suit < 0) {
+            throw new IncorrectCardException("Incorrect Representation: '" + rankChar + suitChar + "'. Representation of the card must be [Rank][suit], 10 being T," +
+                    " suit = 1st letter (ex: 4 of spades = 4s)");
         }
+        return CARDS[suit * RANKS_AMOUNT + rank];
+    }
 
-        char suitChar = strRepresentation.toLowerCase(Locale.ROOT).charAt(1);
-        if (suitChar == 's') {
-            suit = Suit.SPADES;
-        } else if (suitChar == 'c') {
-            suit = Suit.CLUBS;
-        } else if (suitChar == 'h') {
-            suit = Suit.HEARTS;
-        } else if (suitChar == 'd') {
-            suit = Suit.DIAMONDS;
-        } else {
-            if (suitChar == '♠') {
-                suit = Suit.SPADES;
-            } else if (suitChar == '♥') {
-                suit = Suit.HEARTS;
-            } else if (suitChar == '♦') {
-                suit = Suit.DIAMONDS;
-            } else if (suitChar == '♣') {
-                suit = Suit.CLUBS;
-            } else {
-                throw new IncorrectCardException("Incorrect Representation: '" + strRepresentation + "'. Representation of the card must be [Rank][suit], 10 being T," +
-                        " suit = 1st letter (ex: 4 of spades = 4s)");
-            }
+    /**
+     * @return ordinal of the rank with given character, or -1 if character is incorrect
+     */
+    private static int parseRank(char rankChar) {
+        if (rankChar >= '2' && rankChar <= '9') {
+            return rankChar - '2';
         }
+        return switch (rankChar) {
+            case 'T', 't' -> Rank.TEN.ordinal();
+            case 'J', 'j' -> Rank.JACK.ordinal();
+            case 'Q', 'q' -> Rank.QUEEN.ordinal();
+            case 'K', 'k' -> Rank.KING.ordinal();
+            case 'A', 'a' -> Rank.ACE.ordinal();
+            default -> -1;
+        };
     }
 
+    /**
+     * @return ordinal of the suit with given character, or -1 if character is incorrect
+     */
+    private static int parseSuit(char suitChar) {
+        return switch (suitChar) {
+            case 's', 'S', '♠' -> Suit.SPADES.ordinal();
+            case 'c', 'C', '♣' -> Suit.CLUBS.ordinal();
+            case 'h', 'H', '♥' -> Suit.HEARTS.ordinal();
+            case 'd', 'D', '♦' -> Suit.DIAMONDS.ordinal();
+            default -> -1;
+        };
+    }
 
     /**
      * Suit of the card. Has a field w char icon.
@@ -149,6 +208,16 @@ public class Card {
         return suit;
     }
 
+    /**
+     * Index of the card is {@code suit * 13 + rank}, where rank is 0 for TWO and 12 for ACE,
+     * and suit is the ordinal of the Suit. Every one of the 52 cards has a unique index in [0; 51].
+     * @return index of the card
+     */
+    @JsonIgnore
+    public int getIndex() {
+        return index;
+    }
+
 
     /**
      * Card is equal to another object only if it is another Card.
@@ -166,26 +235,18 @@ public class Card {
             return false;
         }
         if (obj.getClass() == Card.class) {
-            return this.rank == ((Card) obj).rank && this.suit == ((Card) obj).suit;
+            return this.index == ((Card) obj).index;
         }
         return false;
     }
 
     /**
      * @return hashcode of the Card object. Every one of the 52 possible cards is
-     * assigned a unique hashcode - a number between 1 and 52.
+     * assigned a unique hashcode - its index (a number between 0 and 51).
      */
     @Override
     public int hashCode() {
-        int suitHash = 0;
-        if (suit == Suit.HEARTS) {
-            suitHash = 1;
-        } else if (suit == Suit.CLUBS) {
-            suitHash = 2;
-        } else if (suit == Suit.SPADES) {
-            suitHash = 3;
-        }
-        return (suitHash * 13) + rank.value - 1;
+        return index;
     }
 
     /**
@@ -0,0 +1,216 @@
+package models;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable set of cards, backed by a single long: the bit with the index
+ * of the card (see {@link Card#getIndex()}) is raised if the card is in the set.
+ * All the set operations are O(1) and do not allocate anything but the resulting set.
+ */
+public final class CardSet implements Iterable<Card> {
+    /**
+     * Mask with all 52 cards raised.
+     */
+    public static final long FULL_MASK = (1L << Card.CARDS_AMOUNT) - 1;
+
+    public static final CardSet EMPTY = new CardSet(0);
+
+    private final long mask;
+
+    private CardSet(long mask) {
+        this.mask = mask;
+    }
+
+    /**
+     * @param mask mask of cards (only 52 lowest bits can be raised)
+     * @return set with the cards of the given mask
+     * @throws IllegalArgumentException if any bit higher than 51st is raised
+     */
+    public static CardSet of(long mask) {
+        if ((mask & ~FULL_MASK) != 0) {
+            throw new IllegalArgumentException("Only 52 lowest bits of the mask can be raised");
+        }
+        return mask == 0 ? EMPTY : new CardSet(mask);
+    }
+
+    /**
+     * @return set with the given cards (repeated cards are added only once)
+     */
+    public static CardSet of(Card... cards) {
+        long mask = 0;
+        for (Card card : cards) {
+            mask |= maskOf(card);
+        }
+        return of(mask);
+    }
+
+    /**
+     * @return set with the given cards (repeated cards are added only once)
+     */
+    public static CardSet of(Collection<Card> cards) {
+        long mask = 0;
+        for (Card card : cards) {
+            mask |= maskOf(card);
+        }
+        return of(mask);
+    }
+
+    /**
+     * @return mask with the only bit of the given card raised
+     */
+    public static long maskOf(Card card) {
+        return 1L << card.getIndex();
+    }
+
+    /**
+     * @return mask of the set
+     */
+    public long getMask() {
+        return mask;
+    }
+
+    /**
+     * @return amount of cards in the set
+     */
+    public int size() {
+        return Long.bitCount(mask);
+    }
+
+    public boolean isEmpty() {
+        return mask == 0;
+    }
+
+    /**
+     * @return true if the card is in the set, false otherwise
+     */
+    public boolean contains(Card card) {
+        return (mask & maskOf(card)) != 0;
+    }
+
+    /**
+     * @return true if all the cards of the other set are in this set, false otherwise
+     */
+    public boolean containsAll(CardSet other) {
+        return (mask & other.mask) == other.mask;
+    }
+
+    /**
+     * @return true if the sets have at least one common card, false otherwise
+     */
+    public boolean intersects(CardSet other) {
+        return (mask & other.mask) != 0;
+    }
+
+    /**
+     * @return set of cards, that are either in this or in the other set
+     */
+    public CardSet union(CardSet other) {
+        return of(mask | other.mask);
+    }
+
+    /**
+     * @return set of cards, that are both in this and in the other set
+     */
+    public CardSet intersect(CardSet other) {
+        return of(mask & other.mask);
+    }
+
+    /**
+     * @return set of cards of this set, that are not in the other set
+     */
+    public CardSet minus(CardSet other) {
+        return of(mask & ~other.mask);
+    }
+
+    /**
+     * @return set of cards of this set and the given card
+     */
+    public CardSet with(Card card) {
+        return of(mask | maskOf(card));
+    }
+
+    /**
+     * @return new HashSet with the same cards
+     */
+    public HashSet<Card> toHashSet() {
+        HashSet<Card> set = new HashSet<>();
+        for (Card card : this) {
+            set.add(card);
+        }
+        return set;
+    }
+
+    /**
+     * @return new ArrayList with the same cards, ordered by index
+     */
+    public ArrayList<Card> toList() {
+        ArrayList<Card> list = new ArrayList<>(size());
+        for (Card card : this) {
+            list.add(card);
+        }
+        return list;
+    }
+
+    /**
+     * Iterates over the cards of the set in order of their indexes.
+     */
+    @Override
+    public Iterator<Card> iterator() {
+        return new Iterator<>() {
+            private long left = mask;
+
+            @Override
+            public boolean hasNext() {
+                return left != 0;
+            }
+
+            @Override
+            public Card next() {
+                if (left == 0) {
+                    throw new NoSuchElementException();
+                }
+                int index = Long.numberOfTrailingZeros(left);
+                left &= left - 1;
+                return Card.of(index);
+            }
+        };
+    }
+
+    /**
+     * CardSets are considered equal if they contain the same cards.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || obj.getClass() != CardSet.class) {
+            return false;
+        }
+        return mask == ((CardSet) obj).mask;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(mask);
+    }
+
+    /**
+     * @return string representation of the set, like: {2♥, A♠}
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        for (Card card : this) {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(card);
+        }
+        return builder.append('}').toString();
+    }
+}
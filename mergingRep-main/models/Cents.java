@@ -0,0 +1,35 @@
+package models;
+
+/**
+ * Helper for money amounts, that are kept as exact amounts of cents (long) instead of dollars (double).
+ * Dollars are only used at the edges - for the UI and JSON.
+ */
+public final class Cents {
+    public static final int IN_DOLLAR = 100;
+
+    private Cents() {
+    }
+
+    /**
+     * @return amount of dollars rounded to the nearest cent
+     */
+    public static long of(double dollars) {
+        return Math.round(dollars * IN_DOLLAR);
+    }
+
+    /**
+     * @return amount of cents in dollars (the nearest double)
+     */
+    public static double toDollars(long cents) {
+        return (double) cents / IN_DOLLAR;
+    }
+
+    /**
+     * @return string representation of the amount in dollars with 2 digits after the point (like 12.34)
+     */
+    public static String format(long cents) {
+        long abs = Math.abs(cents);
+        long fraction = abs % IN_DOLLAR;
+        return (cents < 0 ? "-" : "") + abs / IN_DOLLAR + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+}
@@ -3,6 +3,7 @@ package models;
 import analizer.Combination;
 import analizer.CombinationAnalyzer;
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.ArrayList;
@@ -15,7 +16,7 @@ import java.util.Set;
  */
 public class ComboCardsPair {
     private final Combination combination;
-    private final HashSet<Card> cards;
+    private final CardSet cards;
 
     /**
      * Constructs ComboCardsPair with given parameters.
@@ -27,7 +28,7 @@ public class ComboCardsPair {
     @JsonCreator
     public ComboCardsPair(@JsonProperty("combination") Combination combo, @JsonProperty("cards") ArrayList<Card> cards) {
         this.combination = combo;
-        this.cards = new HashSet<>(cards);
+        this.cards = CardSet.of(cards);
     }
 
     /**
@@ -39,7 +40,19 @@ public class ComboCardsPair {
      */
     public ComboCardsPair(Combination combo, Set<Card> cards) {
         this.combination = combo;
-        this.cards = new HashSet<>(cards);
+        this.cards = CardSet.of(cards);
+    }
+
+    /**
+     * Constructs ComboCardsPair with given parameters.
+     * Does not check if the Cards actually make the combination, does not check if cards
+     * make up a valid board
+     * @param combo Combination on board
+     * @param cards Set of cards that make up a combination
+     */
+    public ComboCardsPair(Combination combo, CardSet cards) {
+        this.combination = combo;
+        this.cards = cards;
     }
 
 
@@ -47,7 +60,15 @@ public class ComboCardsPair {
      * @return a new hashSet of cards with the same cards as in combination (not a link)
      */
     public HashSet<Card> getCards() {
-        return new HashSet<>(cards);
+        return cards.toHashSet();
+    }
+
+    /**
+     * @return set of cards that make up the combination (immutable, so no copy is made)
+     */
+    @JsonIgnore
+    public CardSet getCardSet() {
+        return cards;
     }
 
     /**
@@ -89,7 +110,7 @@ public class ComboCardsPair {
      */
     @Override
     public String toString() {
-        ArrayList<Card> cardsAr = new ArrayList<>(cards);
+        ArrayList<Card> cardsAr = cards.toList();
         CombinationAnalyzer.sortBoard(cardsAr);
         return "(ComboBoardPair| Combination: " + combination + ", Cards: " + cardsAr + ")";
     }
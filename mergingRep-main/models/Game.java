@@ -1,5 +1,6 @@
 package models;
 
+import analizer.Combination;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -15,24 +16,50 @@ import static models.PositionType.*;
  * (if revealed) and other.
  */
 public class Game {
+    /**
+     * Value of the date in milliseconds, if the date of the game is unknown.
+     */
+    public static final long NO_DATE = Long.MIN_VALUE;
+
     // Unique (At least for PokerOk)
     private final String gameId;
     private String table;
 
     @JsonIgnore
     public Game(String gameId, double bigBlindSize$, Collection<PlayerInGame> players) {
+        this(gameId, Cents.of(bigBlindSize$), players);
+    }
+
+    /**
+     * Constructs a new game with given ID, BB (given in cents) and players, whose current balances
+     * are taken as the initial ones.
+     *
+     * @param gameId       Id of the game from PokerCraft parsed text view of the game
+     * @param bigBlindCents value of 1 big blind in cents
+     * @param players      players of the game
+     */
+    private Game(String gameId, long bigBlindCents, Collection<PlayerInGame> players) {
         this.gameId = gameId;
-        this.bigBlindSize$ = bigBlindSize$;
+        this.bigBlindCents = bigBlindCents;
         if (players != null) {
             for (PlayerInGame p : players) {
                 this.players.put(p.getId(), p);
             }
 
             for (PlayerInGame p : players) {
-                this.initialBalances.put(p.getId(), p.getBalance());
+                this.initialBalances.put(p.getId(), p.getBalanceCents());
             }
         }
+    }
 
+    /**
+     * Constructs a new game with given ID, BB (given in cents) and players, whose current balances
+     * are taken as the initial ones.
+     *
+     * @return constructed game
+     */
+    public static Game ofCents(String gameId, long bigBlindCents, Collection<PlayerInGame> players) {
+        return new Game(gameId, bigBlindCents, players);
     }
 
     /**
@@ -47,13 +74,13 @@ public class Game {
                 @JsonProperty("players") HashMap<String, PlayerInGame> players,
                 @JsonProperty("initialBalances") HashMap<String, Double> initialBalances) {
         this.gameId = gameId;
-        this.bigBlindSize$ = bigBlindSize$;
+        this.bigBlindCents = Cents.of(bigBlindSize$);
         if (players != null) {
             this.players.putAll(players);
         }
         if (initialBalances != null) {
             for (String id : initialBalances.keySet()) {
-                this.initialBalances.put(id, initialBalances.get(id));
+                this.initialBalances.put(id, Cents.of(initialBalances.get(id)));
             }
         }
     }
@@ -63,22 +90,22 @@ public class Game {
      */
     @JsonProperty(value = "players", required = true)
     private HashMap<String, PlayerInGame> players = new HashMap<>();
-    private final HashMap<String, Double> initialBalances = new HashMap<>();
+    // All the money amounts are kept in cents (see Cents)
+    private final HashMap<String, Long> initialBalances = new HashMap<>();
 
-    // Amount of dollars as a cash drop (or 0 if there is no cash drop)
-    private double extraCashAmount = 0;
-    private Date date;
-    private final double bigBlindSize$;
+    // Amount of cents as a cash drop (or 0 if there is no cash drop)
+    private long extraCashCents = 0;
+    // Epoch milliseconds of the start of the game (or NO_DATE if unknown)
+    private long dateMillis = NO_DATE;
+    private final long bigBlindCents;
 
     private StreetDescription preFlop;
     private StreetDescription flop;
     private StreetDescription turn;
     private StreetDescription river;
 
-    @JsonProperty(value = "allWinners", required = true)
-    private HashMap<String, Double> allWinners = new HashMap<>();
-    private double finalPot;
-    private double rake;
+    private HashMap<String, Long> allWinners = new HashMap<>();
+    private long rakeCents;
 
     /**
      * Contains all the single shown cards assigned to the players that showed them.
@@ -109,6 +136,63 @@ public class Game {
         return new HashMap<>(shownOneCards);
     }
 
+    private static final int FLOP_INDEX = 0;
+    private static final int TURN_INDEX = 1;
+    private static final int RIVER_INDEX = 2;
+
+    /**
+     * Contains combinations of every player with known hand on flop, turn and river
+     * (counted by the parser while the game is built, not serialized).
+     */
+    private final HashMap<String, Combination[]> streetCombinations = new HashMap<>();
+
+    /**
+     * Sets combinations, that the player with given id had on every street.
+     *
+     * @param playerId id of the player
+     * @param flop     combination on the flop (null if there was no flop)
+     * @param turn     combination on the turn (null if there was no turn)
+     * @param river    combination on the river (null if there was no river)
+     * @return true, if the player with given id is present in that game and combinations are set;
+     * false, otherwise.
+     */
+    public boolean setStreetCombinations(String playerId, Combination flop, Combination turn, Combination river) {
+        if (this.players.get(playerId) == null) {
+            return false;
+        }
+        streetCombinations.put(playerId, new Combination[]{flop, turn, river});
+        return true;
+    }
+
+    /**
+     * @return combination of the player with given id on the flop, or null if it is unknown
+     */
+    @JsonIgnore
+    public Combination getFlopCombination(String playerId) {
+        return getStreetCombination(playerId, FLOP_INDEX);
+    }
+
+    /**
+     * @return combination of the player with given id on the turn, or null if it is unknown
+     */
+    @JsonIgnore
+    public Combination getTurnCombination(String playerId) {
+        return getStreetCombination(playerId, TURN_INDEX);
+    }
+
+    /**
+     * @return combination of the player with given id on the river, or null if it is unknown
+     */
+    @JsonIgnore
+    public Combination getRiverCombination(String playerId) {
+        return getStreetCombination(playerId, RIVER_INDEX);
+    }
+
+    private Combination getStreetCombination(String playerId, int street) {
+        Combination[] combinations = streetCombinations.get(playerId);
+        return combinations == null ? null : combinations[street];
+    }
+
     private int preFlopRaisesAmount = -1;
 
     /**
@@ -475,10 +559,37 @@ public class Game {
 
     @JsonIgnore
     public double getHeroWinloss() {
+        return Cents.toDollars(getHeroWinlossCents());
+    }
+
+    /**
+     * @return amount of cents, that Hero won (negative if lost) in this game, or 0 if Hero is not in the game
+     */
+    @JsonIgnore
+    public long getHeroWinlossCents() {
         if (players.get("Hero") == null) {
             return 0;
         }
-        return players.get("Hero").getBalance() - initialBalances.get("Hero");
+        return players.get("Hero").getBalanceCents() - initialBalances.get("Hero");
+    }
+
+    /**
+     * @return amount of big blinds, that Hero won (negative if lost) in this game
+     */
+    @JsonIgnore
+    public double getHeroWinlossBB() {
+        return toBigBlinds(getHeroWinlossCents());
+    }
+
+    /**
+     * Converts the amount of cents to the amount of big blinds of this game. Division is done once,
+     * on exact amounts, so the rounding errors do not accumulate.
+     *
+     * @param cents amount of cents
+     * @return amount of big blinds
+     */
+    public double toBigBlinds(long cents) {
+        return (double) cents / bigBlindCents;
     }
 
     /**
@@ -492,14 +603,25 @@ public class Game {
      * @return Big Blind (BB) size in dollars.
      */
     public double getBigBlindSize$() {
-        return bigBlindSize$;
+        return Cents.toDollars(bigBlindCents);
+    }
+
+    /**
+     * @return Big Blind (BB) size in cents.
+     */
+    @JsonIgnore
+    public long getBigBlindCents() {
+        return bigBlindCents;
     }
 
     /**
      * @return Date when the game took place.
      */
     public Date getDate() {
-        return date;
+        if (dateMillis == NO_DATE) {
+            return null;
+        }
+        return new Date(dateMillis);
     }
 
     /**
@@ -508,7 +630,24 @@ public class Game {
      * @param date given date to set (no setting conditions)
      */
     public void setDate(Date date) {
-        this.date = date;
+        this.dateMillis = date == null ? NO_DATE : date.getTime();
+    }
+
+    /**
+     * @return epoch milliseconds when the game took place (or NO_DATE if the date is unknown)
+     */
+    @JsonIgnore
+    public long getDateMillis() {
+        return dateMillis;
+    }
+
+    /**
+     * sets the date of the game
+     *
+     * @param dateMillis epoch milliseconds of the date to set (NO_DATE if the date is unknown)
+     */
+    public void setDateMillis(long dateMillis) {
+        this.dateMillis = dateMillis;
     }
 
     /**
@@ -631,16 +770,28 @@ public class Game {
         if (decrAmount < 0) {
             throw new IllegalArgumentException("Decrement amount must be positive (ypu can not add chips to player`s balance during hand");
         }
+        decrementPlayersBalanceCents(id, Cents.of(decrAmount));
+    }
 
-        PlayerInGame p = this. players.get(id);
-        if (p != null) {
-            double balance = p.getBalance();
+    /**
+     * Subtracts given amount of cents from the balance of the player with given Id.
+     *
+     * @param id         Id of player whose balance is needed to be decreased
+     * @param decrCents  amount of cents that will be decreased from given player`s balance
+     * @throws IllegalArgumentException if {@code decrCents} is less than players balance or decrCents is less than 0
+     */
+    public void decrementPlayersBalanceCents(String id, long decrCents) {
+        if (decrCents < 0) {
+            throw new IllegalArgumentException("Decrement amount must be positive (ypu can not add chips to player`s balance during hand");
+        }
 
-            if (decrAmount - balance > 0.01) {
+        PlayerInGame p = this.players.get(id);
+        if (p != null) {
+            if (decrCents > p.getBalanceCents()) {
                 throw new IllegalArgumentException("Decrement amount must be less or equal to the balance of the player");
             }
 
-            p.setBalance(p.getBalance() - decrAmount);
+            p.setBalanceCents(p.getBalanceCents() - decrCents);
         }
     }
 
@@ -651,9 +802,19 @@ public class Game {
      * @param returnAmount amount to return to player`s balance
      */
     public void returnUncalledChips(String playerId, double returnAmount) {
+        returnUncalledChipsCents(playerId, Cents.of(returnAmount));
+    }
+
+    /**
+     * Returns the given amount of cents to the player`s balance (if bet was uncalled)
+     *
+     * @param playerId     id of the player to return chips
+     * @param returnCents  amount of cents to return to player`s balance
+     */
+    public void returnUncalledChipsCents(String playerId, long returnCents) {
         PlayerInGame p = this.players.get(playerId);
         if (p != null) {
-            p.setBalance(p.getBalance() + returnAmount);
+            p.setBalanceCents(p.getBalanceCents() + returnCents);
         }
     }
 
@@ -663,7 +824,7 @@ public class Game {
      */
     @JsonIgnore
     public boolean isExtraCash() {
-        return extraCashAmount != 0;
+        return extraCashCents != 0;
     }
 
     /**
@@ -677,14 +838,41 @@ public class Game {
             throw new IllegalArgumentException("amount must be >= 0");
         }
 
-        extraCashAmount = amount;
+        extraCashCents = Cents.of(amount);
+    }
+
+    /**
+     * Sets extra cash in cents (can not be less than zero)
+     *
+     * @param cents amount of cents ot set
+     * @throws IllegalArgumentException if amount is less than zero
+     */
+    public void setExtraCashCents(long cents) {
+        if (cents < 0) {
+            throw new IllegalArgumentException("amount must be >= 0");
+        }
+
+        extraCashCents = cents;
+    }
+
+    @JsonProperty("extraCashAmount")
+    private void setExtraCashAmount(double amount) {
+        setExtraCash(amount);
     }
 
     /**
      * @return extra cash amount
      */
     public double getExtraCashAmount() {
-        return extraCashAmount;
+        return Cents.toDollars(extraCashCents);
+    }
+
+    /**
+     * @return extra cash amount in cents
+     */
+    @JsonIgnore
+    public long getExtraCashCents() {
+        return extraCashCents;
     }
 
     /**
@@ -696,10 +884,20 @@ public class Game {
      */
     @JsonIgnore
     public double getSB() {
-        if (bigBlindSize$ * 100 % 2 == 0) {
-            return bigBlindSize$ / 2;
+        return Cents.toDollars(getSBCents());
+    }
+
+    /**
+     * Calculates the small blind size in cents (see {@link #getSB()}).
+     *
+     * @return Small blind amount in cents
+     */
+    @JsonIgnore
+    public long getSBCents() {
+        if (bigBlindCents % 2 == 0) {
+            return bigBlindCents / 2;
         }
-        return bigBlindSize$ * 0.4;
+        return Math.round(bigBlindCents * 0.4);
     }
 
     /**
@@ -805,7 +1003,7 @@ public class Game {
         if (allWinners == null) {
             return null;
         }
-        return new HashMap<String, Double>(allWinners);
+        return toDollars(allWinners);
     }
 
     public void setWinners(HashMap<String, Double> map) {
@@ -818,40 +1016,74 @@ public class Game {
         }
     }
 
+    @JsonProperty(value = "allWinners", required = true)
+    private HashMap<String, Double> getAllWinners() {
+        return getWinners();
+    }
+
+    @JsonProperty(value = "allWinners", required = true)
+    private void setAllWinners(HashMap<String, Double> map) {
+        if (map == null) {
+            this.allWinners = null;
+            return;
+        }
+        this.allWinners = new HashMap<>();
+        for (String key : map.keySet()) {
+            allWinners.put(key, Cents.of(map.get(key)));
+        }
+    }
+
+    /**
+     * @return the HashMap of winners in this game, containing id`s and
+     * amount of cents won assigned to the player with given id
+     */
+    @JsonIgnore
+    public HashMap<String, Long> getWinnersCents() {
+        if (allWinners == null) {
+            return null;
+        }
+        return new HashMap<>(allWinners);
+    }
+
     /**
      * Adds a winner and assigns amount on to the winner hash set.
      */
     public void addWinner(String winnerId, double amount) {
+        addWinnerCents(winnerId, Cents.of(amount));
+    }
+
+    /**
+     * Adds a winner and assigns amount of cents on to the winner hash set.
+     */
+    public void addWinnerCents(String winnerId, long cents) {
         this.allWinners = new HashMap<>();
-        allWinners.put(winnerId, amount);
+        allWinners.put(winnerId, cents);
         PlayerInGame p = players.get(winnerId);
         if (p != null) {
-            p.setBalance(p.getBalance() + amount);
+            p.setBalanceCents(p.getBalanceCents() + cents);
         }
     }
 
     /**
      * @return final pot of the game
      */
+    @JsonIgnore
     public double getFinalPot() {
-        if (river != null) {
-            int len = river.getAllActions().size();
-            finalPot = river.getAllActions().get(len - 1).getPotBeforeAction() + river.getAllActions().get(len - 1).getAmount();
-            return finalPot;
-        } else if (turn != null) {
-            int len = turn.getAllActions().size();
-            finalPot = turn.getAllActions().get(len - 1).getPotBeforeAction() + turn.getAllActions().get(len - 1).getAmount();
-            return finalPot;
-        } else if (flop != null) {
-            int len = flop.getAllActions().size();
-            finalPot = flop.getAllActions().get(len - 1).getPotBeforeAction() + flop.getAllActions().get(len - 1).getAmount();
-            return finalPot;
-        } else if (preFlop != null) {
-            int len = preFlop.getAllActions().size();
-            finalPot = preFlop.getAllActions().get(len - 1).getPotBeforeAction() + preFlop.getAllActions().get(len - 1).getAmount();
-            return finalPot;
-        }
-        return 0;
+        return Cents.toDollars(getFinalPotCents());
+    }
+
+    /**
+     * @return final pot of the game in cents
+     */
+    @JsonIgnore
+    public long getFinalPotCents() {
+        StreetDescription last = river != null ? river : turn != null ? turn : flop != null ? flop : preFlop;
+        if (last == null) {
+            return 0;
+        }
+        List<Action> actions = last.getAllActions();
+        Action lastAction = actions.get(actions.size() - 1);
+        return lastAction.getPotBeforeActionCents() + lastAction.getAmountCents();
     }
 
     public void setTable(String table) {
@@ -866,23 +1098,23 @@ public class Game {
      * @return HashMap of all the initial balances of players in game
      */
     public HashMap<String, Double> getInitialBalances() {
-        return new HashMap<>(initialBalances);
+        return toDollars(initialBalances);
     }
 
     /**
-     * Sets initial balances of the players
-     *
-     * @param players hashMap of balances
+     * @return initial balance of the player with given id in cents, or 0 if there is no such player
      */
-    private void setInitialBalances(Map<String, Double> players) {
-        initialBalances.putAll(players);
+    @JsonIgnore
+    public long getInitialBalanceCents(String playerId) {
+        Long balance = initialBalances.get(playerId);
+        return balance == null ? 0 : balance;
     }
 
     /**
      * @return the rake
      */
     public double getRake() {
-        return rake;
+        return Cents.toDollars(rakeCents);
     }
 
     /**
@@ -891,7 +1123,32 @@ public class Game {
      * @param rake rake to set
      */
     public void setRake(double rake) {
-        this.rake = rake;
+        this.rakeCents = Cents.of(rake);
+    }
+
+    /**
+     * @return the rake in cents
+     */
+    @JsonIgnore
+    public long getRakeCents() {
+        return rakeCents;
+    }
+
+    /**
+     * Sets the rake
+     *
+     * @param rakeCents rake to set in cents
+     */
+    public void setRakeCents(long rakeCents) {
+        this.rakeCents = rakeCents;
+    }
+
+    private static HashMap<String, Double> toDollars(Map<String, Long> cents) {
+        HashMap<String, Double> dollars = new HashMap<>();
+        for (Map.Entry<String, Long> entry : cents.entrySet()) {
+            dollars.put(entry.getKey(), Cents.toDollars(entry.getValue()));
+        }
+        return dollars;
     }
 
     @Override
@@ -931,7 +1188,7 @@ public class Game {
         }
 
         for (PlayerInGame p : orderedPlayers) {
-            p.setBalance(this.initialBalances.get(p.getId()));
+            p.setBalanceCents(this.initialBalances.get(p.getId()));
         }
 
         return "(Game| Game Id: " + gameId + ",\nPlayers: " + orderedPlayers +
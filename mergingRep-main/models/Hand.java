@@ -1,12 +1,12 @@
 package models;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import exceptions.IncorrectCardException;
 import exceptions.IncorrectHandException;
 
 import java.util.HashSet;
-import java.util.List;
 
 /**
  * Class that represents Hand of the player (2 unique cards)
@@ -14,6 +14,7 @@ import java.util.List;
 public class Hand {
     private final Card card1;
     private final Card card2;
+    private final long cardsMask;
 
     /**
      * Constructs new Hand with 2 given cards (they must be unique - not equal)
@@ -26,6 +27,7 @@ public class Hand {
         }
         this.card1 = c1;
         this.card2 = c2;
+        this.cardsMask = CardSet.maskOf(c1) | CardSet.maskOf(c2);
     }
 
     /**
@@ -34,13 +36,14 @@ public class Hand {
      * @throws IncorrectHandException if cards are equal
      */
     public Hand(String cardRep1, String cardRep2) throws IncorrectCardException, IncorrectHandException {
-        Card c1 = new Card(cardRep1);
-        Card c2 = new Card(cardRep2);
+        Card c1 = Card.parse(cardRep1);
+        Card c2 = Card.parse(cardRep2);
         if (c1.equals(c2)) {
             throw new IncorrectHandException();
         }
         this.card1 = c1;
         this.card2 = c2;
+        this.cardsMask = CardSet.maskOf(c1) | CardSet.maskOf(c2);
     }
 
     /**
@@ -49,13 +52,30 @@ public class Hand {
     public Hand(Hand another) {
         this.card1 = another.card1;
         this.card2 = another.card2;
+        this.cardsMask = another.cardsMask;
     }
 
     /**
      * @return set of 2 cards in this hand.
      */
     public HashSet<Card> getCards() {
-        return new HashSet<>(List.of(card1, card2));
+        return getCardSet().toHashSet();
+    }
+
+    /**
+     * @return set of 2 cards in this hand (does not copy anything but the mask).
+     */
+    @JsonIgnore
+    public CardSet getCardSet() {
+        return CardSet.of(cardsMask);
+    }
+
+    /**
+     * @return mask of 2 cards in this hand (see {@link CardSet}), that also serves as the canonical key of the hand
+     */
+    @JsonIgnore
+    public long getCardsMask() {
+        return cardsMask;
     }
 
     public Card getCard1() {
@@ -81,21 +101,18 @@ public class Hand {
             return false;
         }
         if (obj.getClass() == Hand.class) {
-            Hand h = (Hand)obj;
-            return (card1.equals(h.card1) && card2.equals(h.card2)) ||
-                    (card1.equals(h.card2) && card2.equals(h.card1));
+            return cardsMask == ((Hand) obj).cardsMask;
         }
         return false;
     }
 
     /**
-     * Counts the hash function using the following formula:
-     * h(card1)^3 + h(card2)^3, where h(x) = x.hashCode().
+     * Counts the hash function by the mask of the cards (order of cards does not matter).
      * @return hashCode of this object
      */
     @Override
     public int hashCode() {
-        return (int)Math.pow(card1.hashCode(), 3) + (int)Math.pow(card2.hashCode(), 3);
+        return Long.hashCode(cardsMask);
     }
 
     /**
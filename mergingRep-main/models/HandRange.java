@@ -0,0 +1,416 @@
+package models;
+
+import exceptions.IncorrectCardException;
+import exceptions.IncorrectHandException;
+import exceptions.IncorrectRangeException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Class that represents a range of hands - every one of 1326 possible combos
+ * (pairs of different cards) is either in range with some weight, or not.
+ * Combos are stored in a 1326-bit set, weights - in a parallel array.
+ * <p>
+ * Combo of cards with indexes a < b has index {@code b * (b - 1) / 2 + a}.
+ */
+public class HandRange {
+    /**
+     * Amount of different 2-card combos.
+     */
+    public static final int COMBOS_AMOUNT = Card.CARDS_AMOUNT * (Card.CARDS_AMOUNT - 1) / 2;
+
+    private static final String RANK_CHARS = "23456789TJQKA";
+
+    private static final int[] COMBO_CARD1 = new int[COMBOS_AMOUNT];
+    private static final int[] COMBO_CARD2 = new int[COMBOS_AMOUNT];
+    private static final long[] COMBO_MASKS = new long[COMBOS_AMOUNT];
+
+    static {
+        for (int b = 1; b < Card.CARDS_AMOUNT; ++b) {
+            for (int a = 0; a < b; ++a) {
+                int combo = comboIndex(a, b);
+                COMBO_CARD1[combo] = a;
+                COMBO_CARD2[combo] = b;
+                COMBO_MASKS[combo] = 1L << a | 1L << b;
+            }
+        }
+    }
+
+    private final long[] combos = new long[(COMBOS_AMOUNT + 63) / 64];
+    private final double[] weights = new double[COMBOS_AMOUNT];
+
+    /**
+     * Constructs empty range.
+     */
+    public HandRange() {
+    }
+
+    /**
+     * Constructs new range with the same combos and weights as the given one.
+     */
+    public HandRange(HandRange copyRange) {
+        System.arraycopy(copyRange.combos, 0, combos, 0, combos.length);
+        System.arraycopy(copyRange.weights, 0, weights, 0, weights.length);
+    }
+
+    /**
+     * @return index of the combo of 2 different cards with given indexes (order does not matter)
+     */
+    public static int comboIndex(int card1, int card2) {
+        int low = Math.min(card1, card2);
+        int high = Math.max(card1, card2);
+        return high * (high - 1) / 2 + low;
+    }
+
+    /**
+     * @return index of the combo of the cards of the given hand
+     */
+    public static int comboIndex(Hand hand) {
+        return comboIndex(hand.getCard1().getIndex(), hand.getCard2().getIndex());
+    }
+
+    /**
+     * @return mask of 2 cards of the combo with given index (see {@link CardSet})
+     */
+    public static long comboMask(int combo) {
+        return COMBO_MASKS[combo];
+    }
+
+    /**
+     * @return hand made of the cards of the combo with given index
+     */
+    public static Hand comboHand(int combo) {
+        try {
+            return new Hand(Card.of(COMBO_CARD2[combo]), Card.of(COMBO_CARD1[combo]));
+        } catch (IncorrectHandException ex) {
+            // Cards of a combo are always different.
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Adds the combo of the given hand to the range with weight 1 (or changes its weight to 1).
+     */
+    public void add(Hand hand) {
+        setWeight(comboIndex(hand), 1);
+    }
+
+    /**
+     * Adds the combo of the given hand to the range with given weight (or changes its weight).
+     */
+    public void add(Hand hand, double weight) {
+        setWeight(comboIndex(hand), weight);
+    }
+
+    /**
+     * Removes the combo of the given hand from the range.
+     */
+    public void remove(Hand hand) {
+        setWeight(comboIndex(hand), 0);
+    }
+
+    /**
+     * @return true if the combo of the given hand is in range, false otherwise
+     */
+    public boolean contains(Hand hand) {
+        return contains(comboIndex(hand));
+    }
+
+    /**
+     * @return true if the combo with given index is in range, false otherwise
+     */
+    public boolean contains(int combo) {
+        return (combos[combo >>> 6] & (1L << combo)) != 0;
+    }
+
+    /**
+     * @return weight of the combo of the given hand (0 if the combo is not in range)
+     */
+    public double getWeight(Hand hand) {
+        return weights[comboIndex(hand)];
+    }
+
+    /**
+     * @return weight of the combo with given index (0 if the combo is not in range)
+     */
+    public double getWeight(int combo) {
+        return weights[combo];
+    }
+
+    /**
+     * Sets the weight of the combo with given index. Combo with weight 0 is removed from range.
+     *
+     * @throws IllegalArgumentException if weight is not in [0; 1]
+     */
+    public void setWeight(int combo, double weight) {
+        if (weight < 0 || weight > 1) {
+            throw new IllegalArgumentException("Weight of the combo must be in [0; 1], but was: " + weight);
+        }
+        weights[combo] = weight;
+        if (weight == 0) {
+            combos[combo >>> 6] &= ~(1L << combo);
+        } else {
+            combos[combo >>> 6] |= 1L << combo;
+        }
+    }
+
+    /**
+     * Returns index of the first combo in range, that has index equal or greater than the given one.
+     * Allows iterating over range like: {@code for (int c = r.nextCombo(0); c >= 0; c = r.nextCombo(c + 1))}
+     *
+     * @return index of the next combo in range, or -1 if there are no more combos
+     */
+    public int nextCombo(int from) {
+        int word = from >>> 6;
+        if (word >= combos.length) {
+            return -1;
+        }
+        long bits = combos[word] & (-1L << from);
+        while (true) {
+            if (bits != 0) {
+                return word * 64 + Long.numberOfTrailingZeros(bits);
+            }
+            if (++word == combos.length) {
+                return -1;
+            }
+            bits = combos[word];
+        }
+    }
+
+    /**
+     * @return amount of combos in range
+     */
+    public int size() {
+        int size = 0;
+        for (long word : combos) {
+            size += Long.bitCount(word);
+        }
+        return size;
+    }
+
+    /**
+     * @return sum of weights of all the combos in range
+     */
+    public double getTotalWeight() {
+        double total = 0;
+        for (int c = nextCombo(0); c >= 0; c = nextCombo(c + 1)) {
+            total += weights[c];
+        }
+        return total;
+    }
+
+    /**
+     * @return new range without the combos, that contain any of the given cards
+     */
+    public HandRange withoutCards(CardSet cards) {
+        HandRange range = new HandRange(this);
+        long mask = cards.getMask();
+        for (int c = nextCombo(0); c >= 0; c = nextCombo(c + 1)) {
+            if ((COMBO_MASKS[c] & mask) != 0) {
+                range.setWeight(c, 0);
+            }
+        }
+        return range;
+    }
+
+    /**
+     * @return list of hands of all the combos in range
+     */
+    public ArrayList<Hand> getHands() {
+        ArrayList<Hand> hands = new ArrayList<>();
+        for (int c = nextCombo(0); c >= 0; c = nextCombo(c + 1)) {
+            hands.add(comboHand(c));
+        }
+        return hands;
+    }
+
+    /**
+     * Parses the range written in standard notation: comma separated parts, each of them is one of
+     * <ul>
+     *     <li>pair, suited, offsuit or any hand: TT, AKs, AKo, AK</li>
+     *     <li>hand with "+": 22+ (all pairs from 22 up to AA), A2s+ (A2s, A3s, ... AKs)</li>
+     *     <li>interval: 22-55, A2s-A5s</li>
+     *     <li>exact combo: AhKh</li>
+     * </ul>
+     * Any part could be followed by the weight of its combos, like "AKo:0.5".
+     *
+     * @param notation range in standard notation (ex: "22+, A2s+, KTo+")
+     * @return parsed range
+     * @throws IncorrectRangeException if notation is incorrect
+     */
+    public static HandRange parse(String notation) throws IncorrectRangeException {
+        HandRange range = new HandRange();
+        for (String part : notation.split(",")) {
+            part = part.trim();
+            if (part.isEmpty()) {
+                continue;
+            }
+
+            double weight = 1;
+            int weightPos = part.indexOf(':');
+            if (weightPos >= 0) {
+                try {
+                    weight = Double.parseDouble(part.substring(weightPos + 1).trim());
+                } catch (NumberFormatException ex) {
+                    throw new IncorrectRangeException("Incorrect weight in the part of the range: " + part);
+                }
+                if (weight < 0 || weight > 1) {
+                    throw new IncorrectRangeException("Weight must be in [0; 1], but was given: " + part);
+                }
+                part = part.substring(0, weightPos).trim();
+            }
+            range.addPart(part, weight);
+        }
+        return range;
+    }
+
+    /**
+     * Adds all the combos of the single part of the range notation (without weight).
+     */
+    private void addPart(String part, double weight) throws IncorrectRangeException {
+        if (part.length() == 4 && isSuit(part.charAt(1)) && isSuit(part.charAt(3))) {
+            addExactCombo(part, weight);
+            return;
+        }
+
+        if (part.endsWith("+")) {
+            HandClass handClass = parseHandClass(part.substring(0, part.length() - 1), part);
+            if (handClass.isPair()) {
+                addInterval(handClass, new HandClass(Card.RANKS_AMOUNT - 1, Card.RANKS_AMOUNT - 1, handClass.suitedness), weight);
+            } else {
+                addInterval(handClass, new HandClass(handClass.high, handClass.high - 1, handClass.suitedness), weight);
+            }
+            return;
+        }
+
+        int dash = part.indexOf('-');
+        if (dash >= 0) {
+            HandClass from = parseHandClass(part.substring(0, dash).trim(), part);
+            HandClass to = parseHandClass(part.substring(dash + 1).trim(), part);
+            if (from.isPair() != to.isPair() || from.suitedness != to.suitedness ||
+                    (!from.isPair() && from.high != to.high)) {
+                throw new IncorrectRangeException("Bounds of the interval must be of the same kind: " + part);
+            }
+            addInterval(from, to, weight);
+            return;
+        }
+
+        HandClass handClass = parseHandClass(part, part);
+        addInterval(handClass, handClass, weight);
+    }
+
+    private void addExactCombo(String part, double weight) throws IncorrectRangeException {
+        try {
+            Card c1 = Card.parse(part.charAt(0), part.charAt(1));
+            Card c2 = Card.parse(part.charAt(2), part.charAt(3));
+            if (c1 == c2) {
+                throw new IncorrectRangeException("Combo must consist of 2 different cards: " + part);
+            }
+            setWeight(comboIndex(c1.getIndex(), c2.getIndex()), weight);
+        } catch (IncorrectCardException ex) {
+            throw new IncorrectRangeException("Incorrect combo in range: " + part);
+        }
+    }
+
+    /**
+     * Adds all the hand classes between the given ones (both inclusive).
+     * For pairs both ranks change, for other hands only the lower rank changes.
+     */
+    private void addInterval(HandClass from, HandClass to, double weight) {
+        int lowFrom = Math.min(from.low, to.low);
+        int lowTo = Math.max(from.low, to.low);
+        for (int low = lowFrom; low <= lowTo; ++low) {
+            int high = from.isPair() ? low : from.high;
+            addHandClass(high, low, from.suitedness, weight);
+        }
+    }
+
+    /**
+     * Adds all the combos of the hand class with given ranks.
+     *
+     * @param suitedness 's' for suited, 'o' for offsuit, any other char for both
+     */
+    private void addHandClass(int high, int low, char suitedness, double weight) {
+        for (int s1 = 0; s1 < 4; ++s1) {
+            for (int s2 = 0; s2 < 4; ++s2) {
+                boolean suited = s1 == s2;
+                if (high == low && s1 >= s2) {
+                    continue;
+                }
+                if ((suitedness == 's' && !suited) || (suitedness == 'o' && suited)) {
+                    continue;
+                }
+                setWeight(comboIndex(s1 * Card.RANKS_AMOUNT + high, s2 * Card.RANKS_AMOUNT + low), weight);
+            }
+        }
+    }
+
+    private static HandClass parseHandClass(String handRep, String part) throws IncorrectRangeException {
+        if (handRep.length() < 2 || handRep.length() > 3) {
+            throw new IncorrectRangeException("Incorrect part of the range: " + part);
+        }
+        int r1 = parseRank(handRep.charAt(0));
+        int r2 = parseRank(handRep.charAt(1));
+        if (r1 < 0 || r2 < 0) {
+            throw new IncorrectRangeException("Incorrect ranks in the part of the range: " + part);
+        }
+        char suitedness = handRep.length() == 3 ? Character.toLowerCase(handRep.charAt(2)) : ' ';
+        if (handRep.length() == 3 && !isSuitedness(suitedness)) {
+            throw new IncorrectRangeException("Hand can only be suited (s) or offsuit (o): " + part);
+        }
+        if (r1 == r2 && suitedness != ' ') {
+            throw new IncorrectRangeException("Pair can not be suited or offsuit: " + part);
+        }
+        return new HandClass(Math.max(r1, r2), Math.min(r1, r2), suitedness);
+    }
+
+    private static boolean isSuit(char c) {
+        return "shdcSHDC".indexOf(c) >= 0;
+    }
+
+    private static boolean isSuitedness(char c) {
+        return c == 's' || c == 'o' || c == 'S' || c == 'O';
+    }
+
+    private static int parseRank(char c) {
+        return RANK_CHARS.indexOf(Character.toUpperCase(c));
+    }
+
+    /**
+     * Hand class like AKs, TT or 72o - 2 ranks and suitedness.
+     */
+    private record HandClass(int high, int low, char suitedness) {
+        boolean isPair() {
+            return high == low;
+        }
+    }
+
+    /**
+     * Ranges are considered equal if they contain same combos with same weights.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || obj.getClass() != HandRange.class) {
+            return false;
+        }
+        HandRange range = (HandRange) obj;
+        return Arrays.equals(combos, range.combos) && Arrays.equals(weights, range.weights);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(combos);
+    }
+
+    /**
+     * @return string representation like: (HandRange| Combos: c, Total weight: w)
+     */
+    @Override
+    public String toString() {
+        return "(HandRange| Combos: " + size() + ", Total weight: " + getTotalWeight() + ")";
+    }
+}
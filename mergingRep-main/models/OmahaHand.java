@@ -0,0 +1,139 @@
+package models;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import exceptions.IncorrectCardException;
+import exceptions.IncorrectHandException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Class that represents hand of the player in Pot-Limit Omaha (4 unique cards)
+ */
+public class OmahaHand {
+    public static final int CARDS_AMOUNT = 4;
+
+    private final ArrayList<Card> cards = new ArrayList<>();
+    private final long cardsMask;
+
+    /**
+     * Constructs new OmahaHand with 4 given cards (they must be unique)
+     * @throws IncorrectHandException if amount of cards is not 4 or cards are not unique
+     */
+    public OmahaHand(Card... cards) throws IncorrectHandException {
+        this(List.of(cards));
+    }
+
+    /**
+     * Constructs new OmahaHand with the given cards (there must be 4 unique cards)
+     * @throws IncorrectHandException if amount of cards is not 4 or cards are not unique
+     */
+    @JsonCreator
+    public OmahaHand(@JsonProperty("cards") List<Card> cards) throws IncorrectHandException {
+        if (cards.size() != CARDS_AMOUNT) {
+            throw new IncorrectHandException("Omaha hand must consist of " + CARDS_AMOUNT + " cards, but was: " + cards);
+        }
+        long mask = 0;
+        for (Card card : cards) {
+            mask |= CardSet.maskOf(card);
+        }
+        if (Long.bitCount(mask) != CARDS_AMOUNT) {
+            throw new IncorrectHandException("Cards must be unique, but was: " + cards);
+        }
+        this.cards.addAll(cards);
+        this.cardsMask = mask;
+    }
+
+    /**
+     * Constructs new OmahaHand using 4 String representations of cards.
+     * @throws IncorrectCardException If any card representation is incorrect
+     * @throws IncorrectHandException if amount of cards is not 4 or cards are not unique
+     */
+    public OmahaHand(String... cardReps) throws IncorrectCardException, IncorrectHandException {
+        this(parseCards(cardReps));
+    }
+
+    /**
+     * Constructs new OmahaHand with the same cards as the OmahaHand given as a parameter
+     */
+    public OmahaHand(OmahaHand another) {
+        this.cards.addAll(another.cards);
+        this.cardsMask = another.cardsMask;
+    }
+
+    private static List<Card> parseCards(String[] cardReps) throws IncorrectCardException {
+        ArrayList<Card> cards = new ArrayList<>();
+        for (String rep : cardReps) {
+            cards.add(Card.parse(rep));
+        }
+        return cards;
+    }
+
+    /**
+     * @return card with given index (from 0 to 3)
+     */
+    public Card get(int index) {
+        return cards.get(index);
+    }
+
+    /**
+     * @return copy of the list of cards in this hand
+     */
+    public List<Card> getCards() {
+        return Collections.unmodifiableList(cards);
+    }
+
+    /**
+     * @return set of 4 cards in this hand (does not copy anything but the mask).
+     */
+    @JsonIgnore
+    public CardSet getCardSet() {
+        return CardSet.of(cardsMask);
+    }
+
+    /**
+     * @return mask of 4 cards in this hand (see {@link CardSet})
+     */
+    @JsonIgnore
+    public long getCardsMask() {
+        return cardsMask;
+    }
+
+    /**
+     * OmahaHand is equal to another object only if it is another OmahaHand
+     * Hands are considered equal if they consist of the same cards (order does not matter).
+     * @return true if the objects are equal, false otherwise
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || obj.getClass() != OmahaHand.class) {
+            return false;
+        }
+        return cardsMask == ((OmahaHand) obj).cardsMask;
+    }
+
+    /**
+     * Counts the hash function by the mask of the cards (order of cards does not matter).
+     * @return hashCode of this object
+     */
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cardsMask);
+    }
+
+    /**
+     * Returns string representation of the hand as following:
+     * [a b c d], where a, b, c and d are cards that the hand is composed of.
+     * @return string representation of hand
+     */
+    @Override
+    public String toString() {
+        return "[" + cards.get(0) + " " + cards.get(1) + " " + cards.get(2) + " " + cards.get(3) + "]";
+    }
+}
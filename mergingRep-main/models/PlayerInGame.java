@@ -1,9 +1,9 @@
 package models;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
-import java.text.DecimalFormat;
 import java.util.Objects;
 
 /**
@@ -17,7 +17,8 @@ public class PlayerInGame {
     private final String id;
     private PositionType positionType;
     private UserProfile ref;
-    private double balance$;
+    // Balance in cents (see Cents)
+    private long balanceCents;
     private Hand hand;
 
     /**
@@ -42,13 +43,25 @@ public class PlayerInGame {
     @JsonCreator
     public PlayerInGame(@JsonProperty("id)") String id, @JsonProperty("position") PositionType position,
                         @JsonProperty("balance") double balance, @JsonProperty("ref") UserProfile ref) {
+        this(id, position, Cents.of(balance), ref);
+    }
+
+    private PlayerInGame(String id, PositionType position, long balanceCents, UserProfile ref) {
         this.id = id;
         this.positionType = position;
-        this.balance$ = balance;
+        this.balanceCents = balanceCents;
         // Do not construct new UserProfile
         this.ref = ref;
     }
 
+    /**
+     * Constructs new PlayerInGame with given hash, position in the table
+     * and balance in cents.
+     */
+    public static PlayerInGame ofCents(String id, PositionType position, long balanceCents) {
+        return new PlayerInGame(id, position, balanceCents, null);
+    }
+
     /**
      * Constructs new PlayerInGame, copying all the fields of the given PlayerInGame
      * @param copyPlayer Player, whose fields are going to be copied.
@@ -56,7 +69,7 @@ public class PlayerInGame {
     public PlayerInGame(PlayerInGame copyPlayer) {
         this.id = copyPlayer.id;
         this.positionType = copyPlayer.positionType;
-        this.balance$ = copyPlayer.balance$;
+        this.balanceCents = copyPlayer.balanceCents;
         this.ref = copyPlayer.ref;
         if (copyPlayer.hand != null) {
             this.hand = new Hand(copyPlayer.hand);
@@ -113,7 +126,7 @@ public class PlayerInGame {
      * @return balance of this player in dollars
      */
     public double getBalance() {
-        return balance$;
+        return Cents.toDollars(balanceCents);
     }
 
     /**
@@ -121,7 +134,23 @@ public class PlayerInGame {
      * @param balance balance of that player in dollars
      */
     public void setBalance(double balance) {
-        this.balance$ = balance;
+        this.balanceCents = Cents.of(balance);
+    }
+
+    /**
+     * @return balance of this player in cents
+     */
+    @JsonIgnore
+    public long getBalanceCents() {
+        return balanceCents;
+    }
+
+    /**
+     * Sets balance of that player
+     * @param balanceCents balance of that player in cents
+     */
+    public void setBalanceCents(long balanceCents) {
+        this.balanceCents = balanceCents;
     }
 
     /**
@@ -188,9 +217,7 @@ public class PlayerInGame {
         } else {
             rep += "_UNDEFINED_";
         }
-        String balanceStr = new DecimalFormat("#0.00").format(balance$);
-        balanceStr = balanceStr.replace(',', '.');
-        rep += ", Id: " + id + ", Pos: " + positionType + ", Balance: " + balanceStr + ")";
+        rep += ", Id: " + id + ", Pos: " + positionType + ", Balance: " + Cents.format(balanceCents) + ")";
         return rep;
     }
 }
@@ -1,6 +1,7 @@
 package models;
 
-import java.text.DecimalFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.util.*;
 
 import static models.PositionType.*;
@@ -10,7 +11,8 @@ import static models.PositionType.*;
  * cards that came.
  */
 public class StreetDescription {
-    private double potAfterBetting;
+    // Pot in cents (see Cents)
+    private long potAfterBettingCents;
     // Will be null for Pre-flop
     private Board board;
     private HashMap<PositionType, PlayerInGame> playersAfterBetting = new HashMap<>();
@@ -25,7 +27,11 @@ public class StreetDescription {
      * @param allActions all actions of all players that took place during this StreetDescription
      */
     public StreetDescription(double potAfterBetting, Board board, Collection<PlayerInGame> playersAfterBetting, ArrayList<Action> allActions) {
-        this.potAfterBetting = potAfterBetting;
+        this(Cents.of(potAfterBetting), board, playersAfterBetting, allActions);
+    }
+
+    private StreetDescription(long potAfterBettingCents, Board board, Collection<PlayerInGame> playersAfterBetting, ArrayList<Action> allActions) {
+        this.potAfterBettingCents = potAfterBettingCents;
         if (board != null) {
             this.board = new Board(board);
         } else {
@@ -39,12 +45,23 @@ public class StreetDescription {
         this.allActions = new ArrayList<>(allActions);
     }
 
+    /**
+     * Constructs a StreetDescription with given parameters
+     * @param potAfterBettingCents pot size after betting in cents
+     * @param board board of given StreetDescription
+     * @param playersAfterBetting players who did not fold after betting
+     * @param allActions all actions of all players that took place during this StreetDescription
+     */
+    public static StreetDescription ofCents(long potAfterBettingCents, Board board, Collection<PlayerInGame> playersAfterBetting, ArrayList<Action> allActions) {
+        return new StreetDescription(potAfterBettingCents, board, playersAfterBetting, allActions);
+    }
+
     /**
      * Constructs a new StreetDescription by copying values of all the fields of give StreetDescription
      * @param strCopy given StreetDescription
      */
     public StreetDescription(StreetDescription strCopy) {
-        this.potAfterBetting = strCopy.potAfterBetting;
+        this.potAfterBettingCents = strCopy.potAfterBettingCents;
 
         this.playersAfterBetting = new HashMap<>();
         for (PlayerInGame p : strCopy.getPlayersAfterBetting()) {
@@ -117,15 +134,25 @@ public class StreetDescription {
      * @param decrAmount amount that will be subtracted from the balance of acting player
      */
     public void addActionAndUpdateBalances(Action action, double decrAmount) {
-        if (decrAmount < 0) {
+        addActionAndUpdateBalancesCents(action, Cents.of(decrAmount));
+    }
+
+    /**
+     * Adds action to the action list of the street description and changes the balance of the given player.
+     *
+     * @param action action to add
+     * @param decrCents amount in cents that will be subtracted from the balance of acting player
+     */
+    public void addActionAndUpdateBalancesCents(Action action, long decrCents) {
+        if (decrCents < 0) {
             throw new IllegalArgumentException("decrement amount can not be less than 0.");
         }
         for (PlayerInGame p : playersAfterBetting.values()) {
             if (p.getId().equals(action.getPlayerId())) {
-                if (decrAmount - p.getBalance() > 0.01) {
+                if (decrCents > p.getBalanceCents()) {
                     throw new IllegalArgumentException("decrement amount can not be less than player balance");
                 }
-                p.setBalance(p.getBalance() - decrAmount);
+                p.setBalanceCents(p.getBalanceCents() - decrCents);
             }
         }
         addAction(action);
@@ -137,16 +164,25 @@ public class StreetDescription {
      * @param returnedAmount amount of returned money in dollars
      */
     public void returnUncalledChips(String id, double returnedAmount) {
-        if (returnedAmount < 0) {
+        returnUncalledChipsCents(id, Cents.of(returnedAmount));
+    }
+
+    /**
+     * returns amount of uncalled bet to the players balance
+     * @param id id of the player that needs a return
+     * @param returnedCents amount of returned money in cents
+     */
+    public void returnUncalledChipsCents(String id, long returnedCents) {
+        if (returnedCents < 0) {
             throw new IllegalArgumentException("returned amount can not be less than 0.");
         }
         for (PlayerInGame p : playersAfterBetting.values()) {
             if (p.getId().equals(id)) {
-                p.setBalance(p.getBalance() + returnedAmount);
+                p.setBalanceCents(p.getBalanceCents() + returnedCents);
             }
         }
 
-        potAfterBetting -= returnedAmount;
+        potAfterBettingCents -= returnedCents;
     }
 
     /**
@@ -201,7 +237,7 @@ public class StreetDescription {
      * @return pot after all the actions
      */
     public double getPotAfterBetting() {
-        return potAfterBetting;
+        return Cents.toDollars(potAfterBettingCents);
     }
 
     /**
@@ -209,7 +245,23 @@ public class StreetDescription {
      * @param potAfterBetting pot to set
      */
     public void setPotAfterBetting(double potAfterBetting) {
-        this.potAfterBetting = potAfterBetting;
+        this.potAfterBettingCents = Cents.of(potAfterBetting);
+    }
+
+    /**
+     * @return pot after all the actions in cents
+     */
+    @JsonIgnore
+    public long getPotAfterBettingCents() {
+        return potAfterBettingCents;
+    }
+
+    /**
+     * Sets potAfterBetting
+     * @param potAfterBettingCents pot to set in cents
+     */
+    public void setPotAfterBettingCents(long potAfterBettingCents) {
+        this.potAfterBettingCents = potAfterBettingCents;
     }
 
     /**
@@ -273,7 +325,7 @@ public class StreetDescription {
             if (this.board == null && st.board != null) {
                 return false;
             }
-            return Math.abs(this.potAfterBetting - st.potAfterBetting) < 0.01 &&
+            return this.potAfterBettingCents == st.potAfterBettingCents &&
                     this.allActions.equals(st.allActions) &&
                     this.playersAfterBetting.equals((st.playersAfterBetting)) &&
                     ((this.board == null && st.board == null) || this.board.equals(st.board));
@@ -286,7 +338,7 @@ public class StreetDescription {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(potAfterBetting, board, playersAfterBetting, allActions);
+        return Objects.hash(potAfterBettingCents, board, playersAfterBetting, allActions);
     }
 
     /**
@@ -304,10 +356,8 @@ public class StreetDescription {
             }
         }
 
-        DecimalFormat dcf = new DecimalFormat("##0.00");
-        String dRep = dcf.format(potAfterBetting);
         return "(StreetDescription| Board: " + board +
-                ", pot after betting: " + dRep.replace(',', '.') +
+                ", pot after betting: " + Cents.format(potAfterBettingCents) +
                 ", Players after betting: " + orderedPlayers +
                 ",\n Actions: " + allActions;
     }
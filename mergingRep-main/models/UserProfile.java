@@ -58,7 +58,7 @@ public class UserProfile {
         for (Game g : gameSet.values()) {
             if (g.getPlayer(playerRepresenation.getId()) != null) {
                 // 86 400 000 is amount of milliseconds in 1 day.
-                if (Math.abs(g.getDate().getTime() - game.getDate().getTime()) < 86400000) {
+                if (Math.abs(g.getDateMillis() - game.getDateMillis()) < 86400000) {
                     this.allGamesIds.add(g.getGameId());
                     this.gameIdPlayerHashMap.put(g.getGameId(), playerRepresenation.getId());
                 }
@@ -3,6 +3,7 @@ module psa.app.psawindowapp {
     requires javafx.fxml;
     requires javafx.web;
     requires com.fasterxml.jackson.databind;
+    requires static jdk.incubator.vector;
 
     requires org.controlsfx.controls;
     requires org.kordamp.ikonli.javafx;
@@ -0,0 +1,50 @@
+package parsers;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Writing of the files, that are replaced at once, so they are never half-written
+ * (even if the app is closed while the file is being written).
+ */
+public final class AtomicFiles {
+    private AtomicFiles() {
+    }
+
+    /**
+     * Writer of the content of the file.
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+        /**
+         * Writes the whole content of the file to the stream.
+         *
+         * @throws IOException if the content could not be written
+         */
+        void write(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Writes the content to the temporary file next to the file and then moves it in place of the file.
+     *
+     * @param path    path of the file
+     * @param content writer of the content
+     * @throws IOException if the file could not be written
+     */
+    public static void write(Path path, ContentWriter content) throws IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+            content.write(out);
+        }
+        try {
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
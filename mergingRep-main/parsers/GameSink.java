@@ -0,0 +1,19 @@
+package parsers;
+
+import models.Game;
+
+import java.io.IOException;
+
+/**
+ * Consumer of the games, that are passed to it one by one as soon as they are parsed
+ * (so the games of the whole file or directory are never kept together).
+ */
+@FunctionalInterface
+public interface GameSink {
+    /**
+     * Accepts the next parsed game.
+     *
+     * @throws IOException if the game could not be stored
+     */
+    void accept(Game game) throws IOException;
+}
@@ -0,0 +1,267 @@
+package parsers;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+
+/**
+ * Index of the ids of the games, that were already imported, so they could be skipped
+ * by reading just the id from the header of the game (without parsing the game).
+ * <p>
+ * Ids are checked right in the text (no strings are created): Bloom filter answers "surely unknown"
+ * for most of the new games, and the exact table of the ids (open addressing) is checked only
+ * when the filter says "maybe known". Index could be saved to a file and loaded back.
+ * <p>
+ * Index is not thread-safe.
+ */
+public class KnownGamesIndex {
+    private static final int FORMAT_VERSION = 1;
+    private static final int BITS_PER_ID = 10;
+    // With 10 bits per id, 7 hashes give about 1% of false positives.
+    private static final int HASHES_AMOUNT = 7;
+    private static final int MIN_TABLE_SIZE = 1 << 10;
+
+    /**
+     * Table of the ids. Its size is a power of two, and it is at most half full.
+     */
+    private String[] ids;
+    private long[] bloom;
+    private int size;
+
+    /**
+     * Constructs an empty index.
+     */
+    public KnownGamesIndex() {
+        this(MIN_TABLE_SIZE);
+    }
+
+    private KnownGamesIndex(int tableSize) {
+        this.ids = new String[tableSize];
+        this.bloom = new long[bloomWords(tableSize)];
+    }
+
+    /**
+     * @return index containing the given ids
+     */
+    public static KnownGamesIndex of(Collection<String> gameIds) {
+        int tableSize = MIN_TABLE_SIZE;
+        while (tableSize / 2 < gameIds.size()) {
+            tableSize *= 2;
+        }
+        KnownGamesIndex index = new KnownGamesIndex(tableSize);
+        for (String id : gameIds) {
+            index.add(id);
+        }
+        return index;
+    }
+
+    /**
+     * @return amount of ids in the index
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if the id is in the index
+     */
+    public boolean contains(String gameId) {
+        return contains(gameId, 0, gameId.length());
+    }
+
+    /**
+     * Checks the id, that is the part of the text, without creating a string.
+     *
+     * @param text text, containing the id
+     * @param from index of the first char of the id
+     * @param to   index after the last char of the id
+     * @return true if the id is in the index
+     */
+    public boolean contains(CharSequence text, int from, int to) {
+        long hash = hash(text, from, to);
+        return mightContain(hash) && find(text, from, to, hash) >= 0;
+    }
+
+    /**
+     * Adds the id to the index.
+     *
+     * @return true if the id was added, false if it was already in the index
+     */
+    public boolean add(String gameId) {
+        if (gameId == null) {
+            throw new IllegalArgumentException("gameId can not be null");
+        }
+        long hash = hash(gameId, 0, gameId.length());
+        if (find(gameId, 0, gameId.length(), hash) >= 0) {
+            return false;
+        }
+        if (size + 1 > ids.length / 2) {
+            grow();
+        }
+        insert(gameId, hash);
+        ++size;
+        return true;
+    }
+
+    /**
+     * Saves the index to the file (file is replaced at once, so it is never half-written).
+     *
+     * @param path path of the file
+     * @throws IOException if the file could not be written
+     */
+    public void save(Path path) throws IOException {
+        AtomicFiles.write(path, stream -> {
+            DataOutputStream out = new DataOutputStream(stream);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(ids.length);
+            for (long word : bloom) {
+                out.writeLong(word);
+            }
+            out.writeInt(size);
+            for (String id : ids) {
+                if (id != null) {
+                    out.writeUTF(id);
+                }
+            }
+            out.flush();
+        });
+    }
+
+    /**
+     * Loads the index saved by {@link #save(Path)}.
+     *
+     * @param path path of the file
+     * @return loaded index, or an empty index if there is no such file
+     * @throws IOException if the file could not be read or is not an index
+     */
+    public static KnownGamesIndex load(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return new KnownGamesIndex();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                throw new IOException("File " + path + " is not an index of known games of supported version");
+            }
+            int tableSize = in.readInt();
+            if (tableSize < MIN_TABLE_SIZE || Integer.bitCount(tableSize) != 1) {
+                throw new IOException("File " + path + " is corrupted: incorrect table size " + tableSize);
+            }
+            KnownGamesIndex index = new KnownGamesIndex(tableSize);
+            for (int i = 0; i < index.bloom.length; ++i) {
+                index.bloom[i] = in.readLong();
+            }
+            int size = in.readInt();
+            if (size < 0 || size > tableSize / 2) {
+                throw new IOException("File " + path + " is corrupted: incorrect amount of ids " + size);
+            }
+            for (int i = 0; i < size; ++i) {
+                String id = in.readUTF();
+                index.ids[index.freeSlot(id, hash(id, 0, id.length()))] = id;
+            }
+            index.size = size;
+            return index;
+        }
+    }
+
+    private void grow() {
+        String[] oldIds = ids;
+        ids = new String[oldIds.length * 2];
+        bloom = new long[bloomWords(ids.length)];
+        for (String id : oldIds) {
+            if (id != null) {
+                insert(id, hash(id, 0, id.length()));
+            }
+        }
+    }
+
+    private void insert(String id, long hash) {
+        ids[freeSlot(id, hash)] = id;
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        long bits = (long) bloom.length * Long.SIZE;
+        for (int i = 0; i < HASHES_AMOUNT; ++i) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % bits;
+            bloom[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    private boolean mightContain(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        long bits = (long) bloom.length * Long.SIZE;
+        for (int i = 0; i < HASHES_AMOUNT; ++i) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % bits;
+            if ((bloom[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int freeSlot(String id, long hash) {
+        int mask = ids.length - 1;
+        int slot = (int) hash & mask;
+        while (ids[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * @return slot of the id in the table, or -1 if there is no such id
+     */
+    private int find(CharSequence text, int from, int to, long hash) {
+        int mask = ids.length - 1;
+        int slot = (int) hash & mask;
+        while (ids[slot] != null) {
+            if (regionEquals(ids[slot], text, from, to)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private static boolean regionEquals(String id, CharSequence text, int from, int to) {
+        if (id.length() != to - from) {
+            return false;
+        }
+        for (int i = 0; i < id.length(); ++i) {
+            if (id.charAt(i) != text.charAt(from + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * FNV-1a hash of the chars, mixed by the finalizer of MurmurHash3, so every bit depends on all the chars.
+     */
+    private static long hash(CharSequence text, int from, int to) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = from; i < to; ++i) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static int bloomWords(int tableSize) {
+        // Table is at most half full, so it has tableSize / 2 ids at most.
+        return Math.max(1, tableSize / 2 * BITS_PER_ID / Long.SIZE);
+    }
+
+    /**
+     * @return string representation like: (KnownGamesIndex| Size: 123)
+     */
+    @Override
+    public String toString() {
+        return "(KnownGamesIndex| Size: " + size + ")";
+    }
+}
@@ -0,0 +1,52 @@
+package parsers;
+
+/**
+ * Information about one game, that could not be parsed and was skipped: file, position of the game
+ * in the file and the exception, that was thrown while parsing it. Game could be parsed again
+ * by its offset (see {@link parsers.gg.GGParser#parseGameAt(String, long)}).
+ */
+public final class ParsingError {
+    private final String path;
+    private final long byteOffset;
+    private final Exception cause;
+
+    /**
+     * @param path       path of the file with the game
+     * @param byteOffset offset of the first byte of the game in the file
+     * @param cause      exception, that was thrown while parsing the game
+     */
+    public ParsingError(String path, long byteOffset, Exception cause) {
+        this.path = path;
+        this.byteOffset = byteOffset;
+        this.cause = cause;
+    }
+
+    /**
+     * @return path of the file with the game
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return offset of the first byte of the game in the file
+     */
+    public long getByteOffset() {
+        return byteOffset;
+    }
+
+    /**
+     * @return exception, that was thrown while parsing the game
+     */
+    public Exception getCause() {
+        return cause;
+    }
+
+    /**
+     * @return string representation like: (ParsingError| File: path, Byte offset: 123, Cause: ...)
+     */
+    @Override
+    public String toString() {
+        return "(ParsingError| File: " + path + ", Byte offset: " + byteOffset + ", Cause: " + cause + ")";
+    }
+}
@@ -0,0 +1,17 @@
+package parsers;
+
+import java.io.IOException;
+
+/**
+ * Consumer of the errors of the games, that could not be parsed and were skipped
+ * (so one bad game does not stop parsing of the whole file).
+ */
+@FunctionalInterface
+public interface ParsingErrorSink {
+    /**
+     * Accepts the error of the next skipped game.
+     *
+     * @throws IOException if the error could not be stored
+     */
+    void accept(ParsingError error) throws IOException;
+}
@@ -0,0 +1,305 @@
+package parsers;
+
+import java.util.Arrays;
+
+/**
+ * Cursor over the lines and words of a text, that does not create a String for every line or word.
+ * <p>
+ * Text is split into lines once (only offsets of the lines are kept), words of the current line
+ * are split again every time the cursor moves to another line. Words are separated by single spaces,
+ * like with {@code line.split(" ")}. Words are accessed by their index in the current line, and only
+ * the words that are really needed as strings (like ids of players) are materialized.
+ * <p>
+ * Cursor could be reset to another text, so one cursor serves all the games parsed by one parser
+ * (it is not thread-safe).
+ */
+public class TextCursor {
+    private static final int INITIAL_CAPACITY = 64;
+    /**
+     * Amounts of cents with more digits could overflow a long.
+     */
+    private static final int MAX_CENTS_DIGITS = 18;
+
+    private CharSequence text = "";
+    private int[] lineStarts = new int[INITIAL_CAPACITY];
+    private int[] lineEnds = new int[INITIAL_CAPACITY];
+    private int linesAmount;
+    private int line;
+
+    private int[] wordStarts = new int[INITIAL_CAPACITY];
+    private int[] wordEnds = new int[INITIAL_CAPACITY];
+    private int wordsAmount;
+
+    /**
+     * Sets the cursor to the first line of the whole text.
+     */
+    public void reset(CharSequence text) {
+        reset(text, 0, text.length());
+    }
+
+    /**
+     * Sets the cursor to the first line of the part of the text.
+     *
+     * @param text  text to iterate over
+     * @param start index of the first char of the part
+     * @param end   index after the last char of the part
+     * @throws IndexOutOfBoundsException if the part is not inside the text
+     */
+    public void reset(CharSequence text, int start, int end) {
+        if (start < 0 || end > text.length() || start > end) {
+            throw new IndexOutOfBoundsException("Part [" + start + ", " + end + ") is out of the text of length " + text.length());
+        }
+        this.text = text;
+        linesAmount = 0;
+        int lineStart = start;
+        for (int i = start; i < end; ++i) {
+            if (text.charAt(i) == '\n') {
+                addLine(lineStart, i);
+                lineStart = i + 1;
+            }
+        }
+        if (lineStart < end) {
+            addLine(lineStart, end);
+        }
+        setLine(0);
+    }
+
+    private void addLine(int start, int end) {
+        if (linesAmount == lineStarts.length) {
+            lineStarts = Arrays.copyOf(lineStarts, linesAmount * 2);
+            lineEnds = Arrays.copyOf(lineEnds, linesAmount * 2);
+        }
+        if (end > start && text.charAt(end - 1) == '\r') {
+            --end;
+        }
+        lineStarts[linesAmount] = start;
+        lineEnds[linesAmount] = end;
+        ++linesAmount;
+    }
+
+    /**
+     * @return amount of lines in the text
+     */
+    public int getLinesAmount() {
+        return linesAmount;
+    }
+
+    /**
+     * @return index of the current line
+     */
+    public int getLine() {
+        return line;
+    }
+
+    /**
+     * Moves the cursor to the line with given index and splits it into words.
+     *
+     * @throws IndexOutOfBoundsException if there is no line with such index
+     */
+    public void setLine(int line) {
+        if (line < 0 || line > linesAmount || (line == linesAmount && linesAmount != 0)) {
+            throw new IndexOutOfBoundsException("Line " + line + " is out of the text with " + linesAmount + " lines");
+        }
+        this.line = line;
+        splitWords();
+    }
+
+    /**
+     * Moves the cursor to the next line.
+     *
+     * @throws IndexOutOfBoundsException if the current line is the last one
+     */
+    public void nextLine() {
+        setLine(line + 1);
+    }
+
+    private void splitWords() {
+        wordsAmount = 0;
+        if (linesAmount == 0) {
+            return;
+        }
+        int start = lineStarts[line];
+        int end = lineEnds[line];
+        int wordStart = start;
+        for (int i = start; i <= end; ++i) {
+            if (i == end || text.charAt(i) == ' ') {
+                if (wordsAmount == wordStarts.length) {
+                    wordStarts = Arrays.copyOf(wordStarts, wordsAmount * 2);
+                    wordEnds = Arrays.copyOf(wordEnds, wordsAmount * 2);
+                }
+                wordStarts[wordsAmount] = wordStart;
+                wordEnds[wordsAmount] = i;
+                ++wordsAmount;
+                wordStart = i + 1;
+            }
+        }
+        // Like String.split, trailing empty words are dropped, but an empty line still has one empty word.
+        while (wordsAmount > 1 && wordStarts[wordsAmount - 1] == wordEnds[wordsAmount - 1]) {
+            --wordsAmount;
+        }
+    }
+
+    /**
+     * @return amount of words in the current line
+     */
+    public int getWordsAmount() {
+        return wordsAmount;
+    }
+
+    /**
+     * @return length of the word of the current line
+     * @throws IndexOutOfBoundsException if there is no word with such index
+     */
+    public int wordLength(int word) {
+        checkWord(word);
+        return wordEnds[word] - wordStarts[word];
+    }
+
+    /**
+     * @return char of the word of the current line
+     * @throws IndexOutOfBoundsException if there is no word or char with such index
+     */
+    public char charAt(int word, int index) {
+        if (index < 0 || index >= wordLength(word)) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of the word " + word(word));
+        }
+        return text.charAt(wordStarts[word] + index);
+    }
+
+    /**
+     * @return index of the first occurrence of the char in the word of the current line, or -1 if there is none
+     * @throws IndexOutOfBoundsException if there is no word with such index
+     */
+    public int indexOf(int word, char c) {
+        checkWord(word);
+        for (int i = wordStarts[word]; i < wordEnds[word]; ++i) {
+            if (text.charAt(i) == c) {
+                return i - wordStarts[word];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return true if the current line has the word with such index, and it is equal to the given string
+     */
+    public boolean wordEquals(int word, String str) {
+        return word < wordsAmount && wordLength(word) == str.length() && regionEquals(word, 0, str);
+    }
+
+    /**
+     * @return true if the current line has the word with such index, and its part
+     * from given index to given index (exclusive) is equal to the given string
+     */
+    public boolean wordEquals(int word, int from, int to, String str) {
+        return word < wordsAmount && to - from == str.length() && to <= wordLength(word) && regionEquals(word, from, str);
+    }
+
+    /**
+     * @return true if the current line has the word with such index, and its last char is the given one
+     */
+    public boolean endsWith(int word, char c) {
+        return word < wordsAmount && wordEnds[word] > wordStarts[word] && text.charAt(wordEnds[word] - 1) == c;
+    }
+
+    private boolean regionEquals(int word, int from, String str) {
+        int offset = wordStarts[word] + from;
+        for (int i = 0; i < str.length(); ++i) {
+            if (text.charAt(offset + i) != str.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the word of the current line as a new String
+     * @throws IndexOutOfBoundsException if there is no word with such index
+     */
+    public String word(int word) {
+        return word(word, 0, wordLength(word));
+    }
+
+    /**
+     * @return part of the word of the current line from given index to given index (exclusive) as a new String
+     * @throws IndexOutOfBoundsException if there is no word with such index or the part is out of the word
+     */
+    public String word(int word, int from, int to) {
+        checkPart(word, from, to);
+        return text.subSequence(wordStarts[word] + from, wordStarts[word] + to).toString();
+    }
+
+    /**
+     * Parses part of the word of the current line as a non-negative amount of money like "1,234.56"
+     * (commas are skipped) into exact amount of cents without creating any strings.
+     * Digits after the second fractional one are rounded (half up).
+     *
+     * @return parsed amount of cents
+     * @throws NumberFormatException     if the part is not a decimal number
+     * @throws IndexOutOfBoundsException if there is no word with such index or the part is out of the word
+     */
+    public long parseCents(int word, int from, int to) {
+        checkPart(word, from, to);
+        long cents = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        boolean roundUp = false;
+        for (int i = wordStarts[word] + from; i < wordStarts[word] + to; ++i) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                ++digits;
+                if (fractionDigits < 2) {
+                    cents = cents * 10 + (c - '0');
+                    if (fractionDigits >= 0) {
+                        ++fractionDigits;
+                    }
+                } else if (fractionDigits++ == 2) {
+                    roundUp = c >= '5';
+                }
+            } else if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else if (c != ',') {
+                throw new NumberFormatException("Incorrect decimal number: " + word(word, from, to));
+            }
+        }
+        if (digits == 0 || digits - Math.max(fractionDigits, 0) + 2 > MAX_CENTS_DIGITS) {
+            throw new NumberFormatException("Incorrect decimal number: " + word(word, from, to));
+        }
+        for (int i = Math.max(fractionDigits, 0); i < 2; ++i) {
+            cents *= 10;
+        }
+        return roundUp ? cents + 1 : cents;
+    }
+
+    /**
+     * @return the current line as a new String (for error messages)
+     */
+    public String lineString() {
+        if (linesAmount == 0) {
+            return "";
+        }
+        return text.subSequence(lineStarts[line], lineEnds[line]).toString();
+    }
+
+    private void checkWord(int word) {
+        if (word < 0 || word >= wordsAmount) {
+            throw new IndexOutOfBoundsException("Word " + word + " is out of the line: " + lineString());
+        }
+    }
+
+    private void checkPart(int word, int from, int to) {
+        checkWord(word);
+        if (from < 0 || to > wordEnds[word] - wordStarts[word] || from > to) {
+            throw new IndexOutOfBoundsException("Part [" + from + ", " + to + ") is out of the word " + word +
+                    " of the line: " + lineString());
+        }
+    }
+
+    /**
+     * @return string representation like: (TextCursor| Line: i of n, Words: w)
+     */
+    @Override
+    public String toString() {
+        return "(TextCursor| Line: " + line + " of " + linesAmount + ", Words: " + wordsAmount + ")";
+    }
+}
@@ -0,0 +1,119 @@
+package parsers;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+
+/**
+ * Parser of the timestamps like "2023/01/07 14:45:02" (date and time are two words of the line)
+ * into epoch milliseconds, that reads the digits right from the chars of the words.
+ * <p>
+ * Consecutive games are usually played on the same day, so the start of the last parsed day is cached,
+ * and parsing of the timestamp of the same day is just arithmetics. Days, during which the offset of the zone
+ * changes (daylight saving time), are counted by java.time every time.
+ * <p>
+ * Parser has the cache, so it is not thread-safe.
+ */
+public class TimestampParser {
+    private static final long MILLIS_IN_DAY = 86_400_000L;
+    private static final int DATE_LENGTH = "yyyy/MM/dd".length();
+    private static final int TIME_LENGTH = "HH:mm:ss".length();
+
+    private final ZoneId zone;
+
+    // Date of the cached day as yyyyMMdd (or -1 if nothing is cached)
+    private int cachedDate = -1;
+    private long cachedDayStart;
+    // True if the offset of the zone does not change during the cached day
+    private boolean isCachedDayRegular;
+
+    /**
+     * Constructs the parser of the timestamps in the default time zone of the system
+     * (the same that was used by {@code new Date(String)}).
+     */
+    public TimestampParser() {
+        this(ZoneId.systemDefault());
+    }
+
+    /**
+     * @param zone time zone of the parsed timestamps
+     */
+    public TimestampParser(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    /**
+     * Parses the timestamp, which date ("yyyy/MM/dd") and time ("HH:mm:ss") are the words of the current line.
+     *
+     * @param cursor   cursor, which current line contains the timestamp
+     * @param dateWord index of the word with the date
+     * @param timeWord index of the word with the time
+     * @return epoch milliseconds of the timestamp
+     * @throws IllegalArgumentException if the words are not a correct timestamp
+     */
+    public long parse(TextCursor cursor, int dateWord, int timeWord) {
+        if (cursor.wordLength(dateWord) != DATE_LENGTH || cursor.charAt(dateWord, 4) != '/' ||
+                cursor.charAt(dateWord, 7) != '/' || cursor.wordLength(timeWord) != TIME_LENGTH ||
+                cursor.charAt(timeWord, 2) != ':' || cursor.charAt(timeWord, 5) != ':') {
+            throw incorrectTimestamp(cursor, dateWord, timeWord);
+        }
+        int year = digits(cursor, dateWord, 0, 4);
+        int month = digits(cursor, dateWord, 5, 2);
+        int day = digits(cursor, dateWord, 8, 2);
+        int hours = digits(cursor, timeWord, 0, 2);
+        int minutes = digits(cursor, timeWord, 3, 2);
+        int seconds = digits(cursor, timeWord, 6, 2);
+        if (year < 0 || month < 0 || day < 0 || hours < 0 || minutes < 0 || seconds < 0 ||
+                hours > 23 || minutes > 59 || seconds > 59) {
+            throw incorrectTimestamp(cursor, dateWord, timeWord);
+        }
+
+        int date = (year * 100 + month) * 100 + day;
+        if (date != cachedDate) {
+            try {
+                cacheDay(LocalDate.of(year, month, day));
+            } catch (DateTimeException ex) {
+                throw incorrectTimestamp(cursor, dateWord, timeWord);
+            }
+            cachedDate = date;
+        }
+
+        if (isCachedDayRegular) {
+            return cachedDayStart + ((hours * 60L + minutes) * 60 + seconds) * 1000;
+        }
+        // Like new Date(String), repeated local time (when clocks are turned back) is taken with the later offset.
+        return LocalDateTime.of(year, month, day, hours, minutes, seconds).atZone(zone)
+                .withLaterOffsetAtOverlap().toInstant().toEpochMilli();
+    }
+
+    private void cacheDay(LocalDate day) {
+        Instant dayStart = day.atStartOfDay(zone).toInstant();
+        cachedDayStart = dayStart.toEpochMilli();
+        ZoneOffsetTransition transition = zone.getRules().nextTransition(dayStart);
+        isCachedDayRegular = transition == null ||
+                transition.getInstant().toEpochMilli() >= cachedDayStart + MILLIS_IN_DAY;
+    }
+
+    /**
+     * @return number written by the given amount of digits of the word starting from the given index,
+     * or -1 if some of the chars are not digits
+     */
+    private static int digits(TextCursor cursor, int word, int from, int amount) {
+        int number = 0;
+        for (int i = from; i < from + amount; ++i) {
+            char c = cursor.charAt(word, i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return number;
+    }
+
+    private static IllegalArgumentException incorrectTimestamp(TextCursor cursor, int dateWord, int timeWord) {
+        return new IllegalArgumentException("Incorrect timestamp: " + cursor.word(dateWord) + " " + cursor.word(timeWord));
+    }
+}
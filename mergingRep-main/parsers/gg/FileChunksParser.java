@@ -0,0 +1,136 @@
+package parsers.gg;
+
+import exceptions.IncorrectBoardException;
+import exceptions.IncorrectCardException;
+import exceptions.IncorrectHandException;
+import models.Game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Parses one big file in parallel. File is memory-mapped and split into chunks, every one of which
+ * starts at the line "Poker Hand #...", so no game is split between chunks, and the chunks are parsed
+ * by {@link OrderedParsingTask}, so the games are in the same order as in the file.
+ */
+final class FileChunksParser {
+    private static final byte[] GAME_START = "\nPoker Hand #".getBytes(StandardCharsets.US_ASCII);
+    private static final long MIN_CHUNK_SIZE = 1 << 20;
+    private static final long MAX_CHUNK_SIZE = 1 << 26;
+    /**
+     * Chunks are smaller than the file divided by the amount of threads, so the threads,
+     * that got chunks with simpler games, could steal the rest of the work.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int SCAN_WINDOW_SIZE = 1 << 20;
+
+    private FileChunksParser() {
+    }
+
+    /**
+     * Parses all the chunks of the file in the common fork-join pool and rethrows the checked exception
+     * of the first failed game.
+     *
+     * @return games of the file in the order of the file
+     */
+    static ArrayList<Game> parseAll(GGParser parser, String path)
+            throws IOException, IncorrectHandException, IncorrectBoardException, IncorrectCardException {
+        try (FileChannel channel = FileChannel.open(Path.of(path), StandardOpenOption.READ)) {
+            long[] bounds = split(channel);
+            List<Integer> chunks = IntStream.range(0, bounds.length - 1).boxed().toList();
+            return OrderedParsingTask.parseAll(chunks,
+                    chunk -> parseChunk(parser, channel, bounds[chunk], bounds[chunk + 1]));
+        }
+    }
+
+    private static ArrayList<Game> parseChunk(GGParser parser, FileChannel channel, long start, long end)
+            throws IOException, IncorrectHandException, IncorrectBoardException, IncorrectCardException {
+        MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        CharBuffer chars = StandardCharsets.UTF_8.decode(bytes);
+        GameTextReader reader = new GameTextReader(chars.array(), chars.limit());
+        ArrayList<Game> games = new ArrayList<>();
+        while (reader.next()) {
+            games.add(parser.parseGame(reader.getText(), reader.getGameStart(), reader.getGameEnd()));
+        }
+        return games;
+    }
+
+    /**
+     * Splits the file into chunks, that start at the starts of the games.
+     *
+     * @return bounds of the chunks: chunk i is from bounds[i] (inclusive) to bounds[i + 1] (exclusive)
+     */
+    private static long[] split(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long chunkSize = size / ((long) ForkJoinPool.getCommonPoolParallelism() * CHUNKS_PER_THREAD);
+        chunkSize = Math.min(MAX_CHUNK_SIZE, Math.max(MIN_CHUNK_SIZE, chunkSize));
+
+        ArrayList<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        long position = chunkSize;
+        while (position < size) {
+            long gameStart = findGameStart(channel, position, size);
+            if (gameStart >= size) {
+                break;
+            }
+            bounds.add(gameStart);
+            position = gameStart + chunkSize;
+        }
+        bounds.add(size);
+
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Finds the first line "Poker Hand #..." after the position. File is scanned by small mapped windows,
+     * that overlap, so the line is found even if it crosses the border of the windows.
+     *
+     * @return offset of the start of the line, or the size of the file if there is no such line
+     */
+    private static long findGameStart(FileChannel channel, long position, long size) throws IOException {
+        for (long windowStart = position - 1; windowStart < size; windowStart += SCAN_WINDOW_SIZE) {
+            long windowSize = Math.min(SCAN_WINDOW_SIZE + GAME_START.length - 1, size - windowStart);
+            if (windowSize < GAME_START.length) {
+                break;
+            }
+            ByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowSize);
+            int index = indexOfGameStart(window);
+            if (index >= 0) {
+                // Game starts right after the '\n'.
+                return windowStart + index + 1;
+            }
+        }
+        return size;
+    }
+
+    private static int indexOfGameStart(ByteBuffer window) {
+        int last = window.limit() - GAME_START.length;
+        for (int i = 0; i <= last; ++i) {
+            if (window.get(i) != GAME_START[0]) {
+                continue;
+            }
+            int matched = 1;
+            while (matched < GAME_START.length && window.get(i + matched) == GAME_START[matched]) {
+                ++matched;
+            }
+            if (matched == GAME_START.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
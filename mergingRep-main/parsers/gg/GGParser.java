@@ -1,13 +1,26 @@
 package parsers.gg;
 
+import exceptions.GameParsingException;
 import exceptions.IncorrectBoardException;
 import exceptions.IncorrectCardException;
 import exceptions.IncorrectHandException;
 import models.Game;
+import parsers.GameSink;
+import parsers.KnownGamesIndex;
 import parsers.Parser;
+import parsers.ParsingError;
+import parsers.ParsingErrorSink;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Interface for parsers of games that take place in GG poker room
@@ -22,73 +35,390 @@ public interface GGParser extends Parser {
      */
     public default ArrayList<Game> parseDirectoryFiles(String path)
             throws IOException, IncorrectHandException, IncorrectBoardException, IncorrectCardException {
+        ArrayList<Game> allGames = new ArrayList<>();
+        parseDirectoryFiles(path, allGames::add);
+        // I need to log all the exceptions someway
+        return allGames;
+    }
+
+    /**
+     * Parses all the text files in directory (and its subdirectories) and passes every game
+     * to the sink as soon as it is parsed. Files are read one by one, every file is closed
+     * before the next one is opened.
+     *
+     * @param path Path of the directory to parse
+     * @param sink consumer of the parsed games
+     * @return amount of parsed games
+     * @throws IOException if something is wrong with file reading
+     */
+    public default long parseDirectoryFiles(String path, GameSink sink)
+            throws IOException, IncorrectHandException, IncorrectBoardException, IncorrectCardException {
+        long amount = 0;
+        for (File f : listDirectoryFiles(path)) {
+            amount += parseFile(f.getPath(), sink);
+        }
+        return amount;
+    }
+
+    /**
+     * Parses all the text files in directory (and its subdirectories) like {@link #parseDirectoryFiles(String, GameSink)},
+     * but games, that could not be parsed, are skipped and passed to the error sink
+     * (see {@link #parseFile(String, GameSink, ParsingErrorSink)}).
+     *
+     * @param path   Path of the directory to parse
+     * @param sink   consumer of the parsed games
+     * @param errors consumer of the errors of the skipped games
+     * @return amount of parsed games
+     * @throws IOException if something is wrong with file reading
+     */
+    public default long parseDirectoryFiles(String path, GameSink sink, ParsingErrorSink errors) throws IOException {
+        return parseDirectoryFiles(path, null, sink, errors);
+    }
+
+    /**
+     * Parses all the text files in directory (and its subdirectories) like
+     * {@link #parseDirectoryFiles(String, GameSink, ParsingErrorSink)}, but the games, which ids are
+     * in the index of known games, are skipped without parsing (see {@link #parseFile(String, KnownGamesIndex, GameSink, ParsingErrorSink)}).
+     *
+     * @param path       Path of the directory to parse
+     * @param knownGames index of the games, that were already imported (or null to parse all the games)
+     * @param sink       consumer of the parsed games
+     * @param errors     consumer of the errors of the skipped games
+     * @return amount of parsed games
+     * @throws IOException if something is wrong with file reading
+     */
+    public default long parseDirectoryFiles(String path, KnownGamesIndex knownGames, GameSink sink, ParsingErrorSink errors)
+            throws IOException {
+        long amount = 0;
+        for (File f : listDirectoryFiles(path)) {
+            amount += parseFile(f.getPath(), knownGames, sink, errors);
+        }
+        return amount;
+    }
+
+    /**
+     * Parses all the text files in directory (and its subdirectories) in parallel: files are spread
+     * between the threads of the common fork-join pool. Parser must be reentrant (see {@link GGPokerokRushNCashParser}).
+     * Games are merged in the order of the paths of their files, so the result is the same for every run.
+     *
+     * @param path Path of the directory to parse
+     * @return ArrayList of parsed Games
+     * @throws IOException if something is wrong with file reading
+     */
+    public default ArrayList<Game> parseDirectoryFilesParallel(String path)
+            throws IOException, IncorrectHandException, IncorrectBoardException, IncorrectCardException {
+        return OrderedParsingTask.parseAll(listDirectoryFiles(path), file -> parseFile(file.getPath()));
+    }
+
+    /**
+     * Lists the files of the directory for all the ways of parsing it, so the games of the directory
+     * are always in the same order.
+     *
+     * @param path Path of the directory
+     * @return all the files of the directory and its subdirectories sorted by their paths
+     * (or an empty list if the path is not a directory)
+     * @throws FileNotFoundException if there is no such path
+     */
+    private List<File> listDirectoryFiles(String path) throws FileNotFoundException {
         File dir = new File(path);
         if (!dir.exists()) {
             throw new FileNotFoundException("Given path " + path + "could not have been found");
         }
-
-        ArrayList<Game> allGames = new ArrayList<>();
+        ArrayList<File> files = new ArrayList<>();
         if (dir.isDirectory()) {
-            if (dir.listFiles() == null) {
-                return new ArrayList<>();
-            }
-            for (File f : dir.listFiles()) {
-                if (f.isDirectory()) {
-                    addSubDirectoryGames(allGames, f);
-                }
-                if (f.isFile()) {
-                    allGames.addAll(parseFile(f.getPath()));
-                }
-            }
+            collectFiles(dir, files);
         }
-        // I need to log all the exceptions someway
-        return allGames;
+        files.sort(Comparator.comparing(File::getPath));
+        return files;
     }
 
-    /**
-     * @param allGames
-     * @param dir
-     * @throws IncorrectHandException
-     * @throws IncorrectBoardException
-     * @throws IOException
-     * @throws IncorrectCardException
-     */
-    private void addSubDirectoryGames(ArrayList<Game> allGames, File dir) throws IncorrectHandException, IncorrectBoardException, IOException, IncorrectCardException {
-        for (File f : dir.listFiles()) {
+    private void collectFiles(File dir, List<File> files) {
+        File[] dirFiles = dir.listFiles();
+        if (dirFiles == null) {
+            return;
+        }
+        for (File f : dirFiles) {
             if (f.isDirectory()) {
-                addSubDirectoryGames(allGames, f);
+                collectFiles(f, files);
             }
             if (f.isFile()) {
-                allGames.addAll(parseFile(f.getPath()));
+                files.add(f);
             }
         }
     }
 
+    /**
+     * Lazily parses all the text files in directory (and its subdirectories). Files are opened
+     * one by one while the stream is consumed, and games are parsed one by one.
+     * Stream must be closed (for example, by try-with-resources) to close the file being read.
+     * Parsing errors are thrown while consuming the stream as {@link GameParsingException}
+     * and {@link UncheckedIOException}.
+     *
+     * @param path Path of the directory to parse
+     * @return stream of parsed games
+     * @throws IOException if the directory could not be found or read
+     */
+    public default Stream<Game> streamDirectoryFiles(String path) throws IOException {
+        return listDirectoryFiles(path).stream()
+                .flatMap(file -> {
+                    try {
+                        return streamFile(file.getPath());
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+    }
+
+    /**
+     * Parses text representation of the game, that is a part of a bigger text (like the whole file).
+     * By default the part is copied and parsed by {@link #parseGame(String)}, parsers that can read
+     * the text in place should override this method.
+     *
+     * @param text  text, containing the game
+     * @param start index of the first char of the game
+     * @param end   index after the last char of the game
+     * @return instance of the game that was embedded into the given part of the text
+     */
+    public default Game parseGame(CharSequence text, int start, int end)
+            throws IncorrectCardException, IncorrectHandException, IncorrectBoardException {
+        return parseGame(text.subSequence(start, end).toString());
+    }
+
+    /**
+     * Parses all the games in the file.
+     *
+     * @param path Path of the file to parse
+     * @return ArrayList of parsed Games
+     * @throws IOException if something is wrong with file reading
+     */
     public default ArrayList<Game> parseFile(String path) throws IOException, IncorrectHandException, IncorrectBoardException, IncorrectCardException {
         ArrayList<Game> parsedGames = new ArrayList<>();
+        parseFile(path, parsedGames::add);
+        return parsedGames;
+    }
 
-        // try with resources
-        File file = new File(path);
-        FileReader fr = new FileReader(file);
-        BufferedReader bfr = new BufferedReader(fr);
-
-        String line = bfr.readLine();
-        while (line != null) {
-            StringBuilder gameText = new StringBuilder();
-            // Getting to the first line of the game text.
-            while (line != null && (line.equals("") || !line.substring(0, 5).equals("Poker"))) {
-                line = bfr.readLine();
+    /**
+     * Parses the games in the file one by one and passes every game to the sink as soon as it is parsed
+     * (game is a block of lines, that starts with the line starting with "Poker" and ends with an empty line
+     * or the end of the file). Only the text of the current game is kept in memory, and it is parsed
+     * in place (see {@link GameTextReader}).
+     * <p>
+     * File could be a gzip file (".gz") or a zip archive (".zip", all its entries are parsed one after another):
+     * it is decompressed while it is read, without extracting it to the disk. Byte offsets of the games
+     * in such files (like the ones of the {@link ParsingError}) are the offsets in the decompressed text.
+     *
+     * @param path Path of the file to parse
+     * @param sink consumer of the parsed games
+     * @return amount of parsed games
+     * @throws IOException if something is wrong with file reading
+     */
+    public default long parseFile(String path, GameSink sink) throws IOException, IncorrectHandException, IncorrectBoardException, IncorrectCardException {
+        long amount = 0;
+        try (GameTextReader reader = openGameTexts(path)) {
+            while (reader.next()) {
+                sink.accept(parseGame(reader.getText(), reader.getGameStart(), reader.getGameEnd()));
+                ++amount;
             }
+        }
+        return amount;
+    }
 
-            while (line != null && !line.equals("")) {
-                gameText.append(line).append("\n");
-                line = bfr.readLine();
+    /**
+     * Parses the games in the file one by one like {@link #parseFile(String, GameSink)}, but a game,
+     * that could not be parsed (parser threw a checked or a runtime exception), is skipped:
+     * its file, byte offset and the exception are passed to the error sink, and parsing goes on
+     * with the next game. Skipped games could be parsed again by {@link #parseGameAt(String, long)}.
+     *
+     * @param path   Path of the file to parse
+     * @param sink   consumer of the parsed games
+     * @param errors consumer of the errors of the skipped games
+     * @return amount of parsed games
+     * @throws IOException if something is wrong with file reading (or the sinks could not store their data)
+     */
+    public default long parseFile(String path, GameSink sink, ParsingErrorSink errors) throws IOException {
+        return parseFile(path, null, sink, errors);
+    }
+
+    /**
+     * Parses the games in the file like {@link #parseFile(String, GameSink, ParsingErrorSink)}, but only the header line
+     * of every game is read first, and the game is skipped without parsing its text, if its id is in the index
+     * of known games. Index is not changed: ids of the games should be added to it, when the games are stored.
+     *
+     * @param path       Path of the file to parse
+     * @param knownGames index of the games, that were already imported (or null to parse all the games)
+     * @param sink       consumer of the parsed (new) games
+     * @param errors     consumer of the errors of the skipped games
+     * @return amount of parsed games
+     * @throws IOException if something is wrong with file reading (or the sinks could not store their data)
+     */
+    public default long parseFile(String path, KnownGamesIndex knownGames, GameSink sink, ParsingErrorSink errors)
+            throws IOException {
+        try (GameTextReader reader = openGameTexts(path)) {
+            return parseGames(reader, path, 0, knownGames, sink, errors);
+        }
+    }
+
+    /**
+     * Parses all the games of the reader, skipping the games that could not be parsed
+     * (see {@link #parseFile(String, GameSink, ParsingErrorSink)}).
+     *
+     * @param reader     reader of the games
+     * @param path       Path of the file, which part is read by the reader (for the errors)
+     * @param byteOffset offset of the first byte of the part in the file (for the errors)
+     * @param sink       consumer of the parsed games
+     * @param errors     consumer of the errors of the skipped games
+     * @return amount of parsed games
+     * @throws IOException if something is wrong with reading (or the sinks could not store their data)
+     */
+    public default long parseGames(GameTextReader reader, String path, long byteOffset,
+                                   GameSink sink, ParsingErrorSink errors) throws IOException {
+        return parseGames(reader, path, byteOffset, null, sink, errors);
+    }
+
+    /**
+     * Parses all the games of the reader like {@link #parseGames(GameTextReader, String, long, GameSink, ParsingErrorSink)},
+     * skipping the known games (see {@link #parseFile(String, KnownGamesIndex, GameSink, ParsingErrorSink)}).
+     *
+     * @param knownGames index of the games, that were already imported (or null to parse all the games)
+     * @return amount of parsed games
+     * @throws IOException if something is wrong with reading (or the sinks could not store their data)
+     */
+    public default long parseGames(GameTextReader reader, String path, long byteOffset, KnownGamesIndex knownGames,
+                                   GameSink sink, ParsingErrorSink errors) throws IOException {
+        long amount = 0;
+        while (reader.next()) {
+            if (knownGames != null && isKnownGame(reader, knownGames)) {
+                continue;
             }
-//            System.out.println(gameText.substring(0, 25));
-            if (!gameText.toString().isEmpty()) {
-                parsedGames.add(parseGame(gameText.toString()));
+            Game game;
+            try {
+                game = parseGame(reader.getText(), reader.getGameStart(), reader.getGameEnd());
+            } catch (IncorrectCardException | IncorrectHandException | IncorrectBoardException | RuntimeException ex) {
+                errors.accept(new ParsingError(path, byteOffset + reader.getGameByteOffset(), ex));
+                continue;
             }
+            sink.accept(game);
+            ++amount;
         }
-        return parsedGames;
+        return amount;
+    }
+
+    /**
+     * Checks the id from the header line of the current game ("Poker Hand #RC123: ...") right in the text of the reader.
+     *
+     * @return true if the id of the game is in the index
+     */
+    private boolean isKnownGame(GameTextReader reader, KnownGamesIndex knownGames) {
+        CharSequence text = reader.getText();
+        int idStart = -1;
+        for (int i = reader.getGameStart(); i < reader.getGameEnd(); ++i) {
+            char c = text.charAt(i);
+            if (c == '\n') {
+                break;
+            }
+            if (c == '#' && idStart < 0) {
+                idStart = i + 1;
+            } else if (c == ':' && idStart >= 0) {
+                return knownGames.contains(text, idStart, i);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses the game, that starts at the given byte offset of the file
+     * (like the offset of the game skipped by {@link #parseFile(String, GameSink, ParsingErrorSink)}).
+     *
+     * @param path       Path of the file
+     * @param byteOffset offset of the first byte of the game in the file
+     * @return parsed game, or null if there is no game at or after the offset
+     * @throws IOException if something is wrong with file reading
+     */
+    public default Game parseGameAt(String path, long byteOffset)
+            throws IOException, IncorrectHandException, IncorrectBoardException, IncorrectCardException {
+        if (byteOffset < 0) {
+            throw new IllegalArgumentException("byteOffset must be >= 0");
+        }
+        try (InputStream stream = HandHistoryInput.open(path)) {
+            if (stream instanceof FileInputStream fileStream) {
+                fileStream.getChannel().position(byteOffset);
+            } else {
+                // Archive could not be positioned, so the decompressed text before the game is skipped.
+                try {
+                    stream.skipNBytes(byteOffset);
+                } catch (EOFException ex) {
+                    return null;
+                }
+            }
+            GameTextReader reader = new GameTextReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+            if (!reader.next()) {
+                return null;
+            }
+            return parseGame(reader.getText(), reader.getGameStart(), reader.getGameEnd());
+        }
+    }
+
+    /**
+     * Parses all the games of one big file in parallel: file is memory-mapped and split into chunks
+     * at the lines "Poker Hand #...", and chunks are parsed by the threads of the common fork-join pool
+     * (see {@link FileChunksParser}). Parser must be reentrant (see {@link GGPokerokRushNCashParser}).
+     * Entries of a zip archive are parsed in parallel instead (see {@link ZipEntriesParser}),
+     * and a gzip file is parsed by one thread, as it could only be decompressed from the start.
+     *
+     * @param path Path of the file to parse
+     * @return ArrayList of parsed Games (in the same order as in the file)
+     * @throws IOException if something is wrong with file reading
+     */
+    public default ArrayList<Game> parseFileParallel(String path) throws IOException, IncorrectHandException, IncorrectBoardException, IncorrectCardException {
+        if (HandHistoryInput.isZip(path)) {
+            return ZipEntriesParser.parseAll(this, path);
+        }
+        if (HandHistoryInput.isGzip(path)) {
+            return parseFile(path);
+        }
+        return FileChunksParser.parseAll(this, path);
+    }
+
+    /**
+     * Lazily parses the games in the file: next game is read and parsed only when the stream needs it.
+     * Stream must be closed (for example, by try-with-resources) to close the file.
+     * Parsing errors are thrown while consuming the stream as {@link GameParsingException}
+     * and {@link UncheckedIOException}.
+     *
+     * @param path Path of the file to parse
+     * @return stream of parsed games
+     * @throws IOException if the file could not be opened
+     */
+    public default Stream<Game> streamFile(String path) throws IOException {
+        GameTextReader reader = openGameTexts(path);
+        Spliterator<Game> games = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Game> action) {
+                try {
+                    if (!reader.next()) {
+                        return false;
+                    }
+                    action.accept(parseGame(reader.getText(), reader.getGameStart(), reader.getGameEnd()));
+                    return true;
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                } catch (IncorrectCardException | IncorrectHandException | IncorrectBoardException ex) {
+                    throw new GameParsingException("Game at char " + reader.getGameOffset() + " of the file " +
+                            path + " could not be parsed: " + ex.getMessage(), ex);
+                }
+            }
+        };
+        return StreamSupport.stream(games, false).onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    private GameTextReader openGameTexts(String path) throws IOException {
+        return new GameTextReader(new InputStreamReader(HandHistoryInput.open(path), StandardCharsets.UTF_8));
     }
 }
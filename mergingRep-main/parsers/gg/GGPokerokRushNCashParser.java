@@ -1,18 +1,59 @@
 package parsers.gg;
 
+import analizer.Combination;
+import analizer.EvaluationState;
 import exceptions.IncorrectBoardException;
 import exceptions.IncorrectCardException;
 import exceptions.IncorrectHandException;
 import models.*;
+import parsers.TextCursor;
+import parsers.TimestampParser;
 
 import java.util.*;
 
-import static java.lang.Double.parseDouble;
 import static models.PositionType.BB;
 import static models.PositionType.SB;
 
+/**
+ * Parser of the games of Rush & Cash tables of GG poker room. Parser has no state of its own
+ * (everything about the game being parsed is kept in the context of the call), so one instance
+ * could parse games in several threads at once.
+ */
 public class GGPokerokRushNCashParser implements GGParser {
-    private int curLine = 0;
+    /**
+     * Cursors are reused by all the games, that are parsed in the same thread.
+     */
+    private static final ThreadLocal<TextCursor> CURSORS = ThreadLocal.withInitial(TextCursor::new);
+    /**
+     * Timestamp parsers (with the cached day of the last game) are reused by all the games,
+     * that are parsed in the same thread.
+     */
+    private static final ThreadLocal<TimestampParser> TIMESTAMPS = ThreadLocal.withInitial(TimestampParser::new);
+
+    /**
+     * Everything about the game being parsed by one call of the parser.
+     */
+    private static final class ParseContext {
+        /**
+         * Cursor over the lines and words of the game.
+         */
+        private final TextCursor cursor;
+        private final TimestampParser timestamps;
+
+        /**
+         * States of the evaluation of the board on every street of the game
+         * (every next one is the snapshot of the previous one with one more card).
+         */
+        private EvaluationState flopState;
+        private EvaluationState turnState;
+        private EvaluationState riverState;
+
+        private ParseContext(CharSequence text, int start, int end) {
+            this.cursor = CURSORS.get();
+            this.timestamps = TIMESTAMPS.get();
+            cursor.reset(text, start, end);
+        }
+    }
 
     /**
      * Parses text representation of the game.
@@ -26,168 +67,171 @@ public class GGPokerokRushNCashParser implements GGParser {
     @Override
     public Game parseGame(String gameText)
             throws IncorrectCardException, IncorrectHandException, IncorrectBoardException {
-        curLine = 0;
-        String[] lines = gameText.split("\n");
-
-        ArrayList<ArrayList<String>> wordsInLines = new ArrayList<>();
-        for (String line : lines) {
-            wordsInLines.add(new ArrayList<>(List.of(line.split(" "))));
-        }
+        return parseGame(gameText, 0, gameText.length());
+    }
 
-        String handId = parseHandId(wordsInLines);
-        double bbSize = parseBBSize(wordsInLines);
+    /**
+     * Parses text representation of the game, that is a part of a bigger text (like the whole file).
+     * Text is not copied: words are read through the cursor, and only ids of the players,
+     * id of the hand and the table are materialized as strings.
+     *
+     * @param text  text, containing the game (must be in correct format - as it is on Pokercraft.com)
+     * @param start index of the first char of the game
+     * @param end   index after the last char of the game
+     * @return instance of the game that was embedded into the given text
+     */
+    @Override
+    public Game parseGame(CharSequence text, int start, int end)
+            throws IncorrectCardException, IncorrectHandException, IncorrectBoardException {
+        ParseContext ctx = new ParseContext(text, start, end);
+        try {
+            String handId = parseHandId(ctx);
+            long bbCents = parseBBCents(ctx);
 
-        Date date = parseDate(wordsInLines);
-        String table = parseTable(wordsInLines);
-        ArrayList<PlayerInGame> players = parsePlayers(wordsInLines);
+            long dateMillis = parseDate(ctx);
+            String table = parseTable(ctx);
+            ArrayList<PlayerInGame> players = parsePlayers(ctx);
 
-        Game game = initiateGame(handId, bbSize, players, date, table);
+            Game game = initiateGame(handId, bbCents, players, dateMillis, table);
 
-        parseExtraCash(game, wordsInLines);
-        parseHeroHand(game, wordsInLines);
-        parseStreetDescriptions(game, wordsInLines, game.getExtraCashAmount());
+            parseExtraCash(ctx, game);
+            parseHeroHand(ctx, game);
+            parseStreetDescriptions(ctx, game, game.getExtraCashCents());
 
 
-        parseWinnings(game, wordsInLines);
-        return game;
+            parseWinnings(ctx, game);
+            countStreetCombinations(ctx, game);
+            return game;
+        } finally {
+            // Cursor of the thread outlives the call, so it must not keep the text (like the whole chunk of the file).
+            ctx.cursor.reset("");
+        }
     }
 
-    private double parseBBSize(ArrayList<ArrayList<String>> wordsInLines) {
-        return parseDouble(wordsInLines.get(0).get(7).split("/[$]")[1].split("[)]")[0]);
+    private long parseBBCents(ParseContext ctx) {
+        // Word looks like ($0.01/$0.02)
+        int bbStart = ctx.cursor.indexOf(7, '/') + 2;
+        int bbEnd = ctx.cursor.indexOf(7, ')');
+        return ctx.cursor.parseCents(7, bbStart, bbEnd < 0 ? ctx.cursor.wordLength(7) : bbEnd);
     }
 
-    private String parseHandId(ArrayList<ArrayList<String>> wordsInLines) {
-        String handId = wordsInLines.get(curLine).get(2);
-        handId = handId.substring(1, handId.length() - 1);
-
-        return handId;
+    private String parseHandId(ParseContext ctx) {
+        return ctx.cursor.word(2, 1, ctx.cursor.wordLength(2) - 1);
     }
 
-    private Date parseDate(ArrayList<ArrayList<String>> wordsInLines) {
-        String dateRep = wordsInLines.get(curLine).get(9);
-        dateRep += " " + wordsInLines.get(curLine).get(10);
+    private long parseDate(ParseContext ctx) {
+        // Words look like 2023/01/07 14:45:02
+        long dateMillis = ctx.timestamps.parse(ctx.cursor, 9, 10);
 
-        ++curLine;
-        return new Date(dateRep);
+        ctx.cursor.nextLine();
+        return dateMillis;
     }
 
-    private String parseTable(ArrayList<ArrayList<String>> wordsInLines) {
-        return wordsInLines.get(curLine).get(1);
+    private String parseTable(ParseContext ctx) {
+        return ctx.cursor.word(1);
     }
 
 
-    private ArrayList<PlayerInGame> parsePlayers(ArrayList<ArrayList<String>> wordsInLines) {
+    private ArrayList<PlayerInGame> parsePlayers(ParseContext ctx) {
         // Getting info about players abd setting to the game
         ArrayList<String> hashes = new ArrayList<>();
-        ArrayList<Double> balances = new ArrayList<>();
+        long[] balances = new long[6];
 
-        ++curLine;
         for (int i = 0; i < 6; ++i) {
-            hashes.add(wordsInLines.get(curLine + i).get(2));
-            String balanceStr = wordsInLines.get(curLine + i).get(3);
-            balances.add(parseDouble(balanceStr.substring(2)));
+            ctx.cursor.nextLine();
+            hashes.add(ctx.cursor.word(2));
+            balances[i] = ctx.cursor.parseCents(3, 2, ctx.cursor.wordLength(3));
         }
 
-        curLine += 6;
+        ctx.cursor.nextLine();
 
         ArrayList<PositionType> positions = new ArrayList<>(List.of(PositionType.BTN,
                 SB, BB, PositionType.LJ, PositionType.HJ, PositionType.CO));
 
         ArrayList<PlayerInGame> players = new ArrayList<>();
         for (int i = 0; i < 6; ++i) {
-            players.add(new PlayerInGame(hashes.get(i), positions.get(i), balances.get(i)));
+            players.add(PlayerInGame.ofCents(hashes.get(i), positions.get(i), balances[i]));
         }
 
         return players;
     }
 
-    private Game initiateGame(String handId, double bbSize,
+    private Game initiateGame(String handId, long bbCents,
                               ArrayList<PlayerInGame> players,
-                              Date date, String table) {
-        HashMap<String, Double> initBalances  = new HashMap<String, Double>();
-        for (PlayerInGame p : players) {
-            initBalances.put(p.getId(), p.getBalance());
-        }
-
-        HashMap<String, PlayerInGame> playersMap = new HashMap<>();
-        for (PlayerInGame p : players) {
-            playersMap.put(p.getId(), p);
-        }
-
-        Game game = new Game(handId, bbSize, playersMap, initBalances);
-        game.setDate(date);
+                              long dateMillis, String table) {
+        Game game = Game.ofCents(handId, bbCents, players);
+        game.setDateMillis(dateMillis);
         game.setTable(table);
 
         return game;
     }
 
-    private void parseExtraCash(Game game, ArrayList<ArrayList<String>> wordsInLines) {
-        if (wordsInLines.get(curLine).get(0).equals("Cash")) {
-            ArrayList<String> cashLine = wordsInLines.get(curLine);
+    private void parseExtraCash(ParseContext ctx, Game game) {
+        if (ctx.cursor.wordEquals(0, "Cash")) {
             // In case I would want to collect stats about cash drops.
-            double extraCash = parseDouble(wordsInLines.get(curLine).get(cashLine.size() - 1).substring(1));
-            game.setExtraCash(extraCash);
+            int lastWord = ctx.cursor.getWordsAmount() - 1;
+            long extraCash = ctx.cursor.parseCents(lastWord, 1, ctx.cursor.wordLength(lastWord));
+            game.setExtraCashCents(extraCash);
         } else {
-            game.setExtraCash(0);
+            game.setExtraCashCents(0);
         }
     }
 
-    private void parseHeroHand(Game game, ArrayList<ArrayList<String>> wordsInLines)
+    private void parseHeroHand(ParseContext ctx, Game game)
             throws IncorrectCardException, IncorrectHandException {
-        while (!wordsInLines.get(curLine).get(2).equals("Hero")) {
-            ++curLine;
+        while (!ctx.cursor.wordEquals(2, "Hero")) {
+            ctx.cursor.nextLine();
         }
 
-        Card c1 = new Card(wordsInLines.get(curLine).get(3).substring(1));
-        Card c2 = new Card((wordsInLines.get(curLine).get(4).substring(0, 2)));
+        Card c1 = Card.parse(ctx.cursor.charAt(3, 1), ctx.cursor.charAt(3, 2));
+        Card c2 = Card.parse(ctx.cursor.charAt(4, 0), ctx.cursor.charAt(4, 1));
         Hand heroHand = new Hand(c1, c2);
         game.setHeroHand(heroHand);
     }
 
-    private void parseStreetDescriptions(Game game, ArrayList<ArrayList<String>> wordsInLines, double extraCashAmount)
+    private void parseStreetDescriptions(ParseContext ctx, Game game, long extraCashCents)
             throws IncorrectBoardException, IncorrectCardException, IncorrectHandException {
-        parsePreFlop(game, wordsInLines, extraCashAmount);
+        parsePreFlop(ctx, game, extraCashCents);
 
 
-        parseFlop(game, wordsInLines);
-        parseTurn(game, wordsInLines);
-        parseRiver(game, wordsInLines);
-//        double pot = game.
-//        parseFlop(game, wordsInLines, pot);
+        parseFlop(ctx, game);
+        parseTurn(ctx, game);
+        parseRiver(ctx, game);
     }
 
-    private void parsePreFlop(Game game, ArrayList<ArrayList<String>> wordsInLines, double extraCashAmount)
+    private void parsePreFlop(ParseContext ctx, Game game, long extraCashCents)
             throws IncorrectHandException, IncorrectCardException {
-        while (wordsInLines.get(curLine).get(0).equals("Dealt")) {
-            ++curLine;
+        while (ctx.cursor.wordEquals(0, "Dealt")) {
+            ctx.cursor.nextLine();
         }
 
-        double initPot = game.getBigBlindSize$() + game.getSB() + extraCashAmount;
-        StreetDescription pfsd = parseStreetAction(game, wordsInLines, initPot);
+        long initPot = game.getBigBlindCents() + game.getSBCents() + extraCashCents;
+        StreetDescription pfsd = parseStreetAction(ctx, game, initPot);
         game.setPreFlop(pfsd);
     }
 
-    private void parseFlop(Game game, ArrayList<ArrayList<String>> wordsInLines)
+    private void parseFlop(ParseContext ctx, Game game)
             throws IncorrectCardException, IncorrectBoardException, IncorrectHandException {
         if (game.getPreFlop().getPlayersAfterBetting().size() == 1 || game.getPreFlop().isAllIn()) {
             return;
         }
-        while (wordsInLines.get(curLine).size() < 2 || !wordsInLines.get(curLine).get(1).equals("FLOP")) {
-            ++curLine;
+        while (!ctx.cursor.wordEquals(1, "FLOP")) {
+            ctx.cursor.nextLine();
         }
 
-        Card c1 = new Card(wordsInLines.get(curLine).get(3).substring(1));
-        Card c2 = new Card(wordsInLines.get(curLine).get(4));
-        Card c3 = new Card(wordsInLines.get(curLine).get(5).substring(0, 2));
+        Card c1 = Card.parse(ctx.cursor.charAt(3, 1), ctx.cursor.charAt(3, 2));
+        Card c2 = Card.parse(ctx.cursor.charAt(4, 0), ctx.cursor.charAt(4, 1));
+        Card c3 = Card.parse(ctx.cursor.charAt(5, 0), ctx.cursor.charAt(5, 1));
         Board flopBoard = new Board(c1, c2, c3);
+        ctx.flopState = EvaluationState.of(flopBoard);
 
-        ++curLine;
+        ctx.cursor.nextLine();
         StreetDescription flop;
         if (!game.getPreFlop().isAllIn()) {
-            flop = parseStreetAction(game, wordsInLines, game.getPreFlop().getPotAfterBetting());
+            flop = parseStreetAction(ctx, game, game.getPreFlop().getPotAfterBettingCents());
         } else {
-            flop = new StreetDescription(
-                    game.getPreFlop().getPotAfterBetting(),
+            flop = StreetDescription.ofCents(
+                    game.getPreFlop().getPotAfterBettingCents(),
                     flopBoard,
                     game.getPreFlop().getPlayersAfterBetting(),
                     new ArrayList<Action>());
@@ -197,31 +241,32 @@ public class GGPokerokRushNCashParser implements GGParser {
         flop.setBoard(flopBoard);
         game.setFlop(flop);
 
-        while (!wordsInLines.get(curLine).get(0).equals("***")) {
-            ++curLine;
+        while (!ctx.cursor.wordEquals(0, "***")) {
+            ctx.cursor.nextLine();
         }
     }
 
-    private void parseTurn(Game game, ArrayList<ArrayList<String>> wordsInLines) throws IncorrectCardException, IncorrectBoardException, IncorrectHandException {
+    private void parseTurn(ParseContext ctx, Game game) throws IncorrectCardException, IncorrectBoardException, IncorrectHandException {
         if (game.getFlop() == null || game.getFlop().getPlayersAfterBetting().size() == 1 || game.getFlop().isAllIn()) {
             return;
         }
-        while (wordsInLines.get(curLine).size() < 2 || !wordsInLines.get(curLine).get(1).equals("TURN")) {
-            ++curLine;
+        while (!ctx.cursor.wordEquals(1, "TURN")) {
+            ctx.cursor.nextLine();
         }
 
-        Card tCard = new Card(wordsInLines.get(curLine).get(6).substring(1, 3));
-        ++curLine;
+        Card tCard = Card.parse(ctx.cursor.charAt(6, 1), ctx.cursor.charAt(6, 2));
+        ctx.turnState = ctx.flopState.snapshot().addCard(tCard);
+        ctx.cursor.nextLine();
 
-        double curPot = game.getFlop().getPotAfterBetting();
+        long curPot = game.getFlop().getPotAfterBettingCents();
 
         // Cards will be added later in this method
         StreetDescription turn;
         if (!game.getFlop().isAllIn()) {
-            turn = parseStreetAction(game, wordsInLines, curPot);
+            turn = parseStreetAction(ctx, game, curPot);
         } else {
-            turn = new StreetDescription(
-                    game.getFlop().getPotAfterBetting(),
+            turn = StreetDescription.ofCents(
+                    game.getFlop().getPotAfterBettingCents(),
                     null,
                     game.getFlop().getPlayersAfterBetting(),
                     new ArrayList<Action>());
@@ -235,28 +280,29 @@ public class GGPokerokRushNCashParser implements GGParser {
         game.setTurn(turn);
     }
 
-    private void parseRiver(Game game, ArrayList<ArrayList<String>> wordsInLines)
+    private void parseRiver(ParseContext ctx, Game game)
             throws IncorrectCardException, IncorrectBoardException, IncorrectHandException {
         if (game.getTurn() == null || game.getTurn().getPlayersAfterBetting().size() == 1 || game.getTurn().isAllIn()) {
             return;
         }
-        while (wordsInLines.get(curLine).size() < 2 || !wordsInLines.get(curLine).get(1).equals("RIVER")) {
-            ++curLine;
+        while (!ctx.cursor.wordEquals(1, "RIVER")) {
+            ctx.cursor.nextLine();
         }
-        Card rCard = new Card(wordsInLines.get(curLine).get(7).substring(1, 3));
-        ++curLine;
+        Card rCard = Card.parse(ctx.cursor.charAt(7, 1), ctx.cursor.charAt(7, 2));
+        ctx.riverState = ctx.turnState.snapshot().addCard(rCard);
+        ctx.cursor.nextLine();
 
-        double curPot = game.getTurn().getPotAfterBetting();
+        long curPot = game.getTurn().getPotAfterBettingCents();
         StreetDescription river;
 
         if (!game.getTurn().isAllIn()) {
-            river = parseStreetAction(game, wordsInLines, curPot);
+            river = parseStreetAction(ctx, game, curPot);
             // if (game.getRiver().getPlayersAfterBetting().size() > 1) {
-            parseAndAddShownHands(game, wordsInLines);
+            parseAndAddShownHands(ctx, game);
             // }
         } else {
-            river = new StreetDescription(
-                    game.getTurn().getPotAfterBetting(),
+            river = StreetDescription.ofCents(
+                    game.getTurn().getPotAfterBettingCents(),
                     null,
                     game.getTurn().getPlayersAfterBetting(),
                     new ArrayList<>());
@@ -270,14 +316,19 @@ public class GGPokerokRushNCashParser implements GGParser {
         game.setRiver(river);
     }
 
-    private StreetDescription parseStreetAction(Game game, ArrayList<ArrayList<String>> wordsInLines, double curPot) throws IncorrectCardException, IncorrectHandException {
+    private StreetDescription parseStreetAction(ParseContext ctx, Game game, long curPot) throws IncorrectCardException, IncorrectHandException {
         StreetDescription st = new StreetDescription();
+        long sb = game.getSBCents();
+        long bb = game.getBigBlindCents();
+        long extraCash = game.getExtraCashCents();
         // Adding blinds posting and players left on pre-flop.
-        if (curPot - (game.getBigBlindSize$() + game.getSB() + game.getExtraCashAmount()) < 0.01) {
-            st.addActionAndUpdateBalances(new Action(Action.ActionType.BLIND, game.getPosPlayersMap().get(SB).getId(), game.getSB(), game.getExtraCashAmount()), game.getSB());
-            game.decrementPlayersBalance(game.getPosPlayersMap().get(SB).getId(), game.getSB());
-            st.addActionAndUpdateBalances(new Action(Action.ActionType.BLIND, game.getPosPlayersMap().get(BB).getId(), game.getBigBlindSize$(), game.getSB() + game.getExtraCashAmount()), game.getBigBlindSize$());
-            game.decrementPlayersBalance(game.getPosPlayersMap().get(BB).getId(), game.getBigBlindSize$());
+        if (curPot <= bb + sb + extraCash) {
+            String sbId = game.getPosPlayersMap().get(SB).getId();
+            String bbId = game.getPosPlayersMap().get(BB).getId();
+            st.addActionAndUpdateBalancesCents(Action.ofCents(Action.ActionType.BLIND, sbId, sb, extraCash), sb);
+            game.decrementPlayersBalanceCents(sbId, sb);
+            st.addActionAndUpdateBalancesCents(Action.ofCents(Action.ActionType.BLIND, bbId, bb, sb + extraCash), bb);
+            game.decrementPlayersBalanceCents(bbId, bb);
 
             st.setPlayersAfterBetting(game.getPlayers().values());
         }
@@ -291,54 +342,45 @@ public class GGPokerokRushNCashParser implements GGParser {
                 st.setPlayersAfterBetting(game.getPreFlop().getPlayersAfterBetting());
             }
         }
-        st.setPotAfterBetting(curPot);
+        st.setPotAfterBettingCents(curPot);
 
-        while (wordsInLines.get(curLine).get(0).charAt(wordsInLines.get(curLine).get(0).length() - 1) == ':' &&
+        while (ctx.cursor.endsWith(0, ':') &&
                 st.getPlayersAfterBetting().size() > 1 &&
-                !wordsInLines.get(curLine).get(1).equals("shows") &&
-                !wordsInLines.get(curLine).get(1).equals("Pays")) {
-            String hash = wordsInLines.get(curLine).get(0);
-            hash = hash.substring(0, hash.length() - 1);
-            PlayerInGame curPlayer = game.getPlayer(hash);
+                !ctx.cursor.wordEquals(1, "shows") &&
+                !ctx.cursor.wordEquals(1, "Pays")) {
+            PlayerInGame curPlayer = game.getPlayer(playerId(ctx, game, 0, ctx.cursor.wordLength(0) - 1));
 
             // For me
             if (curPlayer == null) {
                 throw new RuntimeException("Code is incorrect - couldn't find the player " +
                         "with given hash in array of players in game.");
             }
-            ArrayList<String> lineW = wordsInLines.get(curLine);
-            addAction(lineW, game, st, curPlayer);
-
-//            if (lineW.get(lineW.size() - 1).equals("all-in")) {
-//                game.setPlayerStatus(curPlayer.getId(), PlayerStatus.ALL_IN);
-//            }
-            ++curLine;
+            addAction(ctx, game, st, curPlayer);
+            ctx.cursor.nextLine();
         }
 
-        while (wordsInLines.get(curLine).get(0).equals("Uncalled")) {
-            String id = wordsInLines.get(curLine).get(5);
-            String amountStr = wordsInLines.get(curLine).get(2).substring(2);
-            amountStr = amountStr.substring(0, amountStr.length() - 1);
-            double returnedAmount = Double.parseDouble(amountStr);
-            game.returnUncalledChips(id, returnedAmount);
-            st.returnUncalledChips(id, returnedAmount);
-            ++curLine;
+        while (ctx.cursor.wordEquals(0, "Uncalled")) {
+            String id = playerId(ctx, game, 5, ctx.cursor.wordLength(5));
+            // Word looks like ($0.04)
+            long returnedAmount = ctx.cursor.parseCents(2, 2, ctx.cursor.wordLength(2) - 1);
+            game.returnUncalledChipsCents(id, returnedAmount);
+            st.returnUncalledChipsCents(id, returnedAmount);
+            ctx.cursor.nextLine();
         }
 
         // Getting shown hands if all players are all-in.
-        while (wordsInLines.get(curLine).get(1).equals("shows")) {
-            String id = wordsInLines.get(curLine).get(0);
-            id = id.substring(0, id.length() - 1);
-            Card card1 = new Card(wordsInLines.get(curLine).get(2).substring(1, 3));
-            if (wordsInLines.get(curLine).size() >= 4 &&
-                    wordsInLines.get(curLine).get(3).length() >= 3 &&
-                    wordsInLines.get(curLine).get(3).charAt(2) == ']') {
-                Card card2 = new Card(wordsInLines.get(curLine).get(3).substring(0, 2));
+        while (ctx.cursor.wordEquals(1, "shows")) {
+            String id = playerId(ctx, game, 0, ctx.cursor.wordLength(0) - 1);
+            Card card1 = Card.parse(ctx.cursor.charAt(2, 1), ctx.cursor.charAt(2, 2));
+            if (ctx.cursor.getWordsAmount() >= 4 &&
+                    ctx.cursor.wordLength(3) >= 3 &&
+                    ctx.cursor.charAt(3, 2) == ']') {
+                Card card2 = Card.parse(ctx.cursor.charAt(3, 0), ctx.cursor.charAt(3, 1));
                 game.setPlayerHand(id, new Hand(card1, card2));
             } else {
                 game.addShownOneCard(id, card1);
             }
-            ++curLine;
+            ctx.cursor.nextLine();
         }
 
         // Counts amount of all-in players - needed for correct all-in street
@@ -346,7 +388,7 @@ public class GGPokerokRushNCashParser implements GGParser {
         // playing on later streets.
         int allInAm = 0;
         for (PlayerInGame p : st.getPlayersAfterBetting()) {
-            if (p.getBalance() < 0.01) {
+            if (p.getBalanceCents() == 0) {
                 ++allInAm;
             }
         }
@@ -357,102 +399,119 @@ public class GGPokerokRushNCashParser implements GGParser {
         return st;
     }
 
-    private void addAction(ArrayList<String> line, Game game, StreetDescription st, PlayerInGame curPlayer) {
+    /**
+     * Finds the id of the player, which hash is the part of the word of the current line.
+     * Id of the player of the game is reused, so no string is created for the players of the game.
+     *
+     * @return id of the player of the game, or the part of the word as a new string if there is no such player
+     */
+    private String playerId(ParseContext ctx, Game game, int word, int to) {
+        for (String id : game.getPlayers().keySet()) {
+            if (ctx.cursor.wordEquals(word, 0, to, id)) {
+                return id;
+            }
+        }
+        return ctx.cursor.word(word, 0, to);
+    }
+
+    private void addAction(ParseContext ctx, Game game, StreetDescription st, PlayerInGame curPlayer) {
         Action action;
-        double amount = 0;
+        long amount = 0;
         st.addPlayerAfterBetting(curPlayer);
-        switch (line.get(1)) {
-            case "folds" -> {
-                action = new Action(Action.ActionType.FOLD, curPlayer.getId(), 0, st.getPotAfterBetting());
-                st.removePlayerAfterBetting(curPlayer);
-            }
-            case "raises" -> {
-                double lastAmount = 0;
-                for (int i = st.getAllActions().size() - 1; i >= 0; --i) {
-                    if (st.getAllActions().get(i).getPlayerId().equals(curPlayer.getId())) {
-                        // If he folded, he wouldnt be raising now, so old case is impossible.
-                        // If he checked, it meant no one bet before him (or it is BB on pre-flop)
-                        lastAmount = st.getAllActions().get(i).getAmount();
-                        break;
-                    }
+        if (ctx.cursor.wordEquals(1, "folds")) {
+            action = Action.ofCents(Action.ActionType.FOLD, curPlayer.getId(), 0, st.getPotAfterBettingCents());
+            st.removePlayerAfterBetting(curPlayer);
+        } else if (ctx.cursor.wordEquals(1, "raises")) {
+            long lastAmount = 0;
+            for (int i = st.getAllActions().size() - 1; i >= 0; --i) {
+                if (st.getAllActions().get(i).getPlayerId().equals(curPlayer.getId())) {
+                    // If he folded, he wouldnt be raising now, so old case is impossible.
+                    // If he checked, it meant no one bet before him (or it is BB on pre-flop)
+                    lastAmount = st.getAllActions().get(i).getAmountCents();
+                    break;
                 }
-                amount = parseDouble(line.get(4).substring(1));
-                action = new Action(Action.ActionType.RAISE, curPlayer.getId(), amount, st.getPotAfterBetting());
-
-                amount = amount - lastAmount;
-                st.setPotAfterBetting(st.getPotAfterBetting() + amount);
-
-                game.decrementPlayersBalance(curPlayer.getId(), amount);
             }
-            case "calls" -> {
-                amount = parseDouble(line.get(2).substring(1));
-                action = new Action(Action.ActionType.CALL, curPlayer.getId(), amount, st.getPotAfterBetting());
-                st.setPotAfterBetting(st.getPotAfterBetting() + amount);
-                game.decrementPlayersBalance(curPlayer.getId(), amount);
-            }
-            case "bets" -> {
-                amount = parseDouble(line.get(2).substring(1));
-                action = new Action(Action.ActionType.BET, curPlayer.getId(), amount, st.getPotAfterBetting());
-                st.setPotAfterBetting(st.getPotAfterBetting() + amount);
-                game.decrementPlayersBalance(curPlayer.getId(), amount);
-            }
-            case "checks" -> action = new Action(Action.ActionType.CHECK, curPlayer.getId(), 0, st.getPotAfterBetting());
-            default -> throw new RuntimeException("unexpected line in parsed file (was expected line with action, but got): " + line);
+            amount = ctx.cursor.parseCents(4, 1, ctx.cursor.wordLength(4));
+            action = Action.ofCents(Action.ActionType.RAISE, curPlayer.getId(), amount, st.getPotAfterBettingCents());
+
+            amount = amount - lastAmount;
+            st.setPotAfterBettingCents(st.getPotAfterBettingCents() + amount);
+
+            game.decrementPlayersBalanceCents(curPlayer.getId(), amount);
+        } else if (ctx.cursor.wordEquals(1, "calls")) {
+            amount = ctx.cursor.parseCents(2, 1, ctx.cursor.wordLength(2));
+            action = Action.ofCents(Action.ActionType.CALL, curPlayer.getId(), amount, st.getPotAfterBettingCents());
+            st.setPotAfterBettingCents(st.getPotAfterBettingCents() + amount);
+            game.decrementPlayersBalanceCents(curPlayer.getId(), amount);
+        } else if (ctx.cursor.wordEquals(1, "bets")) {
+            amount = ctx.cursor.parseCents(2, 1, ctx.cursor.wordLength(2));
+            action = Action.ofCents(Action.ActionType.BET, curPlayer.getId(), amount, st.getPotAfterBettingCents());
+            st.setPotAfterBettingCents(st.getPotAfterBettingCents() + amount);
+            game.decrementPlayersBalanceCents(curPlayer.getId(), amount);
+        } else if (ctx.cursor.wordEquals(1, "checks")) {
+            action = Action.ofCents(Action.ActionType.CHECK, curPlayer.getId(), 0, st.getPotAfterBettingCents());
+        } else {
+            throw new RuntimeException("unexpected line in parsed file (was expected line with action, but got): " + ctx.cursor.lineString());
         }
 
-
-//        if (game.getPlayer(curPlayer.getId()).getBalance() < 0.01) {
-//            game.setPlayerStatus(curPlayer.getId(), PlayerStatus.ALL_IN);
-//        }
-
-        // st.setPlayerBalance(curPlayer.getId(), game.getPlayer(curPlayer.getId()).getBalance());
-        st.addActionAndUpdateBalances(action, amount);
+        st.addActionAndUpdateBalancesCents(action, amount);
     }
 
-    private void parseAndAddShownHands(Game game, ArrayList<ArrayList<String>> wordsInLines) throws IncorrectCardException, IncorrectHandException {
-        while (!wordsInLines.get(curLine).get(0).equals("***")) {
-            if (wordsInLines.get(curLine).get(1).equals("shows")) {
-                String hash = (wordsInLines.get(curLine).get(0));
-                hash = hash.substring(0, hash.length() - 1);
+    private void parseAndAddShownHands(ParseContext ctx, Game game) throws IncorrectCardException, IncorrectHandException {
+        while (!ctx.cursor.wordEquals(0, "***")) {
+            if (ctx.cursor.wordEquals(1, "shows")) {
+                String hash = playerId(ctx, game, 0, ctx.cursor.wordLength(0) - 1);
 
-                Card c1 = new Card(wordsInLines.get(curLine).get(2).substring(1));
-
-                Card c2 = new Card(wordsInLines.get(curLine).get(3).substring(0, 2));
+                Card c1 = Card.parse(ctx.cursor.charAt(2, 1), ctx.cursor.charAt(2, 2));
+                Card c2 = Card.parse(ctx.cursor.charAt(3, 0), ctx.cursor.charAt(3, 1));
                 Hand hand = new Hand(c1, c2);
 
                 game.setPlayerHand(hash, hand);
             }
             // Should see what other lines could be here (excluding showing of hands).
-            ++curLine;
+            ctx.cursor.nextLine();
         }
     }
 
-    private void parseWinnings(Game game, ArrayList<ArrayList<String>> wordsInLines) {
-        int ax = 0;
-        while (!wordsInLines.get(curLine).get(1).equals("SHOWDOWN") && !wordsInLines.get(curLine).get(1).equals("FIRST")) {
-            ++curLine;
-            ++ax;
-            if (ax > 3) {
-                ax = 0;
+    /**
+     * Counts combinations of every player with known hand on every street, that was dealt.
+     * The board state of every street is counted only once and is shared by all the players.
+     */
+    private void countStreetCombinations(ParseContext ctx, Game game) {
+        if (ctx.flopState == null) {
+            return;
+        }
+        for (PlayerInGame player : game.getPlayers().values()) {
+            Hand hand = player.getHand();
+            if (hand != null) {
+                game.setStreetCombinations(player.getId(), combinationWith(ctx.flopState, hand),
+                        combinationWith(ctx.turnState, hand), combinationWith(ctx.riverState, hand));
             }
         }
-        ++curLine;
+    }
 
-        while (!wordsInLines.get(curLine).get(1).equals("SUMMARY")) {
-            if (wordsInLines.get(curLine).get(1).equals("collected")) {
-                String id = wordsInLines.get(curLine).get(0);
-                double amount = Double.parseDouble(wordsInLines.get(curLine).get(2).substring(1));
-                game.addWinner(id, amount);
-            }
-            ++curLine;
+    private static Combination combinationWith(EvaluationState boardState, Hand hand) {
+        return boardState == null ? null : boardState.snapshot().addHand(hand).getCombination();
+    }
+
+    private void parseWinnings(ParseContext ctx, Game game) {
+        while (!ctx.cursor.wordEquals(1, "SHOWDOWN") && !ctx.cursor.wordEquals(1, "FIRST")) {
+            ctx.cursor.nextLine();
         }
+        ctx.cursor.nextLine();
 
-        ++curLine;
-        String rakeStr = wordsInLines.get(curLine).get(5).substring(1);
-        String jackpotRake = wordsInLines.get(curLine).get(8).substring(1);
+        while (!ctx.cursor.wordEquals(1, "SUMMARY")) {
+            if (ctx.cursor.wordEquals(1, "collected")) {
+                String id = playerId(ctx, game, 0, ctx.cursor.wordLength(0));
+                long amount = ctx.cursor.parseCents(2, 1, ctx.cursor.wordLength(2));
+                game.addWinnerCents(id, amount);
+            }
+            ctx.cursor.nextLine();
+        }
 
-        double amount = Double.parseDouble(rakeStr) + Double.parseDouble(jackpotRake);
+        ctx.cursor.nextLine();
+        long amount = ctx.cursor.parseCents(5, 1, ctx.cursor.wordLength(5)) + ctx.cursor.parseCents(8, 1, ctx.cursor.wordLength(8));
 
-        game.setRake(amount);
+        game.setRakeCents(amount);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,228 @@
+package parsers.gg;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * Reads texts of the games from the hand history one by one. Game is a block of lines,
+ * that starts with the line starting with "Poker" and ends with an empty line or the end of the input.
+ * <p>
+ * Input is read by big chunks into a buffer, and the text of the current game is given as
+ * bounds inside this buffer, so it is not copied. Buffer keeps only the current game and the chunk read
+ * after it, so memory does not depend on the size of the input (only on the size of the biggest game).
+ */
+public class GameTextReader implements Closeable {
+    private static final int INITIAL_CAPACITY = 1 << 16;
+    private static final String GAME_START = "Poker";
+
+    private final Reader reader;
+    private char[] buffer;
+    private CharBuffer text;
+    private int limit;
+    private boolean endOfInput;
+    /**
+     * Amount of chars of the input, that were dropped from the buffer.
+     */
+    private long dropped;
+    /**
+     * Amount of bytes (in UTF-8), that the dropped chars took in the input.
+     */
+    private long droppedBytes;
+
+    // Everything before the mark could be dropped from the buffer when it is filled.
+    private int mark;
+    private int position;
+    private int lineEnd;
+    private int nextLineStart;
+
+    private int gameStart;
+    private int gameEnd;
+
+    /**
+     * @param reader reader of the hand history (it is closed together with this reader)
+     */
+    public GameTextReader(Reader reader) {
+        this.reader = reader;
+        this.buffer = new char[INITIAL_CAPACITY];
+        this.text = CharBuffer.wrap(buffer);
+    }
+
+    /**
+     * Constructs the reader of the hand history, that is already in memory (chars are not copied).
+     *
+     * @param chars  chars of the hand history
+     * @param length amount of chars of the hand history (from the start of the array)
+     */
+    public GameTextReader(char[] chars, int length) {
+        this.reader = null;
+        this.buffer = chars;
+        this.text = CharBuffer.wrap(chars);
+        this.limit = length;
+        this.endOfInput = true;
+    }
+
+    /**
+     * Reads the next game.
+     *
+     * @return true if the game was read, false if there are no more games
+     * @throws IOException if something is wrong with reading
+     */
+    public boolean next() throws IOException {
+        mark = position;
+        // Getting to the first line of the game text.
+        while (true) {
+            if (!readLine()) {
+                return false;
+            }
+            if (startsWithGameStart()) {
+                break;
+            }
+            position = nextLineStart;
+            mark = position;
+        }
+
+        gameEnd = position;
+        while (readLine() && lineEnd > position) {
+            gameEnd = lineEnd;
+            position = nextLineStart;
+        }
+        gameStart = mark;
+        return true;
+    }
+
+    /**
+     * @return text, that contains the current game (only the part between its start and its end
+     * is valid, and only until the next game is read)
+     */
+    public CharSequence getText() {
+        return text;
+    }
+
+    /**
+     * @return index of the first char of the current game in the text
+     */
+    public int getGameStart() {
+        return gameStart;
+    }
+
+    /**
+     * @return index after the last char of the current game in the text
+     */
+    public int getGameEnd() {
+        return gameEnd;
+    }
+
+    /**
+     * @return offset of the first char of the current game from the start of the input (in chars)
+     */
+    public long getGameOffset() {
+        return dropped + gameStart;
+    }
+
+    /**
+     * @return offset of the first char of the current game from the start of the input in bytes,
+     * if the input is in UTF-8 (it could be used to find the game in the file again)
+     */
+    public long getGameByteOffset() {
+        return droppedBytes + utf8Length(buffer, 0, gameStart);
+    }
+
+    /**
+     * Finds the end of the line, that starts at the position, reading more input if needed.
+     *
+     * @return true if the line was found, false if there is no more input
+     */
+    private boolean readLine() throws IOException {
+        int from = position;
+        while (true) {
+            for (int i = from; i < limit; ++i) {
+                if (buffer[i] == '\n') {
+                    nextLineStart = i + 1;
+                    lineEnd = i > position && buffer[i - 1] == '\r' ? i - 1 : i;
+                    return true;
+                }
+            }
+            if (endOfInput) {
+                if (position == limit) {
+                    return false;
+                }
+                nextLineStart = limit;
+                lineEnd = buffer[limit - 1] == '\r' ? limit - 1 : limit;
+                return true;
+            }
+            // Chars that are already checked are not checked again after the buffer is shifted.
+            int checked = limit;
+            from = checked - fill();
+        }
+    }
+
+    /**
+     * Drops chars before the mark, grows the buffer if it is still full and reads the next chunk of input.
+     *
+     * @return amount of chars, by which the kept chars were shifted
+     */
+    private int fill() throws IOException {
+        int shift = mark;
+        if (shift > 0) {
+            droppedBytes += utf8Length(buffer, 0, shift);
+            System.arraycopy(buffer, shift, buffer, 0, limit - shift);
+            limit -= shift;
+            position -= shift;
+            gameEnd -= shift;
+            mark = 0;
+            dropped += shift;
+        }
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            text = CharBuffer.wrap(buffer);
+        }
+        int read = reader.read(buffer, limit, buffer.length - limit);
+        if (read < 0) {
+            endOfInput = true;
+        } else {
+            limit += read;
+        }
+        return shift;
+    }
+
+    /**
+     * @return amount of bytes, that the chars take in UTF-8
+     */
+    static long utf8Length(char[] chars, int from, int to) {
+        long length = 0;
+        for (int i = from; i < to; ++i) {
+            char c = chars[i];
+            if (c < 0x80) {
+                ++length;
+            } else if (c < 0x800 || Character.isSurrogate(c)) {
+                // Both chars of the surrogate pair together take 4 bytes.
+                length += 2;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private boolean startsWithGameStart() {
+        if (lineEnd - position < GAME_START.length()) {
+            return false;
+        }
+        for (int i = 0; i < GAME_START.length(); ++i) {
+            if (buffer[position + i] != GAME_START.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (reader != null) {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package parsers.gg;
+
+import java.io.*;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Opens the hand history files: plain text files, gzip files (.gz) and zip archives (.zip).
+ * Archives are decompressed while they are read, nothing is extracted to the disk,
+ * and only the buffers of the streams are kept in memory.
+ */
+final class HandHistoryInput {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private HandHistoryInput() {
+    }
+
+    /**
+     * @return true if the file is a zip archive (by its extension)
+     */
+    static boolean isZip(String path) {
+        return path.toLowerCase(Locale.ROOT).endsWith(".zip");
+    }
+
+    /**
+     * @return true if the file is a gzip file (by its extension)
+     */
+    static boolean isGzip(String path) {
+        return path.toLowerCase(Locale.ROOT).endsWith(".gz");
+    }
+
+    /**
+     * @return true if the file is an archive, so its bytes are not the bytes of the text
+     */
+    static boolean isArchive(String path) {
+        return isZip(path) || isGzip(path);
+    }
+
+    /**
+     * Opens the file as the stream of the bytes of the hand history text.
+     * Entries of the zip archive are read one after another (separated by an empty line,
+     * so the last game of an entry never merges with the first game of the next one).
+     *
+     * @param path path of the file
+     * @return stream of the text bytes
+     * @throws IOException if the file could not be opened
+     */
+    static InputStream open(String path) throws IOException {
+        InputStream file = new FileInputStream(path);
+        try {
+            if (isGzip(path)) {
+                return new GZIPInputStream(file, BUFFER_SIZE);
+            }
+            if (isZip(path)) {
+                return new ZipEntriesInputStream(new ZipInputStream(new BufferedInputStream(file, BUFFER_SIZE)));
+            }
+            return file;
+        } catch (IOException ex) {
+            file.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Stream of the bytes of all the entries (not directories) of the zip archive one after another.
+     */
+    private static final class ZipEntriesInputStream extends InputStream {
+        private static final byte[] ENTRIES_SEPARATOR = {'\n', '\n'};
+
+        private final ZipInputStream zip;
+        private boolean isInEntry;
+        // Position in the separator, that is being read (it is read fully if the position is its length).
+        private int separatorPosition = ENTRIES_SEPARATOR.length;
+
+        private ZipEntriesInputStream(ZipInputStream zip) {
+            this.zip = zip;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (true) {
+                if (separatorPosition < ENTRIES_SEPARATOR.length) {
+                    int amount = Math.min(len, ENTRIES_SEPARATOR.length - separatorPosition);
+                    System.arraycopy(ENTRIES_SEPARATOR, separatorPosition, b, off, amount);
+                    separatorPosition += amount;
+                    return amount;
+                }
+                if (!isInEntry) {
+                    ZipEntry entry = zip.getNextEntry();
+                    while (entry != null && entry.isDirectory()) {
+                        entry = zip.getNextEntry();
+                    }
+                    if (entry == null) {
+                        return -1;
+                    }
+                    isInEntry = true;
+                }
+                int read = zip.read(b, off, len);
+                if (read > 0) {
+                    return read;
+                }
+                isInEntry = false;
+                separatorPosition = 0;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            zip.close();
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package parsers.gg;
+
+import parsers.AtomicFiles;
+import parsers.GameSink;
+import parsers.ParsingErrorSink;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.LinkedHashSet;
+import java.util.Properties;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Live import of the hand history directory, that the poker client keeps appending to during the session.
+ * <p>
+ * For every file of the directory the offset of the first byte, that was not imported yet, is kept
+ * and persisted to the offsets file, so only the appended part of the file is read, and nothing is read
+ * twice (even after the restart of the app). Only complete games are imported: game is complete, when
+ * it is followed by an empty line, so the game, that is still being written, is imported with the next append.
+ * <p>
+ * Changes of the files are found by {@link WatchService}. Watcher is not thread-safe: it must be used by
+ * one thread (it could only be closed from another thread to stop waiting for changes).
+ */
+public class HandHistoryWatcher implements Closeable {
+    private static final int INITIAL_WINDOW_SIZE = 1 << 20;
+    private static final int MAX_WINDOW_SIZE = 1 << 30;
+
+    private final GGParser parser;
+    private final Path directory;
+    private final Path offsetsFile;
+    private final WatchService watchService;
+    /**
+     * Offsets of the first not imported byte of the files (by the names of the files in the directory).
+     */
+    private final Properties offsets = new Properties();
+
+    /**
+     * Starts watching the directory (files are not imported until one of the import methods is called).
+     *
+     * @param parser      parser of the games
+     * @param directory   directory with the hand history files
+     * @param offsetsFile file, where the offsets of the files are persisted (it is created if it does not exist)
+     * @throws IOException if the directory could not be watched or the offsets file could not be read
+     */
+    public HandHistoryWatcher(GGParser parser, Path directory, Path offsetsFile) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            throw new FileNotFoundException("Given path " + directory + " is not a directory");
+        }
+        this.parser = parser;
+        this.directory = directory;
+        this.offsetsFile = offsetsFile;
+        if (Files.exists(offsetsFile)) {
+            try (Reader reader = Files.newBufferedReader(offsetsFile, StandardCharsets.UTF_8)) {
+                offsets.load(reader);
+            }
+        }
+        this.watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+    }
+
+    /**
+     * Imports the games, that were appended to all the files of the directory since the last import
+     * (it should be called once after the start, to import everything appended while the app was closed).
+     *
+     * @param sink   consumer of the imported games
+     * @param errors consumer of the errors of the games, that could not be parsed
+     * @return amount of imported games
+     * @throws IOException if something is wrong with file reading or the offsets could not be persisted
+     */
+    public long importNewHands(GameSink sink, ParsingErrorSink errors) throws IOException {
+        long amount = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                if (isWatchedFile(file)) {
+                    amount += importNewHands(file, sink, errors);
+                }
+            }
+        }
+        return amount;
+    }
+
+    /**
+     * Waits until some files of the directory are changed and imports the games appended to them.
+     *
+     * @param sink   consumer of the imported games
+     * @param errors consumer of the errors of the games, that could not be parsed
+     * @return amount of imported games, or -1 if the watcher was closed
+     * @throws IOException          if something is wrong with file reading or the offsets could not be persisted
+     * @throws InterruptedException if the thread was interrupted while waiting
+     */
+    public long awaitNewHands(GameSink sink, ParsingErrorSink errors) throws IOException, InterruptedException {
+        WatchKey key;
+        try {
+            key = watchService.take();
+        } catch (ClosedWatchServiceException ex) {
+            return -1;
+        }
+
+        // Several events of the same file are merged, the file is read once.
+        LinkedHashSet<Path> changedFiles = new LinkedHashSet<>();
+        boolean isOverflow = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                isOverflow = true;
+            } else {
+                changedFiles.add(directory.resolve((Path) event.context()));
+            }
+        }
+        key.reset();
+
+        if (isOverflow) {
+            // Some events were lost, so all the files are checked.
+            return importNewHands(sink, errors);
+        }
+        long amount = 0;
+        for (Path file : changedFiles) {
+            if (isWatchedFile(file)) {
+                amount += importNewHands(file, sink, errors);
+            }
+        }
+        return amount;
+    }
+
+    /**
+     * Imports the complete games, that were appended to the file since the last import.
+     *
+     * @param file   file of the directory
+     * @param sink   consumer of the imported games
+     * @param errors consumer of the errors of the games, that could not be parsed
+     * @return amount of imported games
+     * @throws IOException if something is wrong with file reading or the offsets could not be persisted
+     */
+    public long importNewHands(Path file, GameSink sink, ParsingErrorSink errors) throws IOException {
+        String name = file.getFileName().toString();
+        long offset = getOffset(name);
+        long amount = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < offset) {
+                // File was rewritten, so it is imported from the start.
+                offset = 0;
+            }
+            int windowSize = INITIAL_WINDOW_SIZE;
+            while (offset < size) {
+                int length = (int) Math.min(windowSize, size - offset);
+                ByteBuffer bytes = ByteBuffer.allocate(length);
+                while (bytes.hasRemaining()) {
+                    if (channel.read(bytes, offset + bytes.position()) < 0) {
+                        break;
+                    }
+                }
+                int completeLength = completeGamesLength(bytes, bytes.position());
+                if (completeLength == 0) {
+                    if (length < windowSize || windowSize == MAX_WINDOW_SIZE) {
+                        // The rest of the file is the game, that is still being written.
+                        break;
+                    }
+                    windowSize *= 2;
+                    continue;
+                }
+
+                // Window is cut after an empty line, so no char is split between the windows.
+                bytes.flip().limit(completeLength);
+                CharBuffer chars = StandardCharsets.UTF_8.decode(bytes);
+                GameTextReader reader = new GameTextReader(chars.array(), chars.limit());
+                amount += parser.parseGames(reader, file.toString(), offset, sink, errors);
+
+                offset += completeLength;
+                setOffset(name, offset);
+            }
+        }
+        return amount;
+    }
+
+    /**
+     * Marks the beginning of the file as imported (for example, when the file was uploaded as a whole),
+     * so only the games appended after the offset are imported.
+     *
+     * @param file       file of the directory
+     * @param byteOffset offset of the first byte, that was not imported
+     * @throws IOException if the offsets could not be persisted
+     */
+    public void markImported(Path file, long byteOffset) throws IOException {
+        String name = file.getFileName().toString();
+        if (byteOffset > getOffset(name)) {
+            setOffset(name, byteOffset);
+        }
+    }
+
+    /**
+     * Marks all the files of the directory, that have no offset yet, as imported up to their current size,
+     * so only the games appended to them from now on are imported (files created later are imported from the start).
+     *
+     * @throws IOException if the directory could not be read or the offsets could not be persisted
+     */
+    public void markExistingImported() throws IOException {
+        boolean isChanged = false;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (isWatchedFile(file) && offsets.getProperty(name) == null) {
+                    offsets.setProperty(name, Long.toString(Files.size(file)));
+                    isChanged = true;
+                }
+            }
+        }
+        if (isChanged) {
+            saveOffsets();
+        }
+    }
+
+    /**
+     * @return offset of the first byte of the file, that was not imported yet
+     */
+    public long getOffset(String fileName) {
+        String offset = offsets.getProperty(fileName);
+        return offset == null ? 0 : Long.parseLong(offset);
+    }
+
+    /**
+     * @return path of the watched directory
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    private void setOffset(String fileName, long offset) throws IOException {
+        offsets.setProperty(fileName, Long.toString(offset));
+        saveOffsets();
+    }
+
+    private void saveOffsets() throws IOException {
+        AtomicFiles.write(offsetsFile, out -> offsets.store(new OutputStreamWriter(out, StandardCharsets.UTF_8),
+                "Imported bytes of the hand history files of " + directory));
+    }
+
+    /**
+     * @return true if the file is a text file with hand history (archives are never appended to, so they are not watched)
+     */
+    private boolean isWatchedFile(Path file) {
+        return Files.isRegularFile(file) && !isOffsetsFile(file) && !HandHistoryInput.isArchive(file.toString());
+    }
+
+    private boolean isOffsetsFile(Path file) {
+        Path absolute = file.toAbsolutePath().normalize();
+        Path absoluteOffsets = offsetsFile.toAbsolutePath().normalize();
+        return absolute.equals(absoluteOffsets) ||
+                absolute.equals(absoluteOffsets.resolveSibling(absoluteOffsets.getFileName() + ".tmp"));
+    }
+
+    /**
+     * @return length of the part of the bytes, that ends with the last empty line ("\n\n" or "\n\r\n"),
+     * or 0 if there is no empty line
+     */
+    private static int completeGamesLength(ByteBuffer bytes, int length) {
+        for (int i = length - 1; i > 0; --i) {
+            if (bytes.get(i) != '\n') {
+                continue;
+            }
+            byte previous = bytes.get(i - 1);
+            if (previous == '\n' || (previous == '\r' && i > 1 && bytes.get(i - 2) == '\n')) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Stops watching the directory (waiting for changes in other threads is stopped too).
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+}
@@ -0,0 +1,102 @@
+package parsers.gg;
+
+import exceptions.GameParsingException;
+import exceptions.IncorrectBoardException;
+import exceptions.IncorrectCardException;
+import exceptions.IncorrectHandException;
+import models.Game;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parses the list of the parts of the work (like files of a directory, chunks of a file or entries of an archive)
+ * in the common fork-join pool. Range of the parts is split in halves until a single part is left,
+ * and games of the left half always go before the games of the right half, so the games are in the order
+ * of the parts, whatever the order, in which threads finish their parts, is.
+ *
+ * @param <T> type of the parts
+ */
+final class OrderedParsingTask<T> extends RecursiveTask<ArrayList<Game>> {
+    /**
+     * Parser of one part of the work.
+     *
+     * @param <T> type of the parts
+     */
+    @FunctionalInterface
+    interface PartParser<T> {
+        /**
+         * @return games of the part in their order
+         */
+        ArrayList<Game> parse(T part)
+                throws IOException, IncorrectHandException, IncorrectBoardException, IncorrectCardException;
+    }
+
+    private final List<T> parts;
+    private final PartParser<T> partParser;
+    private final int from;
+    private final int to;
+
+    private OrderedParsingTask(List<T> parts, PartParser<T> partParser, int from, int to) {
+        this.parts = parts;
+        this.partParser = partParser;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Parses all the parts in the common fork-join pool and rethrows the checked exception of the first failed part.
+     *
+     * @param parts      parts of the work
+     * @param partParser parser of one part (must be safe to call from several threads at once)
+     * @return games of all the parts in the order of the parts
+     */
+    static <T> ArrayList<Game> parseAll(List<T> parts, PartParser<T> partParser)
+            throws IOException, IncorrectHandException, IncorrectBoardException, IncorrectCardException {
+        if (parts.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try {
+            return new OrderedParsingTask<>(parts, partParser, 0, parts.size()).invoke();
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        } catch (GameParsingException ex) {
+            if (ex.getCause() instanceof IncorrectCardException cardException) {
+                throw cardException;
+            }
+            if (ex.getCause() instanceof IncorrectHandException handException) {
+                throw handException;
+            }
+            if (ex.getCause() instanceof IncorrectBoardException boardException) {
+                throw boardException;
+            }
+            throw ex;
+        }
+    }
+
+    @Override
+    protected ArrayList<Game> compute() {
+        if (to - from == 1) {
+            return parsePart(parts.get(from));
+        }
+        int middle = (from + to) >>> 1;
+        OrderedParsingTask<T> right = new OrderedParsingTask<>(parts, partParser, middle, to);
+        right.fork();
+        ArrayList<Game> games = new OrderedParsingTask<>(parts, partParser, from, middle).compute();
+        games.addAll(right.join());
+        return games;
+    }
+
+    private ArrayList<Game> parsePart(T part) {
+        try {
+            return partParser.parse(part);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } catch (IncorrectCardException | IncorrectHandException | IncorrectBoardException ex) {
+            throw new GameParsingException("Part " + part + " could not be parsed: " + ex.getMessage(), ex);
+        }
+    }
+}
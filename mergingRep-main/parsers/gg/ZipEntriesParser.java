@@ -0,0 +1,52 @@
+package parsers.gg;
+
+import exceptions.IncorrectBoardException;
+import exceptions.IncorrectCardException;
+import exceptions.IncorrectHandException;
+import models.Game;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Parses the entries of the zip archive in parallel (see {@link OrderedParsingTask}). Archive is opened
+ * as {@link ZipFile}, so every entry could be read (and decompressed) on its own, right from the archive.
+ */
+final class ZipEntriesParser {
+    private ZipEntriesParser() {
+    }
+
+    /**
+     * Parses all the entries (not directories) of the archive in the common fork-join pool
+     * and rethrows the checked exception of the first failed game.
+     *
+     * @return games of the archive in the order of its entries
+     */
+    static ArrayList<Game> parseAll(GGParser parser, String path)
+            throws IOException, IncorrectHandException, IncorrectBoardException, IncorrectCardException {
+        try (ZipFile zip = new ZipFile(path, StandardCharsets.UTF_8)) {
+            List<? extends ZipEntry> entries = Collections.list(zip.entries()).stream()
+                    .filter(entry -> !entry.isDirectory())
+                    .toList();
+            return OrderedParsingTask.parseAll(entries, entry -> parseEntry(parser, zip, entry));
+        }
+    }
+
+    private static ArrayList<Game> parseEntry(GGParser parser, ZipFile zip, ZipEntry entry)
+            throws IOException, IncorrectHandException, IncorrectBoardException, IncorrectCardException {
+        ArrayList<Game> games = new ArrayList<>();
+        try (GameTextReader reader = new GameTextReader(
+                new InputStreamReader(zip.getInputStream(entry), StandardCharsets.UTF_8))) {
+            while (reader.next()) {
+                games.add(parser.parseGame(reader.getText(), reader.getGameStart(), reader.getGameEnd()));
+            }
+        }
+        return games;
+    }
+}
@@ -0,0 +1,70 @@
+package analizer;
+
+import java.util.SplittableRandom;
+
+/**
+ * Compares the batch evaluation with the scalar loop over the same hands (all hands, that do not share
+ * cards with the board, on random river boards). It is not a test: run it with
+ * {@code java --add-modules jdk.incubator.vector} (and without it, to see the scalar fallback).
+ */
+public final class HandEvaluatorBatchBenchmark {
+    private static final int BOARDS = 64;
+    private static final int ROUNDS = 10;
+    private static final int REPEATS = 200;
+
+    private HandEvaluatorBatchBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        SplittableRandom random = new SplittableRandom(1);
+        long[] boards = new long[BOARDS];
+        int[][] holeCards = new int[BOARDS][];
+        for (int i = 0; i < BOARDS; ++i) {
+            while (Long.bitCount(boards[i]) < 5) {
+                boards[i] |= 1L << random.nextInt(HandEvaluator.CARDS_AMOUNT);
+            }
+            holeCards[i] = holeCards(boards[i]);
+        }
+        int[] strengths = new int[holeCards[0].length / 2];
+        long hands = (long) BOARDS * REPEATS * strengths.length;
+
+        System.out.println("Vector path: " + HandEvaluator.isVectorBatch());
+        for (int round = 0; round < ROUNDS; ++round) {
+            long start = System.nanoTime();
+            long checksum = 0;
+            for (int repeat = 0; repeat < REPEATS; ++repeat) {
+                for (int i = 0; i < BOARDS; ++i) {
+                    HandEvaluator.evaluateBatch(boards[i], holeCards[i], strengths);
+                    checksum += strengths[repeat % strengths.length];
+                }
+            }
+            double batch = (double) (System.nanoTime() - start) / hands;
+
+            start = System.nanoTime();
+            for (int repeat = 0; repeat < REPEATS; ++repeat) {
+                for (int i = 0; i < BOARDS; ++i) {
+                    HandEvaluator.evaluateBatchScalar(boards[i], HandEvaluator.flushShift(boards[i]),
+                            holeCards[i], strengths, 0);
+                    checksum -= strengths[repeat % strengths.length];
+                }
+            }
+            double scalar = (double) (System.nanoTime() - start) / hands;
+            System.out.printf("batch %.2f ns/hand, scalar loop %.2f ns/hand, speedup %.2f (checksum %d)%n",
+                    batch, scalar, scalar / batch, checksum);
+        }
+    }
+
+    private static int[] holeCards(long board) {
+        int[] holeCards = new int[1081 * 2];
+        int i = 0;
+        for (int first = 0; first < HandEvaluator.CARDS_AMOUNT; ++first) {
+            for (int second = first + 1; second < HandEvaluator.CARDS_AMOUNT; ++second) {
+                if ((board & (1L << first | 1L << second)) == 0) {
+                    holeCards[i++] = first;
+                    holeCards[i++] = second;
+                }
+            }
+        }
+        return holeCards;
+    }
+}
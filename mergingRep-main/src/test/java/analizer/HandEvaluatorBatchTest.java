@@ -0,0 +1,96 @@
+package analizer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Batch evaluation (by vectors, when jdk.incubator.vector is present) must give the same strengths
+ * as the evaluation of the hands one by one.
+ */
+class HandEvaluatorBatchTest {
+    private static final int ALL_HANDS = HandEvaluator.CARDS_AMOUNT * (HandEvaluator.CARDS_AMOUNT - 1) / 2;
+
+    /**
+     * @return hole cards of all the hands of the deck (including the ones, that share cards with the board)
+     */
+    private static int[] allHoleCards() {
+        int[] holeCards = new int[2 * ALL_HANDS];
+        int i = 0;
+        for (int first = 0; first < HandEvaluator.CARDS_AMOUNT; ++first) {
+            for (int second = first + 1; second < HandEvaluator.CARDS_AMOUNT; ++second) {
+                holeCards[i++] = first;
+                holeCards[i++] = second;
+            }
+        }
+        return holeCards;
+    }
+
+    private static void assertSameAsOneByOne(long board, int[] holeCards) {
+        int[] strengths = HandEvaluator.evaluateBatch(board, holeCards);
+        for (int hand = 0; hand < strengths.length; ++hand) {
+            long holeMask = 1L << holeCards[2 * hand] | 1L << holeCards[2 * hand + 1];
+            int expected = (board & holeMask) != 0 ? -1 : HandEvaluator.evaluate(board | holeMask);
+            assertEquals(expected, strengths[hand], "Board " + Long.toHexString(board) + ", hand " + hand);
+        }
+    }
+
+    @Test
+    void randomBoards() {
+        SplittableRandom random = new SplittableRandom(7);
+        int[] holeCards = allHoleCards();
+        for (int i = 0; i < 300; ++i) {
+            long board = 0;
+            int boardSize = 3 + i % 3;
+            while (Long.bitCount(board) < boardSize) {
+                board |= 1L << random.nextInt(HandEvaluator.CARDS_AMOUNT);
+            }
+            assertSameAsOneByOne(board, holeCards);
+        }
+    }
+
+    @Test
+    void boardsOfOneSuit() {
+        int[] holeCards = allHoleCards();
+        // Royal flush, straight flush, wheel, flush and a set of spades on the board.
+        for (int suit = 0; suit < 4; ++suit) {
+            int shift = suit * HandEvaluator.RANKS_AMOUNT;
+            assertSameAsOneByOne(0x1F00L << shift, holeCards);
+            assertSameAsOneByOne(0x00F8L << shift, holeCards);
+            assertSameAsOneByOne(0x100EL << shift, holeCards);
+            assertSameAsOneByOne(0x0525L << shift, holeCards);
+            assertSameAsOneByOne(0x0007L << shift, holeCards);
+        }
+    }
+
+    @Test
+    void pairedBoards() {
+        int[] holeCards = allHoleCards();
+        // Quads, full house and two pairs on the board.
+        assertSameAsOneByOne(1L | 1L << 13 | 1L << 26 | 1L << 39 | 1L << 12, holeCards);
+        assertSameAsOneByOne(1L | 1L << 13 | 1L << 26 | 1L << 5 | 1L << 18, holeCards);
+        assertSameAsOneByOne(1L << 3 | 1L << 16 | 1L << 7 | 1L << 20 | 1L << 51, holeCards);
+    }
+
+    @Test
+    void batchesOfAnySize() {
+        int[] holeCards = allHoleCards();
+        long board = 1L << 2 | 1L << 20 | 1L << 33 | 1L << 45;
+        for (int hands = 0; hands <= 40; ++hands) {
+            assertSameAsOneByOne(board, Arrays.copyOfRange(holeCards, 100, 100 + 2 * hands));
+        }
+    }
+
+    @Test
+    void vectorAndScalarPathsAgree() {
+        int[] holeCards = allHoleCards();
+        long board = 1L << 4 | 1L << 5 | 1L << 6 | 1L << 30 | 1L << 44;
+        int[] vector = HandEvaluator.evaluateBatch(board, holeCards);
+        int[] scalar = new int[ALL_HANDS];
+        HandEvaluator.evaluateBatchScalar(board, HandEvaluator.flushShift(board), holeCards, scalar, 0);
+        assertArrayEquals(scalar, vector);
+    }
+}
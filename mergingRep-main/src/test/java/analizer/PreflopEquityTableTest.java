@@ -0,0 +1,117 @@
+package analizer;
+
+import exceptions.IncorrectBoardException;
+import models.Card;
+import models.Hand;
+import models.HandRange;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Shipped table of preflop equities must give the same results as the enumeration of all the runouts.
+ */
+class PreflopEquityTableTest {
+    private static Hand hand(int card1, int card2) {
+        return HandRange.comboHand(HandRange.comboIndex(card1, card2));
+    }
+
+    private static int card(Card.Rank rank, Card.Suit suit) {
+        return suit.ordinal() * Card.RANKS_AMOUNT + rank.ordinal();
+    }
+
+    /**
+     * @return wins and ties of the hero on all the runouts of the board
+     */
+    private static long[] enumerate(long heroMask, long villainMask) {
+        long[] counters = new long[2];
+        long dealt = heroMask | villainMask;
+        for (int c1 = 0; c1 < Card.CARDS_AMOUNT; ++c1) {
+            for (int c2 = c1 + 1; c2 < Card.CARDS_AMOUNT; ++c2) {
+                for (int c3 = c2 + 1; c3 < Card.CARDS_AMOUNT; ++c3) {
+                    for (int c4 = c3 + 1; c4 < Card.CARDS_AMOUNT; ++c4) {
+                        for (int c5 = c4 + 1; c5 < Card.CARDS_AMOUNT; ++c5) {
+                            long board = 1L << c1 | 1L << c2 | 1L << c3 | 1L << c4 | 1L << c5;
+                            if ((board & dealt) != 0) {
+                                continue;
+                            }
+                            int hero = HandEvaluator.evaluate(board | heroMask);
+                            int villain = HandEvaluator.evaluate(board | villainMask);
+                            counters[0] += hero > villain ? 1 : 0;
+                            counters[1] += hero == villain ? 1 : 0;
+                        }
+                    }
+                }
+            }
+        }
+        return counters;
+    }
+
+    private static void assertSameAsEnumeration(PreflopEquityTable table, Hand hero, Hand villain) {
+        long[] expected = enumerate(hero.getCardsMask(), villain.getCardsMask());
+        EquityResult result = table.getResult(hero.getCardsMask(), villain.getCardsMask());
+        assertEquals(PreflopEquityTable.RUNOUTS, result.getRunouts());
+        assertEquals(expected[0], result.getWins(0), hero + " against " + villain);
+        assertEquals(expected[1], result.getTies(0), hero + " against " + villain);
+        assertEquals((expected[0] + expected[1] / 2.0) / PreflopEquityTable.RUNOUTS,
+                table.getEquity(hero, villain), 1e-12);
+    }
+
+    @Test
+    void matchupsAreEqualToEnumeration() throws IOException {
+        PreflopEquityTable table = PreflopEquityTable.load(Paths.get(PreflopEquityTable.DEFAULT_PATH));
+        Card.Suit[] suits = Card.Suit.values();
+        // Pair against overcards, suited connectors against a dominated hand, shared suits and mirrored hands.
+        assertSameAsEnumeration(table,
+                hand(card(Card.Rank.QUEEN, suits[0]), card(Card.Rank.QUEEN, suits[1])),
+                hand(card(Card.Rank.ACE, suits[2]), card(Card.Rank.KING, suits[3])));
+        assertSameAsEnumeration(table,
+                hand(card(Card.Rank.SEVEN, suits[1]), card(Card.Rank.EIGHT, suits[1])),
+                hand(card(Card.Rank.ACE, suits[1]), card(Card.Rank.SEVEN, suits[2])));
+        assertSameAsEnumeration(table,
+                hand(card(Card.Rank.ACE, suits[3]), card(Card.Rank.KING, suits[0])),
+                hand(card(Card.Rank.ACE, suits[0]), card(Card.Rank.KING, suits[3])));
+    }
+
+    @Test
+    void isomorphicAndReversedMatchups() throws IOException {
+        PreflopEquityTable table = PreflopEquityTable.load(Paths.get(PreflopEquityTable.DEFAULT_PATH));
+        Card.Suit[] suits = Card.Suit.values();
+        Hand hero = hand(card(Card.Rank.JACK, suits[0]), card(Card.Rank.TEN, suits[0]));
+        Hand villain = hand(card(Card.Rank.NINE, suits[0]), card(Card.Rank.NINE, suits[2]));
+        Hand renamedHero = hand(card(Card.Rank.JACK, suits[3]), card(Card.Rank.TEN, suits[3]));
+        Hand renamedVillain = hand(card(Card.Rank.NINE, suits[3]), card(Card.Rank.NINE, suits[1]));
+        assertEquals(table.getEquity(hero, villain), table.getEquity(renamedHero, renamedVillain), 0);
+
+        EquityResult result = table.getResult(hero.getCardsMask(), villain.getCardsMask());
+        EquityResult reversed = table.getResult(villain.getCardsMask(), hero.getCardsMask());
+        assertEquals(result.getWins(0), reversed.getWins(1));
+        assertEquals(result.getTies(0), reversed.getTies(1));
+        assertEquals(1, result.getEquity(0) + result.getEquity(1), 1e-12);
+        Hand sharedCard = hand(card(Card.Rank.JACK, suits[0]), card(Card.Rank.TWO, suits[1]));
+        assertThrows(IllegalArgumentException.class, () -> table.getEquity(hero, sharedCard));
+    }
+
+    @Test
+    void calculatorUsesTable() throws IOException, IncorrectBoardException {
+        PreflopEquityTable table = PreflopEquityTable.load(Paths.get(PreflopEquityTable.DEFAULT_PATH));
+        Card.Suit[] suits = Card.Suit.values();
+        Hand hero = hand(card(Card.Rank.FIVE, suits[2]), card(Card.Rank.FIVE, suits[3]));
+        Hand villain = hand(card(Card.Rank.ACE, suits[2]), card(Card.Rank.TWO, suits[0]));
+        EquityResult expected = table.getResult(hero.getCardsMask(), villain.getCardsMask());
+        EquityResult result = EquityCalculator.calculateExhaustive(List.of(hero, villain), null, null);
+        assertTrue(result.isExact());
+        assertEquals(expected.getRunouts(), result.getRunouts());
+        assertEquals(expected.getWins(0), result.getWins(0));
+        assertEquals(expected.getTies(0), result.getTies(0));
+        assertEquals(expected.getEquity(1), result.getEquity(1), 1e-12);
+
+        EquityResult sampled = EquityCalculator.calculateMonteCarlo(List.of(hero, villain), null, null, 0.01, 0);
+        assertTrue(sampled.isExact());
+        assertEquals(expected.getWins(1), sampled.getWins(1));
+    }
+}
@@ -0,0 +1,57 @@
+package models;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Saved games must stay readable: file written before the money was kept in cents
+ * (it has the "finalPot" property and amounts with float drift) is loaded and saved again.
+ */
+class GamesSetJsonTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private GamesSet loadBaselineGames() throws IOException {
+        try (InputStream in = GamesSetJsonTest.class.getResourceAsStream("baselineGames.json")) {
+            assertNotNull(in, "baselineGames.json is missing");
+            return objectMapper.readValue(in, GamesSet.class);
+        }
+    }
+
+    @Test
+    void loadsBaselineFile() throws IOException {
+        GamesSet gamesSet = loadBaselineGames();
+
+        assertEquals(3, gamesSet.getGames().size());
+        Game game = gamesSet.getGames().get("RC00000002");
+        assertNotNull(game);
+        assertEquals(2, game.getBigBlindCents());
+        assertEquals(43, game.getFinalPotCents());
+        assertEquals(1, game.getRakeCents());
+        assertEquals(43, game.getWinnersCents().get("eee555"));
+        assertEquals(1673102702000L, game.getDateMillis());
+        assertEquals(9, gamesSet.getGames().get("RC00000001").getFinalPotCents());
+    }
+
+    @Test
+    void savedBaselineFileIsLoadedBack() throws IOException {
+        GamesSet gamesSet = loadBaselineGames();
+
+        String saved = objectMapper.writeValueAsString(gamesSet);
+        GamesSet loaded = objectMapper.readValue(saved, GamesSet.class);
+
+        assertEquals(gamesSet.getGames().keySet(), loaded.getGames().keySet());
+        for (Game game : gamesSet.getGames().values()) {
+            Game loadedGame = loaded.getGames().get(game.getGameId());
+            assertEquals(game.getFinalPotCents(), loadedGame.getFinalPotCents());
+            assertEquals(game.getRakeCents(), loadedGame.getRakeCents());
+            assertEquals(game.getWinnersCents(), loadedGame.getWinnersCents());
+            assertEquals(game.getDateMillis(), loadedGame.getDateMillis());
+        }
+        assertEquals(saved, objectMapper.writeValueAsString(loaded));
+    }
+}